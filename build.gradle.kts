@@ -2,6 +2,7 @@ plugins {
     java
     alias(libs.plugins.spring.boot)
     alias(libs.plugins.spring.dependency.management)
+    alias(libs.plugins.jmh)
     id("jacoco")
 }
 
@@ -23,6 +24,8 @@ dependencyManagement {
 
 dependencies {
     implementation(libs.spring.boot.starter.web)
+    implementation(libs.spring.boot.starter.actuator)
+    runtimeOnly(libs.micrometer.registry.prometheus)
     compileOnly(libs.lombok)
     annotationProcessor(libs.lombok)
     annotationProcessor(libs.spring.boot.configuration.processor)
@@ -38,6 +41,39 @@ with(extensions.getByType(JacocoPluginExtension::class.java)) {
     toolVersion = "0.8.7"
 }
 
+// benchmark (./gradlew jmh, 특정 benchmark 만 실행 : -PjmhIncludes=PointServiceBenchmark.OneThread)
+jmh {
+    jmhVersion.set(libs.versions.jmh.get())
+    fork.set(1)
+    warmupIterations.set(1)
+    warmup.set("5s")
+    iterations.set(3)
+    timeOnIteration.set("5s")
+    resultFormat.set("JSON")
+    findProperty("jmhIncludes")?.let { includes.set(listOf(it.toString())) }
+    findProperty("jmhProfilers")?.let { profilers.set(it.toString().split(",")) }
+}
+
+// 부하 test (./gradlew loadTest -PloadArgs="--rate=200 --duration=30 --point.concurrency.strategy=optimistic")
+val load: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+configurations[load.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[load.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+
+dependencies {
+    "loadImplementation"(libs.hdr.histogram)
+}
+
+val loadTest by tasks.registering(JavaExec::class) {
+    group = "verification"
+    description = "point API 에 요청을 재생하고 endpoint 별 응답 시간 histogram 을 출력"
+    classpath = load.runtimeClasspath
+    mainClass.set("io.hhplus.tdd.load.PointLoadHarness")
+    args = findProperty("loadArgs")?.toString()?.split(" ")?.filter { it.isNotBlank() } ?: emptyList()
+}
+
 // bundling tasks
 tasks.getByName("bootJar") {
     enabled = true
@@ -48,5 +84,47 @@ tasks.getByName("jar") {
 // test tasks
 tasks.test {
     ignoreFailures = true
-    useJUnitPlatform()
+    useJUnitPlatform {
+        excludeTags("heap-limited", "java21", "throughput")
+    }
+}
+
+// 작은 heap 에서 memory 사용량이 일정한지 확인하는 test
+val heapLimitedTest by tasks.registering(Test::class) {
+    group = "verification"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("heap-limited")
+    }
+    maxHeapSize = "64m"
+}
+
+tasks.check {
+    dependsOn(heapLimitedTest)
+}
+
+// 처리량(실행 시간) 비교 test (실행 환경의 core 수에 따라 결과가 달라지므로 check 에 포함하지 않음)
+val throughputTest by tasks.registering(Test::class) {
+    group = "verification"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("throughput")
+    }
+}
+
+// Java 21 에서만 의미가 있는 test (virtual thread 요청 처리)
+// JDK 21 이 자동으로 찾아지지 않으면 -Porg.gradle.java.installations.paths=<JDK 21 경로> 로 지정
+val java21Test by tasks.registering(Test::class) {
+    group = "verification"
+    description = "Java 21 toolchain 으로 virtual thread test 실행"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    javaLauncher.set(javaToolchains.launcherFor {
+        languageVersion.set(JavaLanguageVersion.of(21))
+    })
+    useJUnitPlatform {
+        includeTags("java21")
+    }
 }
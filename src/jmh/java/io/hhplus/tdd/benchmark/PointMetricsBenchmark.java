@@ -0,0 +1,64 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.database.TablePointHistoryRepository;
+import io.hhplus.tdd.database.TableUserPointRepository;
+import io.hhplus.tdd.point.lock.UserLockManager;
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import io.hhplus.tdd.point.model.PointResult;
+import io.hhplus.tdd.point.model.UserPoint;
+import io.hhplus.tdd.point.service.impl.PointServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * metric 기록 비용 benchmark
+ * - throttle 이 없는 table 에서 metric 을 기록하지 않는 경우(noop)와 기록하는 경우(simple)를 비교
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(8)
+public class PointMetricsBenchmark {
+
+    @Param({"noop", "simple"})
+    public String registry;
+
+    private PointServiceImpl pointService;
+
+    private UserIdDistribution userIds;
+
+    // 충전 benchmark 로 쌓이는 history 가 memory 를 채우지 않도록 iteration 마다 새로 생성
+    @Setup(Level.Iteration)
+    public void setUp() {
+        PointMetrics pointMetrics = "simple".equals(registry) ? new PointMetrics(new SimpleMeterRegistry()) : PointMetrics.noop();
+        pointService = new PointServiceImpl(
+                new TableUserPointRepository(new ZeroLatencyUserPointTable(), pointMetrics),
+                new TablePointHistoryRepository(new ZeroLatencyPointHistoryTable(), pointMetrics),
+                new UserLockManager(pointMetrics),
+                ForkJoinPool.commonPool(),
+                pointMetrics);
+        userIds = UserIdDistribution.of("uniform", PointServiceBenchmark.USERS);
+    }
+
+    @Benchmark
+    public PointResult chargePoint() {
+        return pointService.chargePoint(userIds.next(), 1L, System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public UserPoint selectPointById() {
+        return pointService.selectPointById(userIds.next());
+    }
+}
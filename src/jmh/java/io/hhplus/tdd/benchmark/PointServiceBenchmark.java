@@ -0,0 +1,112 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.model.PointHistory;
+import io.hhplus.tdd.point.model.PointResult;
+import io.hhplus.tdd.point.model.UserPoint;
+import io.hhplus.tdd.point.service.impl.PointServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PointServiceImpl 의 충전 / 사용 / 조회 / history 조회 benchmark
+ * - storage : table(실제 table, throttle 포함) / zero(throttle 없는 table)
+ *   두 결과의 차이로 table 지연과 lock / 검증 비용을 나누어 볼 수 있다
+ * - distribution : uniform / zipf(소수 user 에 요청 집중)
+ * - 스레드 수 별로 OneThread / EightThreads / SixtyFourThreads 를 실행
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public abstract class PointServiceBenchmark {
+
+    static final int USERS = 1024;
+    static final long INITIAL_POINT = 5_000_000L;
+
+    @Param({"table", "zero"})
+    public String storage;
+
+    @Param({"uniform", "zipf"})
+    public String distribution;
+
+    private PointServiceImpl pointService;
+
+    private UserIdDistribution userIds;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() throws InterruptedException {
+        userIds = UserIdDistribution.of(distribution, USERS);
+        if ("table".equals(storage)) {
+            pointService = new PointServiceImpl(new UserPointTable(), new PointHistoryTable());
+            chargeAllUsers();
+        }
+    }
+
+    /**
+     * throttle 이 없으면 충전 benchmark 로 history 가 빠르게 쌓이므로 iteration 마다 새로 생성
+     */
+    @Setup(Level.Iteration)
+    public void setUpIteration() throws InterruptedException {
+        if ("zero".equals(storage)) {
+            pointService = new PointServiceImpl(new ZeroLatencyUserPointTable(), new ZeroLatencyPointHistoryTable());
+            chargeAllUsers();
+        }
+    }
+
+    private void chargeAllUsers() throws InterruptedException {
+        // 사용 benchmark 에서 잔액이 부족하지 않도록 미리 충전 (table 지연이 있으므로 병렬로 충전)
+        ExecutorService executorService = Executors.newFixedThreadPool(64);
+        for (long id = 1; id <= USERS; id++) {
+            long userId = id;
+            executorService.submit(() -> pointService.chargePoint(userId, INITIAL_POINT, System.currentTimeMillis()));
+        }
+        executorService.shutdown();
+        executorService.awaitTermination(10, TimeUnit.MINUTES);
+    }
+
+    @Benchmark
+    public PointResult chargePoint() {
+        return pointService.chargePoint(userIds.next(), 1L, System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public PointResult usePoint() {
+        return pointService.usePoint(userIds.next(), 1L, System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public UserPoint selectPointById() {
+        return pointService.selectPointById(userIds.next());
+    }
+
+    @Benchmark
+    public List<PointHistory> selectHistoryById() {
+        return pointService.selectHistoryById(userIds.next());
+    }
+
+    @Threads(1)
+    public static class OneThread extends PointServiceBenchmark {
+    }
+
+    @Threads(8)
+    public static class EightThreads extends PointServiceBenchmark {
+    }
+
+    @Threads(64)
+    public static class SixtyFourThreads extends PointServiceBenchmark {
+    }
+}
@@ -0,0 +1,60 @@
+package io.hhplus.tdd.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * benchmark 에서 요청할 user id 분포
+ * - uniform : 1 ~ users 를 같은 확률로 선택
+ * - zipf : 순위 k 인 user 를 1 / k^s 에 비례하는 확률로 선택 (소수의 user 에 요청이 몰리는 경우)
+ */
+public abstract class UserIdDistribution {
+
+    private static final double ZIPF_EXPONENT = 1.0;
+
+    public abstract long next();
+
+    public static UserIdDistribution of(String name, int users) {
+        return switch (name) {
+            case "uniform" -> new Uniform(users);
+            case "zipf" -> new Zipf(users, ZIPF_EXPONENT);
+            default -> throw new IllegalArgumentException("unknown distribution : " + name);
+        };
+    }
+
+    private static final class Uniform extends UserIdDistribution {
+        private final int users;
+
+        private Uniform(int users) {
+            this.users = users;
+        }
+
+        @Override
+        public long next() {
+            return ThreadLocalRandom.current().nextInt(users) + 1L;
+        }
+    }
+
+    private static final class Zipf extends UserIdDistribution {
+        // cumulative[k] : 순위 1 ~ k+1 user 가 선택될 누적 확률
+        private final double[] cumulative;
+
+        private Zipf(int users, double exponent) {
+            cumulative = new double[users];
+            double sum = 0;
+            for (int k = 0; k < users; k++) {
+                sum += 1.0 / Math.pow(k + 1, exponent);
+                cumulative[k] = sum;
+            }
+            for (int k = 0; k < users; k++) {
+                cumulative[k] /= sum;
+            }
+        }
+
+        @Override
+        public long next() {
+            int index = Arrays.binarySearch(cumulative, ThreadLocalRandom.current().nextDouble());
+            return (index >= 0 ? index : -index - 1) + 1L;
+        }
+    }
+}
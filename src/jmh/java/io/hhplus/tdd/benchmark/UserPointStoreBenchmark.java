@@ -0,0 +1,76 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.database.PrimitiveUserPointRepository;
+import io.hhplus.tdd.point.model.UserPoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * user point 저장소 benchmark
+ * - table : UserPointTable 과 같은 Map<Long, UserPoint> 구조 (throttle 제외)
+ * - primitive : PrimitiveUserPointRepository
+ * 할당량(GC 부담)은 ./gradlew jmh -PjmhIncludes=UserPointStoreBenchmark -PjmhProfilers=gc 로 확인
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(8)
+public class UserPointStoreBenchmark {
+
+    @Param({"table", "primitive"})
+    public String store;
+
+    @Param({"1000000"})
+    public int users;
+
+    private ZeroLatencyUserPointTable table;
+
+    private PrimitiveUserPointRepository primitive;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long before = runtime.totalMemory() - runtime.freeMemory();
+
+        if ("primitive".equals(store)) {
+            primitive = new PrimitiveUserPointRepository();
+        } else {
+            table = new ZeroLatencyUserPointTable();
+        }
+        for (long id = 1; id <= users; id++) {
+            update(id, id);
+        }
+
+        System.gc();
+        long after = runtime.totalMemory() - runtime.freeMemory();
+        System.out.printf("%n%s : 약 %.1f byte/user%n", store, (after - before) / (double) users);
+    }
+
+    @Benchmark
+    public UserPoint selectById() {
+        long id = 1 + ThreadLocalRandom.current().nextInt(users);
+        return primitive != null ? primitive.selectById(id) : table.selectById(id);
+    }
+
+    @Benchmark
+    public UserPoint insertOrUpdate() {
+        long id = 1 + ThreadLocalRandom.current().nextInt(users);
+        return update(id, id);
+    }
+
+    private UserPoint update(long id, long amount) {
+        return primitive != null ? primitive.insertOrUpdate(id, amount) : table.insertOrUpdate(id, amount);
+    }
+}
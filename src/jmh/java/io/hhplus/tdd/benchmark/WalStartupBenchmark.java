@@ -0,0 +1,109 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.database.BalanceSnapshotStore;
+import io.hhplus.tdd.database.MappedPointHistoryLog;
+import io.hhplus.tdd.database.PrimitiveUserPointRepository;
+import io.hhplus.tdd.database.WalPointHistoryRepository;
+import io.hhplus.tdd.point.model.TransactionType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * WAL 저장소 시작(최종 point 복구) 시간 benchmark
+ * - snapshot=false : log 의 history 전체를 읽어 최종 point 복구
+ * - snapshot=true : 마지막 snapshot 을 읽고 그 이후 history(tail) 만 반영
+ * 실행 : ./gradlew jmh -PjmhIncludes=WalStartupBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class WalStartupBenchmark {
+
+    private static final int SEGMENT_BYTES = 64 * 1024 * 1024;
+
+    @Param({"false", "true"})
+    public boolean snapshot;
+
+    @Param({"10000000"})
+    public int histories;
+
+    @Param({"100000"})
+    public int users;
+
+    // snapshot 이후에 추가된 history 수
+    @Param({"100000"})
+    public int tail;
+
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("wal-startup");
+        SplittableRandom random = new SplittableRandom(42);
+        long[] points = new long[users + 1];
+
+        try (MappedPointHistoryLog log = new MappedPointHistoryLog(directory, SEGMENT_BYTES, history -> { })) {
+            for (int i = 0; i < histories; i++) {
+                if (snapshot && i == histories - tail) {
+                    log.awaitDurable(log.lastId());
+                    writeSnapshot(log.lastId(), points);
+                }
+                int userId = 1 + random.nextInt(users);
+                points[userId] += 1 + random.nextInt(1_000);
+                log.append(userId, points[userId], TransactionType.CHARGE, i);
+            }
+            log.awaitDurable(log.lastId());
+        }
+    }
+
+    @Benchmark
+    public long startup() {
+        PrimitiveUserPointRepository userPointRepository = new PrimitiveUserPointRepository();
+        try (WalPointHistoryRepository ignored = new WalPointHistoryRepository(userPointRepository, directory, SEGMENT_BYTES)) {
+            return userPointRepository.size();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private void writeSnapshot(long watermark, long[] points) {
+        Map<Long, Long> snapshotPoints = new HashMap<>();
+        for (int userId = 1; userId < points.length; userId++) {
+            if (points[userId] > 0) {
+                snapshotPoints.put((long) userId, points[userId]);
+            }
+        }
+        new BalanceSnapshotStore(directory).write(watermark, snapshotPoints);
+    }
+}
@@ -0,0 +1,104 @@
+package io.hhplus.tdd.load;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * table 지연을 대신하는 seed 고정 지연 분포
+ * - fixed:{ms} : 항상 같은 지연
+ * - uniform:{min ms}:{max ms} : min ~ max 균등 분포 (UserPointTable / PointHistoryTable 의 throttle 은 uniform:0:200 / uniform:0:300)
+ * - lognormal:{중앙값 ms}:{sigma} : 대부분 중앙값 근처이고 가끔 길게 늘어지는 분포
+ * n 번째 호출의 지연은 seed 와 n 으로만 정해지므로 같은 seed 로 다시 실행하면 호출 순서대로 같은 지연이 나온다
+ */
+public final class LatencyDistribution {
+
+    private final String spec;
+
+    private final Kind kind;
+
+    private final double first;
+
+    private final double second;
+
+    private final long seed;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private LatencyDistribution(String spec, Kind kind, double first, double second, long seed) {
+        this.spec = spec;
+        this.kind = kind;
+        this.first = first;
+        this.second = second;
+        this.seed = seed;
+    }
+
+    /**
+     * param : spec, seed
+     */
+    public static LatencyDistribution parse(String spec, long seed) {
+        String[] parts = spec.trim().split(":");
+        try {
+            return switch (parts[0]) {
+                case "fixed" -> new LatencyDistribution(spec, Kind.FIXED, Double.parseDouble(parts[1]), 0, seed);
+                case "uniform" -> new LatencyDistribution(spec, Kind.UNIFORM, Double.parseDouble(parts[1]), Double.parseDouble(parts[2]), seed);
+                case "lognormal" -> new LatencyDistribution(spec, Kind.LOGNORMAL, Double.parseDouble(parts[1]), Double.parseDouble(parts[2]), seed);
+                default -> throw new IllegalArgumentException("unknown latency distribution : " + spec);
+            };
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException("latency 형식을 확인하세요. (fixed:ms / uniform:min:max / lognormal:median:sigma) : " + spec, e);
+        }
+    }
+
+    /**
+     * 다음 호출의 지연 (nanos)
+     */
+    public long nextNanos() {
+        long n = sequence.getAndIncrement();
+        double millis = switch (kind) {
+            case FIXED -> first;
+            case UNIFORM -> first + (second - first) * uniform(n, 0);
+            case LOGNORMAL -> first * Math.exp(second * gaussian(n));
+        };
+        return (long) (millis * TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    /**
+     * 다음 호출의 지연만큼 대기
+     */
+    public void sleep() {
+        long nanos = nextNanos();
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+
+    // Box-Muller
+    private double gaussian(long n) {
+        double u1 = Math.max(uniform(n, 1), Double.MIN_VALUE);
+        double u2 = uniform(n, 2);
+        return Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+    }
+
+    // seed, n, stream 으로 정해지는 [0, 1) 값 (SplitMix64)
+    private double uniform(long n, int stream) {
+        long z = seed + (n * 3 + stream + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (z >>> 11) * 0x1.0p-53;
+    }
+
+    private enum Kind {
+        FIXED, UNIFORM, LOGNORMAL
+    }
+}
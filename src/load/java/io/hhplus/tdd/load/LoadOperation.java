@@ -0,0 +1,40 @@
+package io.hhplus.tdd.load;
+
+/**
+ * 부하 test 에서 보내는 요청 종류와 endpoint
+ */
+public enum LoadOperation {
+
+    CHARGE("PATCH", "/point/{id}/charge"),
+    USE("PATCH", "/point/{id}/use"),
+    POINT("GET", "/point/{id}"),
+    HISTORIES("GET", "/point/{id}/histories");
+
+    private final String method;
+
+    private final String pathTemplate;
+
+    LoadOperation(String method, String pathTemplate) {
+        this.method = method;
+        this.pathTemplate = pathTemplate;
+    }
+
+    public String method() {
+        return method;
+    }
+
+    public String path(long userId) {
+        return pathTemplate.replace("{id}", String.valueOf(userId));
+    }
+
+    public boolean hasBody() {
+        return this == CHARGE || this == USE;
+    }
+
+    /**
+     * 결과 표시용 endpoint 이름 (예 : PATCH /point/{id}/charge)
+     */
+    public String endpoint() {
+        return method + " " + pathTemplate;
+    }
+}
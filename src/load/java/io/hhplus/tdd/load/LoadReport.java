@@ -0,0 +1,109 @@
+package io.hhplus.tdd.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * endpoint 별 응답 시간 histogram(HdrHistogram, microsecond 단위)과 응답 status 별 건수
+ * - 응답 시간은 요청을 보내기로 한 시각부터 측정하므로 client 가 밀려 늦게 보낸 시간도 포함
+ * - 4xx(잔액 부족 등) / 5xx / failed(연결 실패, timeout) 를 나누어 집계
+ */
+public final class LoadReport {
+
+    private final Map<LoadOperation, Endpoint> endpoints = new EnumMap<>(LoadOperation.class);
+
+    public LoadReport() {
+        for (LoadOperation operation : LoadOperation.values()) {
+            endpoints.put(operation, new Endpoint());
+        }
+    }
+
+    /**
+     * param : operation, status, latencyNanos
+     * status 가 0 이면 응답을 받지 못한 요청
+     */
+    public void record(LoadOperation operation, int status, long latencyNanos) {
+        Endpoint endpoint = endpoints.get(operation);
+        endpoint.latency.recordValue(Math.max(1L, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        if (status == 0) {
+            endpoint.failed.incrementAndGet();
+        } else if (status >= 500) {
+            endpoint.serverErrors.incrementAndGet();
+        } else if (status >= 400) {
+            endpoint.clientErrors.incrementAndGet();
+        } else {
+            endpoint.success.incrementAndGet();
+        }
+    }
+
+    /**
+     * param : out, directory, label, targetRate, elapsedNanos
+     * 결과 표를 출력하고, 같은 내용과 endpoint 별 percentile 분포(.hgrm)를 out 디렉토리에 저장
+     */
+    public void write(PrintStream out, Path directory, String label, int targetRate, long elapsedNanos) throws IOException {
+        Files.createDirectories(directory);
+        try (PrintStream summary = new PrintStream(Files.newOutputStream(directory.resolve(label + "-summary.txt")))) {
+            printSummary(out, label, targetRate, elapsedNanos);
+            printSummary(summary, label, targetRate, elapsedNanos);
+        }
+        for (Map.Entry<LoadOperation, Endpoint> entry : endpoints.entrySet()) {
+            if (entry.getValue().latency.getTotalCount() == 0) {
+                continue;
+            }
+            Path file = directory.resolve(label + "-" + entry.getKey().name().toLowerCase(Locale.ROOT) + ".hgrm");
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(file))) {
+                // 값은 millisecond 로 출력
+                entry.getValue().latency.outputPercentileDistribution(hgrm, 1_000.0);
+            }
+        }
+    }
+
+    private void printSummary(PrintStream out, String label, int targetRate, long elapsedNanos) {
+        double elapsedSeconds = elapsedNanos / 1e9;
+        long total = 0;
+        long errors = 0;
+        out.printf(Locale.ROOT, "[%s] %.1f s%n", label, elapsedSeconds);
+        out.printf(Locale.ROOT, "%-28s %8s %8s %6s %6s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "2xx", "4xx", "5xx", "failed", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<LoadOperation, Endpoint> entry : endpoints.entrySet()) {
+            Endpoint endpoint = entry.getValue();
+            Histogram latency = endpoint.latency;
+            long count = latency.getTotalCount();
+            if (count == 0) {
+                continue;
+            }
+            total += count;
+            errors += endpoint.serverErrors.get() + endpoint.failed.get();
+            out.printf(Locale.ROOT, "%-28s %8d %8d %6d %6d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    entry.getKey().endpoint(), count, endpoint.success.get(), endpoint.clientErrors.get(),
+                    endpoint.serverErrors.get(), endpoint.failed.get(),
+                    millis(latency.getValueAtPercentile(50)), millis(latency.getValueAtPercentile(90)),
+                    millis(latency.getValueAtPercentile(99)), millis(latency.getValueAtPercentile(99.9)),
+                    millis(latency.getMaxValue()));
+        }
+        out.printf(Locale.ROOT, "throughput : %.1f req/s (target %d req/s), requests : %d, errors(5xx + failed) : %d%n",
+                total / elapsedSeconds, targetRate, total, errors);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1_000.0;
+    }
+
+    private static final class Endpoint {
+        private final Histogram latency = new ConcurrentHistogram(3);
+        private final AtomicLong success = new AtomicLong();
+        private final AtomicLong clientErrors = new AtomicLong();
+        private final AtomicLong serverErrors = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+    }
+}
@@ -0,0 +1,30 @@
+package io.hhplus.tdd.load;
+
+/**
+ * 부하 test 요청 하나
+ * - offsetMillis : 시작 시점부터 요청을 보낼 때까지의 시간
+ * - amount : 충전/사용 금액 (조회 요청은 0)
+ */
+public record LoadRequest(
+        long offsetMillis,
+        LoadOperation operation,
+        long userId,
+        long amount
+) {
+
+    /**
+     * 기록 파일의 한 줄 : {offsetMillis} {operation} {userId} {amount}
+     */
+    public String toLine() {
+        return offsetMillis + " " + operation.name() + " " + userId + " " + amount;
+    }
+
+    public static LoadRequest parse(String line) {
+        String[] parts = line.trim().split("\\s+");
+        if (parts.length < 3) {
+            throw new IllegalArgumentException("요청 형식을 확인하세요. ({offsetMillis} {operation} {userId} [amount]) : " + line);
+        }
+        return new LoadRequest(Long.parseLong(parts[0]), LoadOperation.valueOf(parts[1].toUpperCase()), Long.parseLong(parts[2]),
+                parts.length > 3 ? Long.parseLong(parts[3]) : 0L);
+    }
+}
@@ -0,0 +1,34 @@
+package io.hhplus.tdd.load;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * 부하 test 에서 table 대신 사용할 seed 고정 지연 table
+ * 기본 지연은 UserPointTable / PointHistoryTable 의 throttle 과 같은 분포
+ * (호출 종류마다 seed 를 달리하여 서로 다른 지연 순서를 사용)
+ */
+@Configuration
+public class LoadTableConfig {
+
+    @Bean
+    @Primary
+    public UserPointTable seededLatencyUserPointTable(@Value("${load.seed:42}") long seed,
+                                                      @Value("${load.table.user-point.select-latency:uniform:0:200}") String selectLatency,
+                                                      @Value("${load.table.user-point.insert-latency:uniform:0:300}") String insertLatency,
+                                                      @Value("${load.table.user-point.initial-point:1000000}") long initialPoint) {
+        return new SeededLatencyUserPointTable(LatencyDistribution.parse(selectLatency, seed),
+                LatencyDistribution.parse(insertLatency, seed + 1), initialPoint);
+    }
+
+    @Bean
+    @Primary
+    public PointHistoryTable seededLatencyPointHistoryTable(@Value("${load.seed:42}") long seed,
+                                                            @Value("${load.table.history.insert-latency:uniform:0:300}") String insertLatency) {
+        return new SeededLatencyPointHistoryTable(LatencyDistribution.parse(insertLatency, seed + 2));
+    }
+}
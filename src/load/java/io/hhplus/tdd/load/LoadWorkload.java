@@ -0,0 +1,127 @@
+package io.hhplus.tdd.load;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+/**
+ * 부하 test 에서 보낼 요청 목록
+ * - synthetic : seed 로 정해지는 요청을 rate(초당 요청 수)로 duration 동안 고르게 배치
+ *   요청 종류는 mix 비율, user 는 uniform(같은 확률) / zipf(순위 k 인 user 가 1 / k 에 비례)로 선택
+ * - 기록 파일(한 줄에 요청 하나, LoadRequest.toLine 형식)로 저장하고 다시 읽어 같은 요청을 재현
+ */
+public final class LoadWorkload {
+
+    private static final long MAX_CHARGE = 1_000L;
+    private static final long MAX_USE = 500L;
+
+    private LoadWorkload() {
+    }
+
+    /**
+     * param : seed, rate, durationSeconds, users, distribution, mix
+     */
+    public static List<LoadRequest> synthetic(long seed, int rate, int durationSeconds, int users, String distribution,
+                                              Map<LoadOperation, Integer> mix) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] zipf = "zipf".equals(distribution) ? zipfCumulative(users) : null;
+        if (zipf == null && !"uniform".equals(distribution)) {
+            throw new IllegalArgumentException("unknown distribution : " + distribution);
+        }
+        LoadOperation[] operations = mix.keySet().toArray(LoadOperation[]::new);
+        int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+
+        int count = rate * durationSeconds;
+        List<LoadRequest> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long offsetMillis = i * 1_000L / rate;
+            LoadOperation operation = pick(operations, mix, totalWeight, random.nextInt(totalWeight));
+            long userId = zipf == null ? random.nextInt(users) + 1L : zipfUser(zipf, random.nextDouble());
+            long amount = switch (operation) {
+                case CHARGE -> random.nextLong(MAX_CHARGE) + 1;
+                case USE -> random.nextLong(MAX_USE) + 1;
+                default -> 0L;
+            };
+            requests.add(new LoadRequest(offsetMillis, operation, userId, amount));
+        }
+        return requests;
+    }
+
+    /**
+     * param : mix
+     * "charge=30,use=20,point=40,histories=10" 형식의 요청 종류별 비율
+     */
+    public static Map<LoadOperation, Integer> parseMix(String mix) {
+        Map<LoadOperation, Integer> weights = new EnumMap<>(LoadOperation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(LoadOperation.valueOf(parts[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("mix 에 요청 종류가 없습니다. : " + mix);
+        }
+        return weights;
+    }
+
+    public static List<LoadRequest> read(Path path) throws IOException {
+        try (Stream<String> lines = Files.lines(path)) {
+            return lines.filter(line -> !line.isBlank() && !line.startsWith("#"))
+                    .map(LoadRequest::parse)
+                    .sorted(Comparator.comparingLong(LoadRequest::offsetMillis))
+                    .toList();
+        }
+    }
+
+    public static void write(Path path, List<LoadRequest> requests) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            for (LoadRequest request : requests) {
+                writer.write(request.toLine());
+                writer.newLine();
+            }
+        }
+    }
+
+    private static LoadOperation pick(LoadOperation[] operations, Map<LoadOperation, Integer> mix, int totalWeight, int value) {
+        int cumulative = 0;
+        for (LoadOperation operation : operations) {
+            cumulative += mix.get(operation);
+            if (value < cumulative) {
+                return operation;
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private static double[] zipfCumulative(int users) {
+        double[] cumulative = new double[users];
+        double sum = 0;
+        for (int k = 0; k < users; k++) {
+            sum += 1.0 / (k + 1);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < users; k++) {
+            cumulative[k] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static long zipfUser(double[] cumulative, double value) {
+        int index = Arrays.binarySearch(cumulative, value);
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1) + 1L;
+    }
+}
@@ -0,0 +1,166 @@
+package io.hhplus.tdd.load;
+
+import io.hhplus.tdd.TddApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * point API 부하 test (./gradlew loadTest -PloadArgs="--rate=200 --duration=30")
+ * - table 을 seed 고정 지연 table(LoadTableConfig)로 바꾼 application 을 임의 port 로 띄우고 (--target 을 지정하면 그 서버로 요청)
+ * - 요청 목록(synthetic 또는 --replay 기록 파일)을 정해진 시각에 clients 개의 thread 로 보낸다
+ *   (응답을 기다리지 않고 시각에 맞춰 보내므로 서버가 느려지면 대기 시간까지 응답 시간에 포함)
+ * - endpoint 별 응답 시간 histogram, 처리량, 오류 수를 출력하고 --out 디렉토리에 저장
+ *
+ * option (--key=value)
+ * - rate : 초당 요청 수 (200), duration : 실행 시간 초 (30), clients : 요청 thread 수 (64)
+ * - warmup : 처음 몇 초 동안의 요청은 보내기만 하고 결과에서 제외 (5, duration 에 포함)
+ * - users : user 수 (1000), distribution : uniform / zipf (uniform)
+ * - mix : 요청 종류별 비율 (charge=30,use=20,point=40,histories=10), seed : 요청 / table 지연 seed (42)
+ * - replay : 기록 파일을 재생 (rate / duration / users / mix 무시), record : 보낸 요청을 기록 파일로 저장
+ * - out : 결과 디렉토리 (build/load), label : 결과 이름 (run), timeout-seconds : 요청 timeout (30)
+ * - 그 밖의 option 은 application 설정으로 전달
+ *   (예 : --point.concurrency.strategy=optimistic, --load.table.user-point.select-latency=lognormal:20:0.8)
+ */
+public final class PointLoadHarness {
+
+    private static final List<String> OPTIONS = List.of("rate", "duration", "clients", "users", "distribution", "mix", "seed",
+            "replay", "record", "out", "label", "timeout-seconds", "target", "warmup");
+
+    private PointLoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            String key = arg.startsWith("--") && separator > 2 ? arg.substring(2, separator) : null;
+            if (key != null && OPTIONS.contains(key)) {
+                options.put(key, arg.substring(separator + 1));
+            } else {
+                applicationArgs.add(arg);
+            }
+        }
+
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        List<LoadRequest> requests = options.containsKey("replay")
+                ? LoadWorkload.read(Path.of(options.get("replay")))
+                : LoadWorkload.synthetic(seed, Integer.parseInt(options.getOrDefault("rate", "200")),
+                Integer.parseInt(options.getOrDefault("duration", "30")),
+                Integer.parseInt(options.getOrDefault("users", "1000")),
+                options.getOrDefault("distribution", "uniform"),
+                LoadWorkload.parseMix(options.getOrDefault("mix", "charge=30,use=20,point=40,histories=10")));
+        // 재생한 요청도 처음부터 마지막 요청까지 고르게 보낸 것으로 보고 목표 처리량 계산
+        int targetRate = (int) (requests.size() * 1_000L / Math.max(1_000L, lastOffsetMillis(requests) + 1));
+        if (options.containsKey("record")) {
+            LoadWorkload.write(Path.of(options.get("record")), requests);
+        }
+
+        ConfigurableApplicationContext context = null;
+        String target = options.get("target");
+        if (target == null) {
+            applicationArgs.add(0, "--server.port=0");
+            applicationArgs.add(1, "--load.seed=" + seed);
+            // seed 고정 지연 table 은 직접 동기화하므로 table 저장소의 lock 없이 호출
+            applicationArgs.add(2, "--point.table.thread-safe=true");
+            context = new SpringApplicationBuilder(TddApplication.class, LoadTableConfig.class)
+                    .run(applicationArgs.toArray(String[]::new));
+            target = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+
+        try {
+            LoadReport report = new LoadReport();
+            long elapsedNanos = run(target, requests, Integer.parseInt(options.getOrDefault("clients", "64")),
+                    Duration.ofSeconds(Long.parseLong(options.getOrDefault("timeout-seconds", "30"))),
+                    TimeUnit.SECONDS.toMillis(Long.parseLong(options.getOrDefault("warmup", "5"))), report);
+            report.write(System.out, Path.of(options.getOrDefault("out", "build/load")), options.getOrDefault("label", "run"),
+                    targetRate, elapsedNanos);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    /**
+     * param : target, requests, clients, timeout, warmupMillis, report
+     * 요청마다 정해진 시각까지 기다렸다가 client thread 에 넘기고, 모든 응답을 받은 뒤 warmup 이후 걸린 시간 반환
+     * (JIT compile, 연결 생성 등으로 느린 처음 warmupMillis 동안의 요청은 결과에 기록하지 않음)
+     */
+    static long run(String target, List<LoadRequest> requests, int clients, Duration timeout, long warmupMillis,
+                    LoadReport report) throws InterruptedException {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        AtomicInteger sequence = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(clients, runnable -> {
+            Thread thread = new Thread(runnable, "load-client-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long start = System.nanoTime();
+        for (LoadRequest request : requests) {
+            long scheduled = start + TimeUnit.MILLISECONDS.toNanos(request.offsetMillis());
+            long wait;
+            while ((wait = scheduled - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            LoadReport recordTo = request.offsetMillis() < warmupMillis ? null : report;
+            executor.execute(() -> send(httpClient, target, request, scheduled, timeout, recordTo));
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(timeout.toMillis() + TimeUnit.MINUTES.toMillis(1), TimeUnit.MILLISECONDS)) {
+            executor.shutdownNow();
+        }
+        return System.nanoTime() - start - TimeUnit.MILLISECONDS.toNanos(Math.min(warmupMillis, lastOffsetMillis(requests)));
+    }
+
+    /**
+     * report 가 null 이면 결과를 기록하지 않는 warmup 요청
+     */
+    private static void send(HttpClient httpClient, String target, LoadRequest request, long scheduled, Duration timeout,
+                             LoadReport report) {
+        LoadOperation operation = request.operation();
+        HttpRequest httpRequest = HttpRequest.newBuilder(URI.create(target + operation.path(request.userId())))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .method(operation.method(), operation.hasBody()
+                        ? HttpRequest.BodyPublishers.ofString(String.valueOf(request.amount()))
+                        : HttpRequest.BodyPublishers.noBody())
+                .build();
+        int status = 0;
+        try {
+            status = httpClient.send(httpRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            // 응답을 받지 못한 요청 (status 0)
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (report != null) {
+            report.record(operation, status, System.nanoTime() - scheduled);
+        }
+    }
+
+    private static long lastOffsetMillis(List<LoadRequest> requests) {
+        return requests.isEmpty() ? 0L : requests.get(requests.size() - 1).offsetMillis();
+    }
+}
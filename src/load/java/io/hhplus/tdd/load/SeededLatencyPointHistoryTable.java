@@ -0,0 +1,41 @@
+package io.hhplus.tdd.load;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.point.model.PointHistory;
+import io.hhplus.tdd.point.model.TransactionType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * random throttle 대신 seed 고정 지연 분포를 사용하는 PointHistoryTable
+ * - 저장 / 조회 방식(전체 목록을 순회하는 조회)은 PointHistoryTable 과 같다
+ */
+public class SeededLatencyPointHistoryTable extends PointHistoryTable {
+
+    private final List<PointHistory> table = new ArrayList<>();
+    private long cursor = 1;
+
+    private final LatencyDistribution insertLatency;
+
+    public SeededLatencyPointHistoryTable(LatencyDistribution insertLatency) {
+        this.insertLatency = insertLatency;
+    }
+
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        insertLatency.sleep();
+        synchronized (table) {
+            PointHistory pointHistory = new PointHistory(cursor++, userId, amount, type, updateMillis);
+            table.add(pointHistory);
+            return pointHistory;
+        }
+    }
+
+    @Override
+    public List<PointHistory> selectAllByUserId(long userId) {
+        synchronized (table) {
+            return table.stream().filter(pointHistory -> pointHistory.userId() == userId).toList();
+        }
+    }
+}
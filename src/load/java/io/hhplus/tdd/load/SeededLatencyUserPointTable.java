@@ -0,0 +1,42 @@
+package io.hhplus.tdd.load;
+
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.model.UserPoint;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * random throttle 대신 seed 고정 지연 분포를 사용하는 UserPointTable
+ * - 처음 조회하는 user 는 initialPoint 를 가진 것으로 조회 (사용 요청이 잔액 부족으로만 끝나지 않도록)
+ */
+public class SeededLatencyUserPointTable extends UserPointTable {
+
+    private final Map<Long, UserPoint> table = new ConcurrentHashMap<>();
+
+    private final LatencyDistribution selectLatency;
+
+    private final LatencyDistribution insertLatency;
+
+    private final long initialPoint;
+
+    public SeededLatencyUserPointTable(LatencyDistribution selectLatency, LatencyDistribution insertLatency, long initialPoint) {
+        this.selectLatency = selectLatency;
+        this.insertLatency = insertLatency;
+        this.initialPoint = initialPoint;
+    }
+
+    @Override
+    public UserPoint selectById(Long id) {
+        selectLatency.sleep();
+        return table.getOrDefault(id, new UserPoint(id, initialPoint, 0L));
+    }
+
+    @Override
+    public UserPoint insertOrUpdate(long id, long amount) {
+        insertLatency.sleep();
+        UserPoint userPoint = new UserPoint(id, amount, System.currentTimeMillis());
+        table.put(id, userPoint);
+        return userPoint;
+    }
+}
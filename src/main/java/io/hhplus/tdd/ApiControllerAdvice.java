@@ -1,6 +1,11 @@
 package io.hhplus.tdd;
 
+import io.hhplus.tdd.point.AdmissionRejectedException;
+import io.hhplus.tdd.point.ClusterUnavailableException;
 import io.hhplus.tdd.point.HandlePointException;
+import io.hhplus.tdd.point.IdempotencyKeyReusedException;
+import io.hhplus.tdd.point.LookupLimitExceededException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -19,4 +24,24 @@ class ApiControllerAdvice extends ResponseEntityExceptionHandler {
         return ResponseEntity.status(402).body(new ErrorResponse("402", e.getMessage()));
     }
 
+    @ExceptionHandler(value = IdempotencyKeyReusedException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyReusedException(Exception e) {
+        return ResponseEntity.status(422).body(new ErrorResponse("422", e.getMessage()));
+    }
+
+    @ExceptionHandler(value = LookupLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleLookupLimitExceededException(Exception e) {
+        return ResponseEntity.status(400).body(new ErrorResponse("400", e.getMessage()));
+    }
+
+    @ExceptionHandler(value = ClusterUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleClusterUnavailableException(Exception e) {
+        return ResponseEntity.status(503).body(new ErrorResponse("503", e.getMessage()));
+    }
+
+    @ExceptionHandler(value = AdmissionRejectedException.class)
+    public ResponseEntity<ErrorResponse> handleAdmissionRejectedException(Exception e) {
+        return ResponseEntity.status(429).header(HttpHeaders.RETRY_AFTER, "1").body(new ErrorResponse("429", e.getMessage()));
+    }
+
 }
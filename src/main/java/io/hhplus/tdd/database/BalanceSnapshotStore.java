@@ -0,0 +1,141 @@
+package io.hhplus.tdd.database;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * user 별 최종 point snapshot 파일 (balances-{watermark}.snap)
+ * - watermark : snapshot 에 반영된 마지막 history id (이후 history 만 다시 반영하면 된다)
+ * - 형식 : magic(int), watermark(long), count(long), [userId(long), point(long)] × count, crc32(int)
+ * - 임시 파일에 모두 쓰고 fsync 한 뒤 이름을 바꾸므로, 쓰는 도중 종료되어도 이전 snapshot 은 그대로 남는다
+ */
+public class BalanceSnapshotStore {
+
+    private static final int MAGIC = 0x50534e50;
+    private static final String PREFIX = "balances-";
+    private static final String SUFFIX = ".snap";
+    // 최신 snapshot 이 손상된 경우를 대비해 남겨두는 개수
+    private static final int RETAINED = 2;
+
+    private final Path directory;
+
+    public BalanceSnapshotStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * 읽을 수 있는 가장 최근 snapshot, 없으면 watermark 0 의 빈 snapshot
+     */
+    public Snapshot loadLatest() {
+        for (Path file : snapshotFiles()) {
+            try {
+                return read(file);
+            } catch (IOException | IllegalStateException ignored) {
+                // 손상된 snapshot 은 건너뛰고 이전 snapshot 사용
+            }
+        }
+        return new Snapshot(0L, new HashMap<>());
+    }
+
+    /**
+     * param : watermark, points
+     * snapshot 을 저장하고, 최근 RETAINED 개를 제외한 이전 snapshot 삭제
+     */
+    public void write(long watermark, Map<Long, Long> points) {
+        Path target = directory.resolve(String.format("%s%020d%s", PREFIX, watermark, SUFFIX));
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(directory);
+            try (FileOutputStream file = new FileOutputStream(temp.toFile())) {
+                CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(file, 1 << 16), new CRC32());
+                DataOutputStream out = new DataOutputStream(checked);
+                out.writeInt(MAGIC);
+                out.writeLong(watermark);
+                out.writeLong(points.size());
+                for (Map.Entry<Long, Long> entry : points.entrySet()) {
+                    out.writeLong(entry.getKey());
+                    out.writeLong(entry.getValue());
+                }
+                out.flush();
+                int crc = (int) checked.getChecksum().getValue();
+                out.writeInt(crc);
+                out.flush();
+                file.getChannel().force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            List<Path> files = snapshotFiles();
+            for (int i = RETAINED; i < files.size(); i++) {
+                Files.deleteIfExists(files.get(i));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Snapshot read(Path file) throws IOException {
+        try (InputStream input = Files.newInputStream(file)) {
+            CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(input, 1 << 16), new CRC32());
+            DataInputStream in = new DataInputStream(checked);
+            if (in.readInt() != MAGIC) {
+                throw new IllegalStateException("snapshot 형식이 아닙니다. : " + file);
+            }
+            long watermark = in.readLong();
+            long count = in.readLong();
+            Map<Long, Long> points = new HashMap<>((int) Math.min(count * 4 / 3 + 1, Integer.MAX_VALUE));
+            for (long i = 0; i < count; i++) {
+                points.put(in.readLong(), in.readLong());
+            }
+            int expected = (int) checked.getChecksum().getValue();
+            if (in.readInt() != expected) {
+                throw new IllegalStateException("snapshot crc 가 맞지 않습니다. : " + file);
+            }
+            return new Snapshot(watermark, points);
+        }
+    }
+
+    /**
+     * watermark 가 큰 순서
+     */
+    private List<Path> snapshotFiles() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> stream = Files.list(directory)) {
+            return stream.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted(Comparator.reverseOrder())
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * watermark 까지의 history 를 반영한 user 별 최종 point
+     */
+    public record Snapshot(
+            long watermark,
+            Map<Long, Long> points
+    ) {
+    }
+}
@@ -0,0 +1,250 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.model.PointHistory;
+import io.hhplus.tdd.point.model.TransactionType;
+
+import java.util.Arrays;
+
+/**
+ * 오래된 history 를 압축해 보관하는 user 한 명의 변경 불가능한 segment (cold tier)
+ * - row 마다 이전 row 와의 차이를 varint 로 저장
+ *   [(id 차이 << 1) | type bit] [updateMillis 차이 (zigzag)] [amount 차이 (zigzag)]
+ * - type 은 bit 하나 (0 : CHARGE, 1 : USE)
+ * - cold 로 옮길 때마다 압축한 row 를 chunk 하나로 만들어 뒤에 붙인다 (이전 chunk 는 복사하지 않고 그대로 공유)
+ * - chunk 안의 row 는 BLOCK_ROWS 개마다 block 으로 나누고, block 의 첫 row 는 이전 row 가 아닌 0 과의 차이로 저장
+ *   block 마다 첫 row 의 id 와 byte 위치를 sparse index 로 보관하여, cursor 이후를 조회할 때 해당 block 부터 읽는다
+ */
+final class ColdHistorySegment {
+
+    static final int BLOCK_ROWS = 64;
+
+    static final ColdHistorySegment EMPTY = new ColdHistorySegment(new Chunk[0]);
+
+    private final Chunk[] chunks;
+    private final int count;
+
+    private ColdHistorySegment(Chunk[] chunks) {
+        this.chunks = chunks;
+        int rows = 0;
+        for (Chunk chunk : chunks) {
+            rows += chunk.count;
+        }
+        this.count = rows;
+    }
+
+    int count() {
+        return count;
+    }
+
+    long lastId() {
+        return chunks.length == 0 ? 0L : chunks[chunks.length - 1].lastId;
+    }
+
+    /**
+     * 압축된 byte 수 + sparse index + 배열/객체 header
+     */
+    long footprintBytes() {
+        long bytes = 16L + 16L + 8L * chunks.length;
+        for (Chunk chunk : chunks) {
+            bytes += chunk.footprintBytes();
+        }
+        return bytes;
+    }
+
+    Reader reader() {
+        return new Reader();
+    }
+
+    /**
+     * 현재 segment 뒤에 chunk 하나를 이어 붙인 새 segment 를 만드는 builder
+     * (기존 segment 와 chunk 는 조회 중일 수 있으므로 변경하지 않는다)
+     */
+    Builder extend() {
+        return new Builder(this);
+    }
+
+    static final class Builder {
+        private final ColdHistorySegment base;
+        private byte[] buffer = new byte[64];
+        private long[] blockIds = new long[1];
+        private int[] blockOffsets = new int[1];
+        private int position;
+        private int count;
+        private long lastId;
+        private long lastMillis;
+        private long lastAmount;
+
+        private Builder(ColdHistorySegment base) {
+            this.base = base;
+        }
+
+        /**
+         * param : id, amount, type, updateMillis
+         * 같은 user 안에서 id 가 증가하는 순서로 추가해야 한다
+         */
+        void append(long id, long amount, TransactionType type, long updateMillis) {
+            if (count % BLOCK_ROWS == 0) {
+                int block = count / BLOCK_ROWS;
+                if (block == blockIds.length) {
+                    blockIds = Arrays.copyOf(blockIds, block * 2);
+                    blockOffsets = Arrays.copyOf(blockOffsets, block * 2);
+                }
+                blockIds[block] = id;
+                blockOffsets[block] = position;
+                lastId = 0L;
+                lastMillis = 0L;
+                lastAmount = 0L;
+            }
+            writeVarLong(((id - lastId) << 1) | (type == TransactionType.USE ? 1 : 0));
+            writeVarLong(zigzag(updateMillis - lastMillis));
+            writeVarLong(zigzag(amount - lastAmount));
+            lastId = id;
+            lastMillis = updateMillis;
+            lastAmount = amount;
+            count++;
+        }
+
+        ColdHistorySegment build() {
+            if (count == 0) {
+                return base;
+            }
+            int blocks = (count + BLOCK_ROWS - 1) / BLOCK_ROWS;
+            Chunk chunk = new Chunk(Arrays.copyOf(buffer, position), count, lastId,
+                    Arrays.copyOf(blockIds, blocks), Arrays.copyOf(blockOffsets, blocks));
+            Chunk[] chunks = Arrays.copyOf(base.chunks, base.chunks.length + 1);
+            chunks[base.chunks.length] = chunk;
+            return new ColdHistorySegment(chunks);
+        }
+
+        private void writeVarLong(long value) {
+            if (position + 10 > buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        private static long zigzag(long value) {
+            return (value << 1) ^ (value >> 63);
+        }
+    }
+
+    /**
+     * cold 로 한 번에 옮긴 row 묶음
+     * blockIds[i] / blockOffsets[i] : i 번째 block 의 첫 row id 와 data 안의 byte 위치
+     */
+    private record Chunk(
+            byte[] data,
+            int count,
+            long lastId,
+            long[] blockIds,
+            int[] blockOffsets
+    ) {
+        long footprintBytes() {
+            return 16L + data.length + 16L + 8L * blockIds.length + 16L + 4L * blockOffsets.length + 40L;
+        }
+
+        /**
+         * id 가 cursor 보다 큰 첫 row 를 담은 block 번호 (cursor 는 이 chunk 의 lastId 보다 작아야 한다)
+         */
+        int blockAfter(long cursor) {
+            int low = 0;
+            int high = blockIds.length - 1;
+            while (low < high) {
+                int mid = (low + high + 1) >>> 1;
+                if (blockIds[mid] <= cursor) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * 앞에서부터 한 row 씩 복원 (seekAfter 로 cursor 가 있는 block 부터 시작할 수 있음)
+     */
+    final class Reader {
+        private int chunkIndex;
+        private int position;
+        private int index;
+        long id;
+        long amount;
+        long updateMillis;
+        TransactionType type;
+
+        /**
+         * param : cursor
+         * id 가 cursor 보다 큰 row 가 있는 chunk 와 block 으로 이동
+         * block 의 앞부분에는 cursor 이하의 row 가 남아 있을 수 있으므로 호출하는 쪽에서 건너뛴다
+         */
+        void seekAfter(long cursor) {
+            int low = 0;
+            int high = chunks.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (chunks[mid].lastId <= cursor) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            chunkIndex = low;
+            if (chunkIndex == chunks.length) {
+                return;
+            }
+            Chunk chunk = chunks[chunkIndex];
+            int block = chunk.blockAfter(cursor);
+            position = chunk.blockOffsets[block];
+            index = block * BLOCK_ROWS;
+        }
+
+        boolean next() {
+            while (chunkIndex < chunks.length && index == chunks[chunkIndex].count) {
+                chunkIndex++;
+                position = 0;
+                index = 0;
+            }
+            if (chunkIndex == chunks.length) {
+                return false;
+            }
+            byte[] data = chunks[chunkIndex].data;
+            if (index % BLOCK_ROWS == 0) {
+                id = 0L;
+                updateMillis = 0L;
+                amount = 0L;
+            }
+            long idAndType = readVarLong(data);
+            id += idAndType >>> 1;
+            type = (idAndType & 1) == 1 ? TransactionType.USE : TransactionType.CHARGE;
+            updateMillis += unzigzag(readVarLong(data));
+            amount += unzigzag(readVarLong(data));
+            index++;
+            return true;
+        }
+
+        PointHistory toPointHistory(long userId) {
+            return new PointHistory(id, userId, amount, type, updateMillis);
+        }
+
+        private long readVarLong(byte[] data) {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+
+        private static long unzigzag(long value) {
+            return (value >>> 1) ^ -(value & 1);
+        }
+    }
+}
@@ -0,0 +1,398 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.model.PointHistory;
+import io.hhplus.tdd.point.model.PointHistoryPage;
+import io.hhplus.tdd.point.model.PointHistoryQuery;
+import io.hhplus.tdd.point.model.TransactionType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * user 별 index 를 가지는 history 저장소 (point.history.store=indexed)
+ * - user 마다 id / amount / updateMillis 를 primitive 배열 segment 에 순서대로 추가
+ * - 조회 비용은 전체 history 가 아닌 해당 user 의 history 수에 비례
+ * - PointHistory 객체는 조회 시에만 생성하며, 저장 시 row 당 약 24 byte 사용
+ * - point.history.cold-after-seconds 보다 오래된 history 는 background 에서 압축 segment(ColdHistorySegment)로 옮기며,
+ *   조회는 압축된 history(cold) 와 배열의 history(hot) 를 이어서 읽는다
+ * - 보정 history 의 id 와 취소한 history 수는 user 별 map 에 따로 보관 (보정 history 는 드물다)
+ */
+@Component
+@ConditionalOnProperty(name = "point.history.store", havingValue = "indexed")
+public class IndexedPointHistoryRepository implements PointHistoryRepository, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexedPointHistoryRepository.class);
+
+    // cold tier 로 옮기는 작업의 최대 실행 간격
+    private static final long MAX_COLD_INTERVAL_SECONDS = 60;
+
+    private final AtomicLong cursor = new AtomicLong(1);
+
+    private final Map<Long, UserHistory> index = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService coldMover;
+
+    public IndexedPointHistoryRepository() {
+        this(0L);
+    }
+
+    @Autowired
+    public IndexedPointHistoryRepository(@Value("${point.history.cold-after-seconds:0}") long coldAfterSeconds) {
+        if (coldAfterSeconds > 0) {
+            long interval = Math.min(coldAfterSeconds, MAX_COLD_INTERVAL_SECONDS);
+            coldMover = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "point-history-cold-mover");
+                thread.setDaemon(true);
+                return thread;
+            });
+            coldMover.scheduleWithFixedDelay(() -> moveToColdQuietly(coldAfterSeconds), interval, interval, TimeUnit.SECONDS);
+        } else {
+            coldMover = null;
+        }
+    }
+
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        UserHistory userHistory = index.computeIfAbsent(userId, UserHistory::new);
+        synchronized (userHistory) {
+            // user 안에서 id 가 증가하는 순서를 보장하기 위해 user monitor 안에서 발급
+            long id = cursor.getAndIncrement();
+            userHistory.append(id, amount, type, updateMillis);
+            return new PointHistory(id, userId, amount, type, updateMillis);
+        }
+    }
+
+    @Override
+    public PointHistory insertCompensation(long userId, long amount, TransactionType type, long updateMillis, int reverted) {
+        PointHistory pointHistory = insert(userId, amount, type, updateMillis);
+        markCompensation(userId, pointHistory.id(), reverted);
+        return pointHistory;
+    }
+
+    /**
+     * param : userId, id, reverted
+     * id 의 history 를 바로 앞 history reverted 건을 취소한 보정 history 로 표시 (WAL 에서 발급/복구한 보정 history)
+     */
+    void markCompensation(long userId, long id, int reverted) {
+        index.computeIfAbsent(userId, UserHistory::new).compensations.put(id, reverted);
+    }
+
+    @Override
+    public Map<Long, Integer> selectCompensations(long userId) {
+        UserHistory userHistory = index.get(userId);
+        if (userHistory == null) {
+            return Map.of();
+        }
+        return Map.copyOf(userHistory.compensations);
+    }
+
+    /**
+     * param : pointHistory
+     * 이미 id 가 발급된 history 를 추가 (WAL 에서 발급/복구한 history)
+     * 같은 user 의 history 는 id 가 증가하는 순서로 추가해야 한다
+     */
+    void append(PointHistory pointHistory) {
+        UserHistory userHistory = index.computeIfAbsent(pointHistory.userId(), UserHistory::new);
+        synchronized (userHistory) {
+            userHistory.append(pointHistory.id(), pointHistory.amount(), pointHistory.type(), pointHistory.updateMillis());
+        }
+        cursor.accumulateAndGet(pointHistory.id() + 1, Math::max);
+    }
+
+    @Override
+    public List<PointHistory> selectAllByUserId(long userId) {
+        UserHistory userHistory = index.get(userId);
+        if (userHistory == null) {
+            return List.of();
+        }
+        return userHistory.toList();
+    }
+
+    /**
+     * user 안에서 id 는 증가하므로 cursor 위치는 binary search 로 찾고,
+     * 조건을 만족하는 history 를 limit 개 찾을 때까지만 읽는다
+     */
+    @Override
+    public PointHistoryPage selectPage(long userId, PointHistoryQuery query) {
+        UserHistory userHistory = index.get(userId);
+        if (userHistory == null) {
+            return new PointHistoryPage(List.of(), null);
+        }
+        return userHistory.selectPage(query);
+    }
+
+    /**
+     * param : cutoffMillis
+     * updateMillis 가 cutoffMillis 보다 이전인 history 를 cold tier 로 옮기고 옮긴 row 수 반환
+     * (user 마다 앞에서부터 segment 단위로 옮긴다)
+     */
+    public int moveToCold(long cutoffMillis) {
+        int moved = 0;
+        for (UserHistory userHistory : index.values()) {
+            synchronized (userHistory) {
+                moved += userHistory.moveToCold(cutoffMillis);
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * cold tier 가 사용하는 memory (byte)
+     */
+    public long coldFootprintBytes() {
+        long bytes = 0;
+        for (UserHistory userHistory : index.values()) {
+            bytes += userHistory.tiers.cold.footprintBytes();
+        }
+        return bytes;
+    }
+
+    @Override
+    public void close() {
+        if (coldMover != null) {
+            coldMover.shutdownNow();
+        }
+    }
+
+    private void moveToColdQuietly(long coldAfterSeconds) {
+        try {
+            int moved = moveToCold(System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(coldAfterSeconds));
+            if (moved > 0) {
+                log.info("history cold tier 이동 - row : {}", moved);
+            }
+        } catch (RuntimeException e) {
+            log.error("history cold tier 이동 실패", e);
+        }
+    }
+
+    /**
+     * user 한 명의 history
+     * - 추가는 UserHistory monitor 안에서만, 조회는 lock 없이 size 까지만 읽는다
+     * - 앞부분은 cold segment, 나머지는 hot segment 배열에 순서대로 보관하며 둘은 Tiers 로 함께 교체한다
+     * - segment 는 4 개부터 2 배씩 늘어나며, 최대 크기 이후로는 같은 크기로 추가
+     */
+    static final class UserHistory {
+        private static final int FIRST_SEGMENT_SIZE = 4;
+        private static final int MAX_SEGMENT_SIZE = 1024;
+
+        private final long userId;
+        // 보정 history id 와 취소한 history 수
+        private final Map<Long, Integer> compensations = new ConcurrentHashMap<>();
+        private volatile Tiers tiers = Tiers.EMPTY;
+        // 조회하는 쪽은 size 를 먼저 읽어 그 이전에 추가된 값만 읽는다
+        private volatile int size;
+
+        UserHistory(long userId) {
+            this.userId = userId;
+        }
+
+        void append(long id, long amount, TransactionType type, long updateMillis) {
+            Tiers current = tiers;
+            Segment[] segments = current.segments;
+            Segment last = segments.length == 0 ? null : segments[segments.length - 1];
+            if (last == null || last.isFull()) {
+                int capacity = last == null ? FIRST_SEGMENT_SIZE : Math.min(last.capacity() * 2, MAX_SEGMENT_SIZE);
+                last = new Segment(capacity);
+                Segment[] grown = new Segment[segments.length + 1];
+                System.arraycopy(segments, 0, grown, 0, segments.length);
+                grown[segments.length] = last;
+                tiers = new Tiers(current.cold, grown);
+            }
+            last.append(id, amount, type, updateMillis);
+            size = size + 1;
+        }
+
+        /**
+         * 앞에서부터 모든 row 가 cutoffMillis 이전인 segment 를 cold segment 뒤에 이어 붙인다
+         * 옮긴 segment 에는 더 이상 추가하지 않으므로 이전 Tiers 를 읽는 조회도 같은 값을 읽는다
+         */
+        int moveToCold(long cutoffMillis) {
+            Tiers current = tiers;
+            Segment[] segments = current.segments;
+            int moving = 0;
+            while (moving < segments.length && segments[moving].isOlderThan(cutoffMillis)) {
+                moving++;
+            }
+            if (moving == 0) {
+                return 0;
+            }
+
+            ColdHistorySegment.Builder builder = current.cold.extend();
+            int rows = 0;
+            for (int s = 0; s < moving; s++) {
+                Segment segment = segments[s];
+                for (int i = 0; i < segment.length; i++) {
+                    builder.append(segment.ids[i], segment.amounts[i], segment.type(i), segment.updateMillis[i]);
+                }
+                rows += segment.length;
+            }
+            Segment[] remaining = new Segment[segments.length - moving];
+            System.arraycopy(segments, moving, remaining, 0, remaining.length);
+            tiers = new Tiers(builder.build(), remaining);
+            return rows;
+        }
+
+        List<PointHistory> toList() {
+            int count = size;
+            Tiers current = tiers;
+            List<PointHistory> histories = new ArrayList<>(count);
+            ColdHistorySegment.Reader reader = current.cold.reader();
+            while (reader.next()) {
+                histories.add(reader.toPointHistory(userId));
+            }
+            for (Segment segment : current.segments) {
+                int limit = Math.min(segment.capacity(), count - histories.size());
+                for (int i = 0; i < limit; i++) {
+                    histories.add(segment.get(userId, i));
+                }
+                if (histories.size() == count) {
+                    break;
+                }
+            }
+            return histories;
+        }
+
+        PointHistoryPage selectPage(PointHistoryQuery query) {
+            int count = size;
+            Tiers current = tiers;
+            List<PointHistory> histories = new ArrayList<>(Math.min(query.limit(), count));
+
+            ColdHistorySegment cold = current.cold;
+            if (query.cursor() == null || cold.lastId() > query.cursor()) {
+                ColdHistorySegment.Reader reader = cold.reader();
+                if (query.cursor() != null) {
+                    // sparse index 로 cursor 가 있는 block 부터 읽는다
+                    reader.seekAfter(query.cursor());
+                }
+                while (reader.next()) {
+                    if (query.cursor() != null && reader.id <= query.cursor()) {
+                        continue;
+                    }
+                    if (!query.matches(reader.updateMillis, reader.type)) {
+                        continue;
+                    }
+                    if (histories.size() == query.limit()) {
+                        return new PointHistoryPage(histories, histories.get(histories.size() - 1).id());
+                    }
+                    histories.add(reader.toPointHistory(userId));
+                }
+            }
+
+            int offset = cold.count();
+            for (Segment segment : current.segments) {
+                if (offset >= count) {
+                    break;
+                }
+                int length = Math.min(segment.capacity(), count - offset);
+                offset += length;
+                int start = query.cursor() == null ? 0 : segment.indexAfter(query.cursor(), length);
+
+                for (int i = start; i < length; i++) {
+                    if (!query.matches(segment.updateMillis[i], segment.type(i))) {
+                        continue;
+                    }
+                    if (histories.size() == query.limit()) {
+                        return new PointHistoryPage(histories, histories.get(histories.size() - 1).id());
+                    }
+                    histories.add(segment.get(userId, i));
+                }
+            }
+            return new PointHistoryPage(histories, null);
+        }
+    }
+
+    /**
+     * user 한 명의 cold segment 와 hot segment 배열 (조회 중에도 한 번에 교체)
+     */
+    private record Tiers(
+            ColdHistorySegment cold,
+            Segment[] segments
+    ) {
+        private static final Tiers EMPTY = new Tiers(ColdHistorySegment.EMPTY, new Segment[0]);
+    }
+
+    /**
+     * 고정 크기 primitive 배열 묶음
+     * - type 은 bit 하나로 저장 (0 : CHARGE, 1 : USE)
+     */
+    static final class Segment {
+        private final long[] ids;
+        private final long[] amounts;
+        private final long[] updateMillis;
+        private final long[] useBits;
+        private int length;
+
+        Segment(int capacity) {
+            this.ids = new long[capacity];
+            this.amounts = new long[capacity];
+            this.updateMillis = new long[capacity];
+            this.useBits = new long[(capacity + 63) >>> 6];
+        }
+
+        int capacity() {
+            return ids.length;
+        }
+
+        boolean isFull() {
+            return length == ids.length;
+        }
+
+        void append(long id, long amount, TransactionType type, long millis) {
+            ids[length] = id;
+            amounts[length] = amount;
+            updateMillis[length] = millis;
+            if (type == TransactionType.USE) {
+                useBits[length >>> 6] |= 1L << length;
+            }
+            length++;
+        }
+
+        boolean isOlderThan(long cutoffMillis) {
+            for (int i = 0; i < length; i++) {
+                if (updateMillis[i] >= cutoffMillis) {
+                    return false;
+                }
+            }
+            return length > 0;
+        }
+
+        TransactionType type(int i) {
+            return (useBits[i >>> 6] & (1L << i)) != 0 ? TransactionType.USE : TransactionType.CHARGE;
+        }
+
+        PointHistory get(long userId, int i) {
+            return new PointHistory(ids[i], userId, amounts[i], type(i), updateMillis[i]);
+        }
+
+        /**
+         * param : cursor, length
+         * 앞에서 length 개 중 id 가 cursor 보다 큰 첫 위치 (없으면 length)
+         */
+        int indexAfter(long cursor, int length) {
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (ids[mid] <= cursor) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
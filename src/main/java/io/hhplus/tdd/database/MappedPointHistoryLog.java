@@ -0,0 +1,416 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.model.PointHistory;
+import io.hhplus.tdd.point.model.TransactionType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * PointHistory 를 고정 길이 record 로 추가하는 memory-mapped log
+ * - record(40 byte) : id, userId, amount, updateMillis (각 8 byte), type(4 byte), crc32(4 byte)
+ *   type 의 하위 8 bit 는 거래 종류(1 : CHARGE / 2 : USE), 상위 24 bit 는 보정 history 가 취소한 바로 앞 history 수 (일반 history 는 0)
+ * - segment 파일(point-{첫 record id}.wal)이 가득 차면 다음 파일로 넘어간다
+ * - append 는 memory 에만 쓰고, awaitDurable 에서 여러 thread 의 record 를 한 번의 force(fsync)로 함께 디스크에 반영 (group commit)
+ * - 시작 시 모든 record 를 순서대로 읽고, 마지막 segment 끝의 crc 가 맞지 않는 record(쓰는 도중 종료)는 버린다
+ *   id 는 1 씩 이어져야 하며, 마지막 segment 에서 이어지지 않는 record 를 만나면 그 위치부터 끝까지를 버린다
+ *   (버린 위치부터 segment 끝까지 0 으로 지워, 이전 실행에서 남은 record 를 다음 복구에서 다시 읽지 않도록 한다)
+ *   (afterId 를 지정하면 afterId 이하의 record 만 담긴 segment 는 읽지 않는다)
+ */
+public class MappedPointHistoryLog implements Closeable {
+
+    public static final int RECORD_BYTES = 40;
+    // 보정 history 하나가 취소할 수 있는 최대 history 수 (type 의 상위 24 bit)
+    public static final int MAX_REVERTED = (1 << 24) - 1;
+    private static final int CRC_OFFSET = 36;
+    private static final String PREFIX = "point-";
+    private static final String SUFFIX = ".wal";
+    private static final int VALID = 0;
+    private static final int EMPTY = 1;
+    private static final int CORRUPTED = 2;
+    private static final int TRUNCATE_CHUNK_BYTES = 64 * 1024;
+    private static final int TYPE_BITS = 8;
+    private static final int TYPE_MASK = (1 << TYPE_BITS) - 1;
+
+    private final Path directory;
+
+    private final int segmentBytes;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final CRC32 crc = new CRC32();
+
+    private final byte[] scratch = new byte[CRC_OFFSET];
+
+    private Segment current;
+
+    // 마지막으로 추가한 record id (appendLock 안에서만 변경)
+    private long lastId;
+
+    // force 가 끝나 디스크에 반영된 마지막 record id
+    private volatile long durableId;
+
+    /**
+     * param : directory, segmentBytes, recovered
+     * directory 의 segment 를 순서대로 읽어 recovered 로 전달한 뒤, 마지막 record 다음부터 추가할 수 있도록 연다
+     */
+    public MappedPointHistoryLog(Path directory, int segmentBytes, Consumer<PointHistory> recovered) {
+        this(directory, segmentBytes, 0L, recovered);
+    }
+
+    /**
+     * param : directory, segmentBytes, afterId, recovered
+     * id 가 afterId 보다 큰 record 만 recovered 로 전달 (snapshot 이후의 record 만 반영할 때 사용)
+     */
+    public MappedPointHistoryLog(Path directory, int segmentBytes, long afterId, Consumer<PointHistory> recovered) {
+        this(directory, segmentBytes, afterId, (RecordConsumer) (history, reverted) -> recovered.accept(history));
+    }
+
+    /**
+     * param : directory, segmentBytes, afterId, recovered
+     * id 가 afterId 보다 큰 record 를 보정 history 가 취소한 history 수와 함께 recovered 로 전달
+     */
+    public MappedPointHistoryLog(Path directory, int segmentBytes, long afterId, RecordConsumer recovered) {
+        if (segmentBytes < RECORD_BYTES) {
+            throw new IllegalArgumentException("segmentBytes 는 " + RECORD_BYTES + " 이상이어야 합니다.");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes / RECORD_BYTES * RECORD_BYTES;
+        try {
+            Files.createDirectories(directory);
+            recover(afterId, recovered);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.durableId = lastId;
+    }
+
+    /**
+     * param : userId, amount, type, updateMillis
+     * record 를 추가하고 발급한 id 로 PointHistory 반환
+     * 반환 시점에는 디스크 반영이 보장되지 않으므로 awaitDurable 로 기다려야 한다
+     */
+    public PointHistory append(long userId, long amount, TransactionType type, long updateMillis) {
+        return append(userId, amount, type, updateMillis, 0);
+    }
+
+    /**
+     * param : userId, amount, type, updateMillis, reverted
+     * 같은 user 의 바로 앞 history reverted 건을 취소하는 보정 history 를 추가 (0 이면 일반 history)
+     */
+    public PointHistory append(long userId, long amount, TransactionType type, long updateMillis, int reverted) {
+        if (reverted < 0 || reverted > MAX_REVERTED) {
+            throw new IllegalArgumentException("reverted 는 0 이상 " + MAX_REVERTED + " 이하여야 합니다.");
+        }
+        appendLock.lock();
+        try {
+            if (!current.hasRoom()) {
+                rotate();
+            }
+            long id = lastId + 1;
+            current.write(id, userId, amount, type, updateMillis, reverted);
+            lastId = id;
+            return new PointHistory(id, userId, amount, type, updateMillis);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * param : id
+     * id 까지의 record 가 디스크에 반영될 때까지 대기
+     * 먼저 force 중인 thread 가 있으면 기다렸다가, 그 사이 추가된 record 를 모아 한 번에 force 한다
+     */
+    public void awaitDurable(long id) {
+        if (durableId >= id) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            if (durableId >= id) {
+                return;
+            }
+            Segment segment;
+            int end;
+            long target;
+            appendLock.lock();
+            try {
+                segment = current;
+                end = segment.position;
+                target = lastId;
+            } finally {
+                appendLock.unlock();
+            }
+            // 이전 segment 는 넘어갈 때 이미 force 되었으므로 현재 segment 만 반영
+            segment.force(end);
+            durableId = target;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * param : afterId, upToId, consumer
+     * afterId 보다 크고 upToId 이하인 record 를 순서대로 전달
+     * 추가와 동시에 호출할 수 있으며, upToId 는 durableId() 이하여야 한다 (쓰는 중인 record 를 읽지 않도록)
+     */
+    public void read(long afterId, long upToId, Consumer<PointHistory> consumer) {
+        read(afterId, upToId, (RecordConsumer) (history, reverted) -> consumer.accept(history));
+    }
+
+    /**
+     * param : afterId, upToId, consumer
+     * read 와 같으며 보정 history 가 취소한 history 수를 함께 전달
+     */
+    public void read(long afterId, long upToId, RecordConsumer consumer) {
+        CRC32 readCrc = new CRC32();
+        byte[] readScratch = new byte[CRC_OFFSET];
+        try {
+            List<Path> files = segmentFiles();
+            for (int i = 0; i < files.size(); i++) {
+                if (firstIdOf(files.get(i)) > upToId) {
+                    break;
+                }
+                if (i + 1 < files.size() && firstIdOf(files.get(i + 1)) <= afterId + 1) {
+                    continue;
+                }
+                try (FileChannel channel = FileChannel.open(files.get(i), StandardOpenOption.READ)) {
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                    for (int position = 0; position + RECORD_BYTES <= buffer.capacity(); position += RECORD_BYTES) {
+                        if (state(buffer, position, readCrc, readScratch) != VALID) {
+                            break;
+                        }
+                        long id = buffer.getLong(position);
+                        if (id > upToId) {
+                            return;
+                        }
+                        if (id > afterId) {
+                            consumer.accept(decode(buffer, position), reverted(buffer, position));
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * force 가 끝나 디스크에 반영된 마지막 record id
+     */
+    public long durableId() {
+        return durableId;
+    }
+
+    public long lastId() {
+        appendLock.lock();
+        try {
+            return lastId;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        appendLock.lock();
+        try {
+            current.force(current.position);
+            current.close();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void rotate() {
+        // 가득 찬 segment 는 더 이상 쓰지 않으므로 force 후 닫는다
+        current.force(current.position);
+        current.close();
+        current = openSegment(lastId + 1);
+    }
+
+    private void recover(long afterId, RecordConsumer recovered) throws IOException {
+        List<Path> files = segmentFiles();
+
+        for (int i = 0; i < files.size(); i++) {
+            boolean last = i == files.size() - 1;
+            if (!last && firstIdOf(files.get(i + 1)) <= afterId + 1) {
+                // 다음 segment 가 afterId 이전에 시작하면 이 segment 의 record 는 모두 afterId 이하
+                lastId = firstIdOf(files.get(i + 1)) - 1;
+                continue;
+            }
+
+            Segment segment = openSegment(files.get(i));
+            lastId = Math.max(lastId, firstIdOf(files.get(i)) - 1);
+            while (segment.hasRoom()) {
+                int state = state(segment.buffer, segment.position, crc, scratch);
+                if (state == EMPTY) {
+                    break;
+                }
+                long id = segment.buffer.getLong(segment.position);
+                if (state == CORRUPTED || id != lastId + 1) {
+                    if (!last) {
+                        throw new IllegalStateException("손상된 WAL record 가 있습니다. : " + files.get(i) + " (" + segment.position + ")");
+                    }
+                    // 쓰는 도중 종료된 마지막 record 와 그 뒤에 남은 record 는 버리고 그 위치부터 다시 추가
+                    segment.truncate();
+                    break;
+                }
+                lastId = id;
+                if (lastId > afterId) {
+                    recovered.accept(decode(segment.buffer, segment.position), reverted(segment.buffer, segment.position));
+                }
+                segment.position += RECORD_BYTES;
+            }
+            if (last) {
+                current = segment;
+            } else {
+                segment.close();
+            }
+        }
+
+        if (current == null) {
+            current = openSegment(lastId + 1);
+        }
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> stream = Files.list(directory)) {
+            return stream.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+    }
+
+    private static long firstIdOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    private Segment openSegment(long firstId) {
+        return openSegment(directory.resolve(String.format("%s%020d%s", PREFIX, firstId, SUFFIX)));
+    }
+
+    private Segment openSegment(Path path) {
+        try {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return new Segment(channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int state(ByteBuffer buffer, int position, CRC32 crc, byte[] scratch) {
+        int type = buffer.getInt(position + 32);
+        int checksum = buffer.getInt(position + CRC_OFFSET);
+        if (type == 0 && checksum == 0) {
+            return EMPTY;
+        }
+        int kind = type & TYPE_MASK;
+        if (kind < 1 || kind > TransactionType.values().length || checksum != checksum(buffer, position, crc, scratch)) {
+            return CORRUPTED;
+        }
+        return VALID;
+    }
+
+    private static PointHistory decode(ByteBuffer buffer, int position) {
+        return new PointHistory(buffer.getLong(position), buffer.getLong(position + 8), buffer.getLong(position + 16),
+                TransactionType.values()[(buffer.getInt(position + 32) & TYPE_MASK) - 1], buffer.getLong(position + 24));
+    }
+
+    private static int reverted(ByteBuffer buffer, int position) {
+        return buffer.getInt(position + 32) >>> TYPE_BITS;
+    }
+
+    private static int checksum(ByteBuffer buffer, int position, CRC32 crc, byte[] scratch) {
+        buffer.get(position, scratch);
+        crc.reset();
+        crc.update(scratch);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * segment 파일 하나, 쓰기는 appendLock 안에서만 한다
+     */
+    private final class Segment {
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final ReentrantLock forceLock = new ReentrantLock();
+        private int position;
+        // forceLock 안에서만 변경
+        private int forced;
+
+        Segment(FileChannel channel, MappedByteBuffer buffer) {
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        boolean hasRoom() {
+            return position + RECORD_BYTES <= buffer.capacity();
+        }
+
+        void write(long id, long userId, long amount, TransactionType type, long updateMillis, int reverted) {
+            buffer.putLong(position, id);
+            buffer.putLong(position + 8, userId);
+            buffer.putLong(position + 16, amount);
+            buffer.putLong(position + 24, updateMillis);
+            buffer.putInt(position + 32, reverted << TYPE_BITS | type.ordinal() + 1);
+            buffer.putInt(position + CRC_OFFSET, checksum(buffer, position, crc, scratch));
+            position += RECORD_BYTES;
+        }
+
+        /**
+         * position 부터 segment 끝까지 0 으로 지우고 디스크에 반영
+         */
+        void truncate() {
+            byte[] zeros = new byte[Math.min(TRUNCATE_CHUNK_BYTES, buffer.capacity() - position)];
+            for (int offset = position; offset < buffer.capacity(); offset += zeros.length) {
+                buffer.put(offset, zeros, 0, Math.min(zeros.length, buffer.capacity() - offset));
+            }
+            buffer.force(position, buffer.capacity() - position);
+        }
+
+        /**
+         * force(fsync) 동안 대기하는 thread 가 carrier thread 를 고정하지 않도록 synchronized 대신 lock 사용
+         */
+        void force(int end) {
+            forceLock.lock();
+            try {
+                if (end > forced) {
+                    buffer.force(forced, end - forced);
+                    forced = end;
+                }
+            } finally {
+                forceLock.unlock();
+            }
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * 복구하거나 읽은 record 를 받는 쪽 (reverted : 보정 history 가 취소한 바로 앞 history 수, 일반 history 는 0)
+     */
+    @FunctionalInterface
+    public interface RecordConsumer {
+        void accept(PointHistory history, int reverted);
+    }
+}
@@ -0,0 +1,93 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.model.PointHistory;
+import io.hhplus.tdd.point.model.PointHistoryPage;
+import io.hhplus.tdd.point.model.PointHistoryQuery;
+import io.hhplus.tdd.point.model.TransactionType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * service 에서 사용하는 point history 저장소
+ */
+public interface PointHistoryRepository {
+
+    /**
+     * param : userId, amount, type, updateMillis
+     * history 저장 후 저장된 값 반환
+     */
+    PointHistory insert(long userId, long amount, TransactionType type, long updateMillis);
+
+    /**
+     * param : userId, amount, type, updateMillis, reverted
+     * 같은 user 의 바로 앞 history reverted 건을 취소하는 보정 history 저장 후 저장된 값 반환
+     * 기본 구현은 보정 여부 없이 일반 history 와 같이 저장한다
+     */
+    default PointHistory insertCompensation(long userId, long amount, TransactionType type, long updateMillis, int reverted) {
+        return insert(userId, amount, type, updateMillis);
+    }
+
+    /**
+     * param : userId
+     * user 의 보정 history id 별 취소한 history 수 (재시작 후 복구하거나 다른 node 로 넘길 때 집계에서 제외하기 위해 사용)
+     * 기본 구현은 보정 여부를 저장하지 않으므로 빈 map
+     */
+    default Map<Long, Integer> selectCompensations(long userId) {
+        return Map.of();
+    }
+
+    /**
+     * param : userId
+     * user 의 전체 history 를 저장된 순서대로 조회
+     */
+    List<PointHistory> selectAllByUserId(long userId);
+
+    /**
+     * param : userId, query
+     * cursor 이후의 history 중 조건을 만족하는 history 를 limit 만큼 조회
+     * 기본 구현은 전체 history 를 조회한 뒤 거른다
+     */
+    default PointHistoryPage selectPage(long userId, PointHistoryQuery query) {
+        List<PointHistory> histories = new ArrayList<>(query.limit());
+        for (PointHistory history : selectAllByUserId(userId)) {
+            if (query.cursor() != null && history.id() <= query.cursor()) {
+                continue;
+            }
+            if (!query.matches(history.updateMillis(), history.type())) {
+                continue;
+            }
+            if (histories.size() == query.limit()) {
+                return new PointHistoryPage(histories, histories.get(histories.size() - 1).id());
+            }
+            histories.add(history);
+        }
+        return new PointHistoryPage(histories, null);
+    }
+
+    /**
+     * param : userId, action
+     * user 의 전체 history 를 저장된 순서대로 action 에 전달
+     * 기본 구현은 selectPage 로 페이지 단위로 순회하므로, selectPage 가 매번 전체 history 를 읽는 저장소는 한 번에 순회하도록 재정의한다
+     */
+    default void forEachByUserId(long userId, Consumer<PointHistory> action) {
+        PointHistoryQuery query = PointHistoryQuery.of(null, PointHistoryQuery.MAX_LIMIT, null, null, null);
+        while (true) {
+            PointHistoryPage page = selectPage(userId, query);
+            page.histories().forEach(action);
+            if (page.nextCursor() == null) {
+                return;
+            }
+            query = new PointHistoryQuery(page.nextCursor(), query.limit(), null, null, null);
+        }
+    }
+
+    /**
+     * 시작 시 history 를 복구하는 저장소는 복구(조회 index, 집계)가 끝날 때까지 대기
+     * 기본 구현은 복구할 것이 없으므로 바로 반환
+     */
+    default void awaitRecovered() {
+    }
+}
@@ -0,0 +1,283 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.model.UserPoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * long id 를 key 로 하는 open addressing 저장소 (point.user-point.store=primitive)
+ * - point / updateMillis / version 을 primitive 배열에 key 와 같은 위치로 저장 (Long, UserPoint 객체를 보관하지 않음)
+ * - 64 개 segment 로 나누어 segment 마다 StampedLock 으로 쓰기를 순차 처리하고, 조회는 optimistic read 로 lock 없이 처리
+ * - 조회/저장 중에는 객체를 만들지 않고, 반환하는 UserPoint 만 생성
+ * - user 당 slot 32 byte + 사용 여부 1 bit, 사용률 최대 75% (배열 확장 직후 최소 37.5%)
+ */
+@Component
+@ConditionalOnProperty(name = "point.user-point.store", havingValue = "primitive")
+public class PrimitiveUserPointRepository implements UserPointRepository {
+
+    private static final int SEGMENT_SHIFT = 6;
+    private static final int SEGMENT_COUNT = 1 << SEGMENT_SHIFT;
+    private static final int INITIAL_SEGMENT_CAPACITY = 256;
+
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+
+    public PrimitiveUserPointRepository() {
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    @Override
+    public UserPoint selectById(long id) {
+        long hash = hash(id);
+        Segment segment = segmentOf(hash);
+
+        long stamp = segment.lock.tryOptimisticRead();
+        Slots slots = segment.slots;
+        int index = slots.indexOf(id, hash);
+        long point = index < 0 ? 0L : slots.points[index];
+        long updateMillis = index < 0 ? 0L : slots.updateMillis[index];
+
+        if (!segment.lock.validate(stamp)) {
+            stamp = segment.lock.readLock();
+            try {
+                slots = segment.slots;
+                index = slots.indexOf(id, hash);
+                point = index < 0 ? 0L : slots.points[index];
+                updateMillis = index < 0 ? 0L : slots.updateMillis[index];
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return index < 0 ? UserPoint.empty(id) : new UserPoint(id, point, updateMillis);
+    }
+
+    @Override
+    public VersionedUserPoint selectVersionedById(long id) {
+        long hash = hash(id);
+        Segment segment = segmentOf(hash);
+
+        long stamp = segment.lock.readLock();
+        try {
+            Slots slots = segment.slots;
+            int index = slots.indexOf(id, hash);
+            if (index < 0) {
+                return new VersionedUserPoint(UserPoint.empty(id), 0L);
+            }
+            return new VersionedUserPoint(new UserPoint(id, slots.points[index], slots.updateMillis[index]), slots.versions[index]);
+        } finally {
+            segment.lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public UserPoint insertOrUpdate(long id, long amount) {
+        long hash = hash(id);
+        Segment segment = segmentOf(hash);
+        long updateMillis = System.currentTimeMillis();
+
+        long stamp = segment.lock.writeLock();
+        try {
+            int index = segment.indexForWrite(id, hash);
+            Slots slots = segment.slots;
+            slots.points[index] = amount;
+            slots.updateMillis[index] = updateMillis;
+            slots.versions[index]++;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+        return new UserPoint(id, amount, updateMillis);
+    }
+
+    @Override
+    public void restore(long id, long amount) {
+        long hash = hash(id);
+        Segment segment = segmentOf(hash);
+
+        long stamp = segment.lock.writeLock();
+        try {
+            int index = segment.indexForWrite(id, hash);
+            Slots slots = segment.slots;
+            slots.points[index] = amount;
+            slots.updateMillis[index] = System.currentTimeMillis();
+            slots.versions[index] = 0L;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Optional<UserPoint> compareAndSet(long id, long expectedVersion, long amount) {
+        long hash = hash(id);
+        Segment segment = segmentOf(hash);
+        long updateMillis = System.currentTimeMillis();
+
+        long stamp = segment.lock.writeLock();
+        try {
+            int index = segment.slots.indexOf(id, hash);
+            long version = index < 0 ? 0L : segment.slots.versions[index];
+            if (version != expectedVersion) {
+                return Optional.empty();
+            }
+            if (index < 0) {
+                index = segment.indexForWrite(id, hash);
+            }
+            Slots slots = segment.slots;
+            slots.points[index] = amount;
+            slots.updateMillis[index] = updateMillis;
+            slots.versions[index] = version + 1;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+        return Optional.of(new UserPoint(id, amount, updateMillis));
+    }
+
+    /**
+     * 저장된 user 수
+     */
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            long stamp = segment.lock.readLock();
+            try {
+                size += segment.size;
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 배열이 차지하는 byte 수 (배열 header 제외)
+     */
+    public long footprintBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            long stamp = segment.lock.readLock();
+            try {
+                bytes += segment.slots.footprintBytes();
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return bytes;
+    }
+
+    private Segment segmentOf(long hash) {
+        return segments[(int) (hash >>> (Long.SIZE - SEGMENT_SHIFT))];
+    }
+
+    /**
+     * 연속된 id 가 같은 segment / 인접 slot 에 몰리지 않도록 섞는다 (murmur3 finalizer)
+     */
+    private static long hash(long id) {
+        long h = id;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * segment 하나, 쓰기는 write lock 안에서만 한다
+     */
+    private static final class Segment {
+        private final StampedLock lock = new StampedLock();
+        // 배열을 늘릴 때 한 번에 교체하여, optimistic read 가 서로 다른 크기의 배열을 섞어 읽지 않도록 한다
+        private volatile Slots slots = new Slots(INITIAL_SEGMENT_CAPACITY);
+        private int size;
+
+        /**
+         * id 의 slot 을 반환하고, 없으면 빈 slot 을 할당 (사용률이 75% 를 넘으면 배열을 2 배로 늘림)
+         */
+        int indexForWrite(long id, long hash) {
+            int index = slots.indexOf(id, hash);
+            if (index >= 0) {
+                return index;
+            }
+            if ((size + 1) * 4L > slots.capacity() * 3L) {
+                slots = slots.grow();
+            }
+            size++;
+            return slots.claim(id, hash);
+        }
+    }
+
+    /**
+     * 같은 index 의 key / point / updateMillis / version 이 한 user 의 값
+     * 사용 여부는 used bitset 으로 표시하며 삭제는 하지 않는다
+     */
+    private static final class Slots {
+        private final long[] keys;
+        private final long[] points;
+        private final long[] updateMillis;
+        private final long[] versions;
+        private final long[] used;
+        private final int mask;
+
+        Slots(int capacity) {
+            keys = new long[capacity];
+            points = new long[capacity];
+            updateMillis = new long[capacity];
+            versions = new long[capacity];
+            used = new long[(capacity + Long.SIZE - 1) / Long.SIZE];
+            mask = capacity - 1;
+        }
+
+        int capacity() {
+            return mask + 1;
+        }
+
+        /**
+         * id 가 저장된 slot, 없으면 -1
+         * 삭제가 없고 항상 빈 slot 이 남아 있으므로 빈 slot 을 만나면 없는 것으로 판단
+         */
+        int indexOf(long id, long hash) {
+            int index = (int) hash & mask;
+            while (isUsed(index)) {
+                if (keys[index] == id) {
+                    return index;
+                }
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+
+        int claim(long id, long hash) {
+            int index = (int) hash & mask;
+            while (isUsed(index)) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = id;
+            used[index >>> 6] |= 1L << index;
+            return index;
+        }
+
+        Slots grow() {
+            Slots grown = new Slots(capacity() * 2);
+            for (int index = 0; index <= mask; index++) {
+                if (isUsed(index)) {
+                    int moved = grown.claim(keys[index], hash(keys[index]));
+                    grown.points[moved] = points[index];
+                    grown.updateMillis[moved] = updateMillis[index];
+                    grown.versions[moved] = versions[index];
+                }
+            }
+            return grown;
+        }
+
+        long footprintBytes() {
+            return (long) capacity() * Long.BYTES * 4 + (long) used.length * Long.BYTES;
+        }
+
+        private boolean isUsed(int index) {
+            return (used[index >>> 6] & (1L << index)) != 0;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.model.PointHistory;
+import io.hhplus.tdd.point.model.TransactionType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * PointHistoryTable 기반 저장소 (point.history.store=table, 기본값)
+ * - PointHistoryTable 은 thread-safe 하지 않은 ArrayList 와 cursor 를 사용하므로 (table 은 변경하지 않음)
+ *   insert 는 write lock, 조회는 read lock 안에서 호출하여 table 접근을 직렬화
+ *   (table 의 throttle 도 lock 안에서 실행되므로 서로 다른 user 의 insert 도 순서대로 처리된다)
+ * - table 의 history 에는 보정 여부를 담을 수 없으므로 보정 history 의 id 와 취소한 history 수는 별도 map 에 보관
+ */
+@Component
+@ConditionalOnProperty(name = "point.history.store", havingValue = "table", matchIfMissing = true)
+public class TablePointHistoryRepository implements PointHistoryRepository {
+
+    private static final String TABLE = "point_history";
+
+    private final PointHistoryTable pointHistoryTable;
+
+    private final PointMetrics pointMetrics;
+
+    private final ReadWriteLock tableLock = new ReentrantReadWriteLock();
+
+    private final boolean serialized;
+
+    // user 별 보정 history id 와 취소한 history 수 (보정 history 는 저장 실패를 되돌릴 때만 생기므로 드물다)
+    private final Map<Long, Map<Long, Integer>> compensations = new ConcurrentHashMap<>();
+
+    public TablePointHistoryRepository(PointHistoryTable pointHistoryTable, PointMetrics pointMetrics) {
+        this(pointHistoryTable, pointMetrics, false);
+    }
+
+    /**
+     * param : pointHistoryTable, pointMetrics, threadSafeTable
+     * threadSafeTable : table 구현이 직접 동기화하는 경우(고정 지연 test / 부하 test table 등) true 로 두면 lock 없이 호출
+     */
+    @Autowired
+    public TablePointHistoryRepository(PointHistoryTable pointHistoryTable, PointMetrics pointMetrics,
+                                         @Value("${point.table.thread-safe:false}") boolean threadSafeTable) {
+        this.pointHistoryTable = pointHistoryTable;
+        this.pointMetrics = pointMetrics;
+        this.serialized = !threadSafeTable;
+    }
+
+    public TablePointHistoryRepository(PointHistoryTable pointHistoryTable) {
+        this(pointHistoryTable, PointMetrics.noop());
+    }
+
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        return withTableLock(tableLock.writeLock(), () -> {
+            long start = System.nanoTime();
+            PointHistory pointHistory = pointHistoryTable.insert(userId, amount, type, updateMillis);
+            pointMetrics.recordTableCall(TABLE, "insert", start);
+            return pointHistory;
+        });
+    }
+
+    @Override
+    public PointHistory insertCompensation(long userId, long amount, TransactionType type, long updateMillis, int reverted) {
+        PointHistory pointHistory = insert(userId, amount, type, updateMillis);
+        compensations.computeIfAbsent(userId, id -> new ConcurrentHashMap<>()).put(pointHistory.id(), reverted);
+        return pointHistory;
+    }
+
+    @Override
+    public Map<Long, Integer> selectCompensations(long userId) {
+        return Map.copyOf(compensations.getOrDefault(userId, Map.of()));
+    }
+
+    @Override
+    public List<PointHistory> selectAllByUserId(long userId) {
+        return withTableLock(tableLock.readLock(), () -> {
+            long start = System.nanoTime();
+            List<PointHistory> histories = pointHistoryTable.selectAllByUserId(userId);
+            pointMetrics.recordTableCall(TABLE, "selectAllByUserId", start);
+            return histories;
+        });
+    }
+
+    /**
+     * table 은 user 의 전체 history 목록만 반환하므로 페이지마다 다시 조회하지 않고 한 번 조회한 목록을 순회
+     * (목록은 table 이 이미 보관한 history 의 참조만 담지만, 순회하는 동안 user 의 history 수만큼 memory 를 추가로 사용한다.
+     *  table 의 공개 API 로는 나누어 읽을 수 없으므로, history 수와 관계없이 memory 를 일정하게 하려면 indexed / wal 저장소를 사용)
+     */
+    @Override
+    public void forEachByUserId(long userId, Consumer<PointHistory> action) {
+        selectAllByUserId(userId).forEach(action);
+    }
+
+    private <T> T withTableLock(Lock lock, Supplier<T> call) {
+        if (!serialized) {
+            return call.get();
+        }
+        lock.lock();
+        try {
+            return call.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
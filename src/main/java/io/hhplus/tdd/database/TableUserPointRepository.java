@@ -0,0 +1,201 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.model.UserPoint;
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * UserPointTable 기반 저장소 (point.user-point.store=table, 기본값)
+ * - insertOrUpdate 가 성공해 table 에 확정된 UserPoint 만 snapshot 에 보관
+ * - 조회는 snapshot 에서 lock 과 table throttle 없이 처리하고, snapshot 에 없는 user 만 table 에서 조회
+ *   (같은 user 를 동시에 조회하면 table 조회는 한 번만 하고 결과를 함께 사용)
+ * - 같은 user 에 대한 insertOrUpdate 는 호출하는 쪽(service)에서 순차 처리해야 한다
+ * - compareAndSet 은 lock 없이 호출할 수 있으며, table 에 먼저 저장하고 저장이 성공한 뒤에 다음 version 을 snapshot 에 확정
+ *   (조회는 table 에 저장되지 않은 point 를 보지 않는다)
+ *   저장하는 동안에는 user 별 저장 중 표시를 두어, 같은 user 의 다른 compareAndSet 은 table 을 호출하지 않고 충돌(empty)로 끝난다
+ *   table 저장이 실패하면 snapshot 은 그대로 두고 예외 전달
+ * - 같은 user 에 insertOrUpdate 와 compareAndSet 을 동시에 호출하지 않는다 (lock / optimistic 방식 중 하나로만 저장)
+ * - UserPointTable 은 thread-safe 하지 않은 HashMap 을 사용하므로 (table 은 변경하지 않음)
+ *   table 저장은 write lock, table 조회는 read lock 안에서 호출하여 table 접근을 직렬화
+ */
+@Component
+@ConditionalOnProperty(name = "point.user-point.store", havingValue = "table", matchIfMissing = true)
+public class TableUserPointRepository implements UserPointRepository {
+
+    private static final String TABLE = "user_point";
+
+    private final UserPointTable userPointTable;
+
+    private final Map<Long, VersionedUserPoint> committed = new ConcurrentHashMap<>();
+
+    private final Map<Long, CompletableFuture<VersionedUserPoint>> loading = new ConcurrentHashMap<>();
+
+    // compareAndSet 으로 table 에 저장 중인 user 와 저장 전 version
+    private final Map<Long, VersionedUserPoint> writing = new ConcurrentHashMap<>();
+
+    private final PointMetrics pointMetrics;
+
+    private final ReadWriteLock tableLock = new ReentrantReadWriteLock();
+
+    private final boolean serialized;
+
+    public TableUserPointRepository(UserPointTable userPointTable, PointMetrics pointMetrics) {
+        this(userPointTable, pointMetrics, false);
+    }
+
+    /**
+     * param : userPointTable, pointMetrics, threadSafeTable
+     * threadSafeTable : table 구현이 직접 동기화하는 경우(고정 지연 test / 부하 test table 등) true 로 두면 lock 없이 호출
+     */
+    @Autowired
+    public TableUserPointRepository(UserPointTable userPointTable, PointMetrics pointMetrics,
+                                      @Value("${point.table.thread-safe:false}") boolean threadSafeTable) {
+        this.userPointTable = userPointTable;
+        this.pointMetrics = pointMetrics;
+        this.serialized = !threadSafeTable;
+    }
+
+    public TableUserPointRepository(UserPointTable userPointTable) {
+        this(userPointTable, PointMetrics.noop());
+    }
+
+    @Override
+    public UserPoint selectById(long id) {
+        return selectVersionedById(id).userPoint();
+    }
+
+    @Override
+    public VersionedUserPoint selectVersionedById(long id) {
+        VersionedUserPoint versioned = committed.get(id);
+        if (versioned != null) {
+            return versioned;
+        }
+
+        CompletableFuture<VersionedUserPoint> load = new CompletableFuture<>();
+        CompletableFuture<VersionedUserPoint> inFlight = loading.putIfAbsent(id, load);
+        if (inFlight != null) {
+            // 먼저 시작된 table 조회를 기다리고, 그 사이 write 가 반영되었다면 write 결과를 우선한다
+            VersionedUserPoint shared = join(inFlight);
+            return committed.getOrDefault(id, shared);
+        }
+
+        try {
+            // 조회 도중 write 가 먼저 반영되었다면 write 결과를 우선한다
+            VersionedUserPoint loaded = new VersionedUserPoint(read(id), 0L);
+            VersionedUserPoint current = committed.putIfAbsent(id, loaded);
+            VersionedUserPoint result = current != null ? current : loaded;
+            load.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(id, load);
+        }
+    }
+
+    @Override
+    public UserPoint insertOrUpdate(long id, long amount) {
+        UserPoint userPoint = write(id, amount);
+        VersionedUserPoint saved = committed.compute(id, (key, previous) -> new VersionedUserPoint(userPoint, previous == null ? 1L : previous.version() + 1));
+        completeLoading(id, saved);
+        return userPoint;
+    }
+
+    /**
+     * table 저장 지연 없이 snapshot 에만 등록하고, 이후 저장부터 table 에 반영
+     */
+    @Override
+    public void restore(long id, long amount) {
+        committed.put(id, new VersionedUserPoint(new UserPoint(id, amount, System.currentTimeMillis()), 0L));
+    }
+
+    @Override
+    public Optional<UserPoint> compareAndSet(long id, long expectedVersion, long amount) {
+        VersionedUserPoint current = selectVersionedById(id);
+        if (current.version() != expectedVersion) {
+            return Optional.empty();
+        }
+        if (writing.putIfAbsent(id, current) != null) {
+            return Optional.empty();
+        }
+        try {
+            // 저장 중 표시를 두기 전에 다른 저장이 확정되었을 수 있으므로 다시 확인
+            VersionedUserPoint latest = committed.get(id);
+            if (latest == null || latest.version() != expectedVersion) {
+                return Optional.empty();
+            }
+            UserPoint userPoint = write(id, amount);
+            VersionedUserPoint next = new VersionedUserPoint(userPoint, expectedVersion + 1);
+            committed.put(id, next);
+            completeLoading(id, next);
+            return Optional.of(userPoint);
+        } finally {
+            writing.remove(id);
+        }
+    }
+
+    /**
+     * 진행 중인 table 조회가 있으면 저장한 값으로 먼저 완료하여, 기다리던 조회가 이전 값을 받지 않도록 한다
+     */
+    private void completeLoading(long id, VersionedUserPoint saved) {
+        CompletableFuture<VersionedUserPoint> inFlight = loading.remove(id);
+        if (inFlight != null) {
+            inFlight.complete(saved);
+        }
+    }
+
+    private static VersionedUserPoint join(CompletableFuture<VersionedUserPoint> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private UserPoint read(long id) {
+        return withTableLock(tableLock.readLock(), () -> {
+            long start = System.nanoTime();
+            UserPoint userPoint = userPointTable.selectById(id);
+            pointMetrics.recordTableCall(TABLE, "selectById", start);
+            return userPoint;
+        });
+    }
+
+    private UserPoint write(long id, long amount) {
+        return withTableLock(tableLock.writeLock(), () -> {
+            long start = System.nanoTime();
+            UserPoint userPoint = userPointTable.insertOrUpdate(id, amount);
+            pointMetrics.recordTableCall(TABLE, "insertOrUpdate", start);
+            return userPoint;
+        });
+    }
+
+    private <T> T withTableLock(Lock lock, Supplier<T> call) {
+        if (!serialized) {
+            return call.get();
+        }
+        lock.lock();
+        try {
+            return call.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
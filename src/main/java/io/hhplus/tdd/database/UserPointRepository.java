@@ -0,0 +1,42 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.model.UserPoint;
+
+import java.util.Optional;
+
+/**
+ * service 에서 사용하는 user point 저장소
+ */
+public interface UserPointRepository {
+
+    /**
+     * param : id
+     * 확정(commit)된 point 조회, 등록되지 않은 user 는 point 0
+     */
+    UserPoint selectById(long id);
+
+    /**
+     * param : id
+     * 확정(commit)된 point 와 version 조회
+     */
+    VersionedUserPoint selectVersionedById(long id);
+
+    /**
+     * param : id, amount
+     * 최종 point 저장 후 저장된 값 반환
+     */
+    UserPoint insertOrUpdate(long id, long amount);
+
+    /**
+     * param : id, amount
+     * 재시작 시 history log 에서 복구한 point 를 확정 값으로 등록 (history 는 남기지 않음)
+     */
+    void restore(long id, long amount);
+
+    /**
+     * param : id, expectedVersion, amount
+     * 확정된 version 이 expectedVersion 과 같을 때만 최종 point 를 저장하고 저장된 값 반환
+     * 그 사이 다른 요청이 먼저 저장했다면 저장하지 않고 empty 반환
+     */
+    Optional<UserPoint> compareAndSet(long id, long expectedVersion, long amount);
+}
@@ -0,0 +1,17 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.model.UserPoint;
+
+/**
+ * 확정된 UserPoint 와 version
+ * - version : 해당 user 의 point 가 저장될 때마다 1 증가 (table 에서 처음 읽은 값은 0)
+ */
+public record VersionedUserPoint(
+        UserPoint userPoint,
+        long version
+) {
+
+    public long point() {
+        return userPoint.point();
+    }
+}
@@ -0,0 +1,279 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.model.PointHistory;
+import io.hhplus.tdd.point.model.PointHistoryPage;
+import io.hhplus.tdd.point.model.PointHistoryQuery;
+import io.hhplus.tdd.point.model.TransactionType;
+import io.hhplus.tdd.point.summary.PointSummaryAggregator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * memory-mapped log(MappedPointHistoryLog)에 history 를 남기는 저장소 (point.history.store=wal)
+ * - insert 는 log 에 추가하고 디스크 반영(group commit)을 기다린 뒤 조회 index 에 추가
+ * - 시작 시 user 별 마지막 history 의 point 로 최종 point 를 복구
+ *   (history 의 amount 는 충전/사용 후 point 이므로 마지막 history 가 최종 point)
+ * - point.wal.snapshot-interval-seconds 마다 최종 point snapshot(BalanceSnapshotStore)을 저장하고,
+ *   시작 시 snapshot 이 있으면 snapshot 이후의 history 만 읽어 최종 point 를 복구 (history 조회 index 는 background 에서 복구)
+ * - history 조회 index 를 복구하면서 PointSummaryAggregator 에도 같은 history 를 반영하여 충전/사용 집계를 복구
+ *   (보정 history 는 log record 에 취소한 history 수를 함께 남기므로, 쓰기 경로와 같이 보정 history 는 집계하지 않고 취소된 history 를 제외)
+ * - 같은 user 의 history 가 저장 순서대로 log 에 남아야 하므로 point.concurrency.strategy=lock 에서만 사용
+ */
+@Component
+@ConditionalOnProperty(name = "point.history.store", havingValue = "wal")
+public class WalPointHistoryRepository implements PointHistoryRepository, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(WalPointHistoryRepository.class);
+
+    private final IndexedPointHistoryRepository index;
+
+    private final MappedPointHistoryLog pointHistoryLog;
+
+    private final BalanceSnapshotStore snapshotStore;
+
+    private final ScheduledExecutorService checkpointer;
+
+    private final PointSummaryAggregator pointSummaryAggregator;
+
+    // index 복구 중 추가된 history (복구가 끝나면 순서대로 index 에 추가)
+    private final List<PointHistory> pending = new ArrayList<>();
+
+    private final CountDownLatch indexLoaded = new CountDownLatch(1);
+
+    private volatile boolean indexReady;
+
+    private volatile RuntimeException indexFailure;
+
+    private volatile boolean closed;
+
+    @Autowired
+    public WalPointHistoryRepository(UserPointRepository userPointRepository,
+                                     PointSummaryAggregator pointSummaryAggregator,
+                                     @Value("${point.wal.directory:./data/wal}") Path directory,
+                                     @Value("${point.wal.segment-bytes:67108864}") int segmentBytes,
+                                     @Value("${point.wal.snapshot-interval-seconds:0}") long snapshotIntervalSeconds,
+                                     @Value("${point.history.cold-after-seconds:0}") long coldAfterSeconds,
+                                     @Value("${point.concurrency.strategy:lock}") String concurrencyStrategy) {
+        if ("optimistic".equalsIgnoreCase(concurrencyStrategy)) {
+            throw new IllegalStateException("point.history.store=wal 은 point.concurrency.strategy=lock 에서만 사용할 수 있습니다.");
+        }
+
+        this.index = new IndexedPointHistoryRepository(coldAfterSeconds);
+        this.pointSummaryAggregator = pointSummaryAggregator;
+
+        this.snapshotStore = new BalanceSnapshotStore(directory);
+        BalanceSnapshotStore.Snapshot snapshot = snapshotStore.loadLatest();
+        Map<Long, Long> lastPoints = snapshot.points();
+        boolean fromSnapshot = snapshot.watermark() > 0;
+
+        this.pointHistoryLog = new MappedPointHistoryLog(directory, segmentBytes, snapshot.watermark(), (history, reverted) -> {
+            if (!fromSnapshot) {
+                recoverHistory(history, reverted, lastPoints);
+            }
+            lastPoints.put(history.userId(), history.amount());
+        });
+        lastPoints.forEach(userPointRepository::restore);
+        log.info("WAL 복구 완료 - history : {}, snapshot : {}, user : {}", pointHistoryLog.lastId(), snapshot.watermark(), lastPoints.size());
+
+        if (fromSnapshot) {
+            // loader 가 시작되기 전에 추가된 history 는 pending 으로 index 에 반영되므로, 복구한 마지막 id 까지만 읽는다
+            long recoveredId = pointHistoryLog.lastId();
+            Thread loader = new Thread(() -> loadIndex(recoveredId), "point-history-index-loader");
+            loader.setDaemon(true);
+            loader.start();
+        } else {
+            markIndexReady();
+        }
+
+        if (snapshotIntervalSeconds > 0) {
+            checkpointer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "point-balance-checkpoint");
+                thread.setDaemon(true);
+                return thread;
+            });
+            checkpointer.scheduleWithFixedDelay(this::checkpointQuietly, snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+        } else {
+            checkpointer = null;
+        }
+    }
+
+    public WalPointHistoryRepository(UserPointRepository userPointRepository, Path directory, int segmentBytes) {
+        this(userPointRepository, new PointSummaryAggregator(), directory, segmentBytes);
+    }
+
+    public WalPointHistoryRepository(UserPointRepository userPointRepository, PointSummaryAggregator pointSummaryAggregator,
+                                     Path directory, int segmentBytes) {
+        this(userPointRepository, pointSummaryAggregator, directory, segmentBytes, 0L, 0L, "lock");
+    }
+
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        PointHistory pointHistory = pointHistoryLog.append(userId, amount, type, updateMillis);
+        pointHistoryLog.awaitDurable(pointHistory.id());
+        addToIndex(pointHistory);
+        return pointHistory;
+    }
+
+    @Override
+    public PointHistory insertCompensation(long userId, long amount, TransactionType type, long updateMillis, int reverted) {
+        PointHistory pointHistory = pointHistoryLog.append(userId, amount, type, updateMillis, reverted);
+        pointHistoryLog.awaitDurable(pointHistory.id());
+        index.markCompensation(userId, pointHistory.id(), reverted);
+        addToIndex(pointHistory);
+        return pointHistory;
+    }
+
+    @Override
+    public Map<Long, Integer> selectCompensations(long userId) {
+        awaitIndex();
+        return index.selectCompensations(userId);
+    }
+
+    @Override
+    public List<PointHistory> selectAllByUserId(long userId) {
+        awaitIndex();
+        return index.selectAllByUserId(userId);
+    }
+
+    @Override
+    public PointHistoryPage selectPage(long userId, PointHistoryQuery query) {
+        awaitIndex();
+        return index.selectPage(userId, query);
+    }
+
+    /**
+     * 충전/사용 집계도 history 조회 index 와 함께 복구되므로 index 복구를 기다린다
+     */
+    @Override
+    public void awaitRecovered() {
+        awaitIndex();
+    }
+
+    /**
+     * 이전 snapshot 에 그 이후 디스크에 반영된 history 를 더해 새 snapshot 을 저장하고 watermark 반환
+     * log 에 반영된 history 만 읽으므로 충전/사용을 멈추지 않고도 watermark 시점의 최종 point 와 정확히 일치한다
+     */
+    public synchronized long checkpoint() {
+        BalanceSnapshotStore.Snapshot latest = snapshotStore.loadLatest();
+        long upToId = pointHistoryLog.durableId();
+        if (upToId <= latest.watermark()) {
+            return latest.watermark();
+        }
+
+        Map<Long, Long> points = latest.points();
+        pointHistoryLog.read(latest.watermark(), upToId, history -> points.put(history.userId(), history.amount()));
+        snapshotStore.write(upToId, points);
+        return upToId;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        if (checkpointer != null) {
+            checkpointer.shutdownNow();
+        }
+        index.close();
+        pointHistoryLog.close();
+    }
+
+    private void checkpointQuietly() {
+        try {
+            long watermark = checkpoint();
+            log.info("point snapshot 저장 - watermark : {}", watermark);
+        } catch (RuntimeException e) {
+            log.error("point snapshot 저장 실패", e);
+        }
+    }
+
+    private void loadIndex(long upToId) {
+        try {
+            Map<Long, Long> previousPoints = new HashMap<>();
+            pointHistoryLog.read(0L, upToId, (history, reverted) -> {
+                if (closed) {
+                    throw new IllegalStateException("저장소가 닫혔습니다.");
+                }
+                recoverHistory(history, reverted, previousPoints);
+                previousPoints.put(history.userId(), history.amount());
+            });
+            markIndexReady();
+        } catch (RuntimeException e) {
+            indexFailure = e;
+            indexLoaded.countDown();
+            if (!closed) {
+                log.error("history index 복구 실패", e);
+            }
+        }
+    }
+
+    /**
+     * param : history, reverted, previousPoints
+     * history 를 조회 index 에 추가하고, 같은 user 의 직전 point 와의 차이를 충전/사용 집계에 반영
+     * (history 의 amount 는 거래 후 최종 point)
+     * 보정 history(reverted > 0)는 집계하지 않고, index 에 먼저 추가된 바로 앞 history reverted 건을 집계에서 제외
+     * (보정 history 는 드물게만 생기므로 그때만 user 의 history 를 다시 읽는다)
+     */
+    private void recoverHistory(PointHistory history, int reverted, Map<Long, Long> previousPoints) {
+        if (reverted > 0) {
+            pointSummaryAggregator.revertLast(history.userId(), index.selectAllByUserId(history.userId()), reverted);
+            index.markCompensation(history.userId(), history.id(), reverted);
+            index.append(history);
+            return;
+        }
+        index.append(history);
+        long previous = previousPoints.getOrDefault(history.userId(), 0L);
+        pointSummaryAggregator.record(history.userId(), history.type(), Math.abs(history.amount() - previous), history.updateMillis());
+    }
+
+    private void addToIndex(PointHistory pointHistory) {
+        if (indexReady) {
+            index.append(pointHistory);
+            return;
+        }
+        synchronized (pending) {
+            if (indexReady) {
+                index.append(pointHistory);
+            } else {
+                pending.add(pointHistory);
+            }
+        }
+    }
+
+    private void markIndexReady() {
+        synchronized (pending) {
+            pending.forEach(index::append);
+            pending.clear();
+            indexReady = true;
+        }
+        indexLoaded.countDown();
+    }
+
+    private void awaitIndex() {
+        if (indexReady) {
+            return;
+        }
+        try {
+            indexLoaded.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("history index 복구를 기다리는 중 중단되었습니다.", e);
+        }
+        if (indexFailure != null) {
+            throw new IllegalStateException("history index 를 복구하지 못했습니다.", indexFailure);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package io.hhplus.tdd.point;
+
+/**
+ * user 별 / 전체 동시 처리 한도를 넘어 요청을 처리하지 않고 거절한 경우
+ */
+public class AdmissionRejectedException extends RuntimeException {
+    public AdmissionRejectedException(String message) {
+        super(message);
+    }
+}
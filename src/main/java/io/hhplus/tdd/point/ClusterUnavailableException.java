@@ -0,0 +1,14 @@
+package io.hhplus.tdd.point;
+
+/**
+ * user 를 소유한 node 를 확인할 수 없거나(구성 변경 중) 소유 node 에 연결할 수 없는 경우
+ */
+public class ClusterUnavailableException extends RuntimeException {
+    public ClusterUnavailableException(String message) {
+        super(message);
+    }
+
+    public ClusterUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
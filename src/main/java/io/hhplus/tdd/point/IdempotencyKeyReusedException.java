@@ -0,0 +1,10 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 같은 Idempotency-Key 로 다른 충전/사용 요청(type, amount)을 보낸 경우
+ */
+public class IdempotencyKeyReusedException extends RuntimeException {
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+}
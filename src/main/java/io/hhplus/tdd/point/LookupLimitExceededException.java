@@ -0,0 +1,10 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 여러 user point 조회 요청의 id 수가 point.lookup.max-ids 를 넘은 경우
+ */
+public class LookupLimitExceededException extends RuntimeException {
+    public LookupLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,69 @@
+package io.hhplus.tdd.point;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class PointExecutorConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(PointExecutorConfig.class);
+
+    /**
+     * user 별 queue 의 충전/사용 요청을 처리하는 worker
+     * spring.threads.virtual.enabled=true 이고 Java 21 이상이면 요청마다 virtual thread 에서 처리
+     * (table 지연 동안 carrier thread 를 점유하지 않으므로 worker 수를 제한하지 않음)
+     */
+    @Bean(name = "pointCommandExecutor")
+    public ExecutorService pointCommandExecutor(@Value("${point.write-behind.workers:32}") int workers,
+                                                @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (virtualThreads) {
+            if (VirtualThreads.isSupported()) {
+                return VirtualThreads.newThreadPerTaskExecutor("point-command-");
+            }
+            log.warn("spring.threads.virtual.enabled=true 이지만 Java 21 미만이므로 platform thread 를 사용합니다.");
+        }
+        return Executors.newFixedThreadPool(workers, namedThreadFactory("point-command-"));
+    }
+
+    /**
+     * point.write.overlap=true 일 때 history 저장과 point 저장을 동시에 실행하는 thread
+     * 저장이 끝날 때까지 thread 를 점유하므로 요청 수만큼 늘어날 수 있는 pool 사용
+     */
+    @Bean(name = "pointWriteExecutor")
+    public ExecutorService pointWriteExecutor(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (virtualThreads && VirtualThreads.isSupported()) {
+            return VirtualThreads.newThreadPerTaskExecutor("point-write-");
+        }
+        return Executors.newCachedThreadPool(namedThreadFactory("point-write-"));
+    }
+
+    /**
+     * 여러 user 의 point 를 동시에 조회하는 thread
+     * 요청 하나가 사용하는 thread 수는 point.lookup.parallelism 으로 제한
+     */
+    @Bean(name = "pointLookupExecutor")
+    public ExecutorService pointLookupExecutor(@Value("${point.lookup.threads:64}") int threads,
+                                               @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (virtualThreads && VirtualThreads.isSupported()) {
+            return VirtualThreads.newThreadPerTaskExecutor("point-lookup-");
+        }
+        return Executors.newFixedThreadPool(threads, namedThreadFactory("point-lookup-"));
+    }
+
+    static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
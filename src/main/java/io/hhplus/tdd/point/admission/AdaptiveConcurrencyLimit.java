@@ -0,0 +1,64 @@
+package io.hhplus.tdd.point.admission;
+
+/**
+ * table 호출 시간에 따라 조정하는 동시 처리 한도
+ * - 최근 호출 시간(short)과 장기 평균(long)을 지수 이동 평균으로 추적
+ * - short 가 long * tolerance 보다 커지면(table 이 느려짐) 그 비율만큼 한도를 줄이고 (최대 절반)
+ *   그렇지 않으면서 한도의 절반 이상을 사용 중이면 sqrt(한도) 만큼 늘린다
+ * - 변화는 smoothing 비율로만 반영하고 [minLimit, maxLimit] 안으로 제한
+ */
+public final class AdaptiveConcurrencyLimit {
+
+    private static final double SHORT_WEIGHT = 0.1;
+    private static final double LONG_WEIGHT = 0.01;
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double tolerance;
+
+    private double shortLatency;
+
+    private double longLatency;
+
+    private volatile double limit;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        if (minLimit < 1 || maxLimit < minLimit || tolerance < 1.0) {
+            throw new IllegalArgumentException("min-limit 은 1 이상, max-limit 은 min-limit 이상, tolerance 는 1 이상이어야 합니다.");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    public int limit() {
+        return (int) limit;
+    }
+
+    /**
+     * param : latencyNanos, inFlight
+     * table 호출 한 번의 시간과 그때 처리 중인 요청 수로 한도 조정
+     */
+    public synchronized void onSample(long latencyNanos, int inFlight) {
+        if (longLatency == 0) {
+            shortLatency = latencyNanos;
+            longLatency = latencyNanos;
+            return;
+        }
+        shortLatency += (latencyNanos - shortLatency) * SHORT_WEIGHT;
+        longLatency += (latencyNanos - longLatency) * LONG_WEIGHT;
+
+        double current = limit;
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longLatency / shortLatency));
+        if (gradient == 1.0 && inFlight < current / 2) {
+            // 한도를 거의 사용하지 않는 동안에는 늘리지 않는다
+            return;
+        }
+        double target = current * gradient + (gradient == 1.0 ? Math.sqrt(current) : 0);
+        limit = Math.max(minLimit, Math.min(maxLimit, current + (target - current) * SMOOTHING));
+    }
+}
@@ -0,0 +1,178 @@
+package io.hhplus.tdd.point.admission;
+
+import io.hhplus.tdd.point.AdmissionRejectedException;
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 충전/사용 요청의 수용 제어 (point.admission.enabled=true)
+ * - user 별 : 처리 중이거나 user lock 을 기다리는 같은 user 의 요청이 perUserQueue 개면 바로 거절
+ *   (한 user 에 몰린 요청이 요청 처리 thread 를 모두 차지하지 않도록)
+ * - 전체 : 처리 중인 요청 수가 table 호출 시간에 따라 조정되는 한도(AdaptiveConcurrencyLimit)에 닿으면
+ *   maxWaitMillis 까지만 기다리고 거절
+ * - 거절은 AdmissionRejectedException (429)
+ * - 이미 수용된 요청 안에서 같은 user 로 다시 호출하면 (cluster filter 에서 수용한 뒤 controller 에서 호출) 다시 세지 않고 실행
+ */
+@Component
+public class PointAdmissionLimiter {
+
+    public static final String REJECTED_USER = "user";
+    public static final String REJECTED_GLOBAL = "global";
+
+    private final boolean enabled;
+
+    private final int perUserQueue;
+
+    private final long maxWaitNanos;
+
+    private final AdaptiveConcurrencyLimit limit;
+
+    private final PointMetrics pointMetrics;
+
+    private final Map<Long, UserSlots> users = new ConcurrentHashMap<>();
+
+    private final ReentrantLock globalLock = new ReentrantLock();
+
+    private final Condition released = globalLock.newCondition();
+
+    // globalLock 안에서만 변경 (읽기는 lock 없이)
+    private volatile int inFlight;
+
+    // 현재 thread 에서 수용된 요청의 user (없으면 null)
+    private final ThreadLocal<Long> admittedUser = new ThreadLocal<>();
+
+    @Autowired
+    public PointAdmissionLimiter(@Value("${point.admission.enabled:false}") boolean enabled,
+                                 @Value("${point.admission.per-user-queue:4}") int perUserQueue,
+                                 @Value("${point.admission.max-wait-millis:50}") long maxWaitMillis,
+                                 @Value("${point.admission.initial-limit:100}") int initialLimit,
+                                 @Value("${point.admission.min-limit:8}") int minLimit,
+                                 @Value("${point.admission.max-limit:200}") int maxLimit,
+                                 @Value("${point.admission.latency-tolerance:2.0}") double latencyTolerance,
+                                 PointMetrics pointMetrics) {
+        if (perUserQueue < 1) {
+            throw new IllegalArgumentException("point.admission.per-user-queue 는 1 이상이어야 합니다.");
+        }
+        this.enabled = enabled;
+        this.perUserQueue = perUserQueue;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.limit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, latencyTolerance);
+        this.pointMetrics = pointMetrics;
+        if (enabled) {
+            pointMetrics.addTableCallListener(latencyNanos -> limit.onSample(latencyNanos, inFlight()));
+            pointMetrics.registerAdmissionLimit(limit::limit);
+        }
+    }
+
+    /**
+     * 제한 없이 바로 실행 (point.admission.enabled=false 와 같음)
+     */
+    public PointAdmissionLimiter() {
+        this(false, 4, 50L, 100, 8, 200, 2.0, PointMetrics.noop());
+    }
+
+    /**
+     * param : userId, action
+     * user 별 / 전체 한도 안에서 action 실행, 한도를 넘으면 AdmissionRejectedException
+     */
+    public <T> T admit(long userId, Supplier<T> action) {
+        if (!enabled || Long.valueOf(userId).equals(admittedUser.get())) {
+            return action.get();
+        }
+        if (!acquireUser(userId)) {
+            pointMetrics.recordAdmissionRejected(REJECTED_USER);
+            throw new AdmissionRejectedException("user " + userId + " 의 요청이 너무 많습니다. 잠시 후 다시 시도해 주세요.");
+        }
+        try {
+            if (!acquireGlobal()) {
+                pointMetrics.recordAdmissionRejected(REJECTED_GLOBAL);
+                throw new AdmissionRejectedException("처리 중인 요청이 너무 많습니다. 잠시 후 다시 시도해 주세요.");
+            }
+            Long outer = admittedUser.get();
+            admittedUser.set(userId);
+            try {
+                return action.get();
+            } finally {
+                admittedUser.set(outer);
+                releaseGlobal();
+            }
+        } finally {
+            releaseUser(userId);
+        }
+    }
+
+    /**
+     * 현재 전체 동시 처리 한도
+     */
+    public int limit() {
+        return limit.limit();
+    }
+
+    /**
+     * 전체 한도 안에서 처리 중인 요청 수
+     */
+    public int inFlight() {
+        return inFlight;
+    }
+
+    private boolean acquireUser(long userId) {
+        boolean[] acquired = new boolean[1];
+        users.compute(userId, (key, entry) -> {
+            UserSlots target = entry == null ? new UserSlots() : entry;
+            if (target.used < perUserQueue) {
+                target.used++;
+                acquired[0] = true;
+            }
+            return target;
+        });
+        return acquired[0];
+    }
+
+    private void releaseUser(long userId) {
+        users.computeIfPresent(userId, (key, entry) -> --entry.used == 0 ? null : entry);
+    }
+
+    private boolean acquireGlobal() {
+        long remaining = maxWaitNanos;
+        globalLock.lock();
+        try {
+            while (inFlight >= limit.limit()) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = released.awaitNanos(remaining);
+            }
+            inFlight++;
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            globalLock.unlock();
+        }
+    }
+
+    private void releaseGlobal() {
+        globalLock.lock();
+        try {
+            inFlight--;
+            released.signal();
+        } finally {
+            globalLock.unlock();
+        }
+    }
+
+    private static final class UserSlots {
+        // compute 안에서만 변경
+        private int used;
+    }
+}
@@ -0,0 +1,79 @@
+package io.hhplus.tdd.point.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * user id 를 node 에 나누는 consistent hash ring (변경 불가)
+ * - node 마다 virtualNodes 개의 지점을 ring 에 두고, user id 의 hash 다음(시계 방향) 지점의 node 가 소유
+ * - node 가 추가/제거되면 해당 node 의 지점 사이에 있던 user 만 소유 node 가 바뀐다 (약 1 / node 수)
+ */
+public final class ConsistentHashRing {
+
+    private final List<String> nodes;
+
+    // hash 순으로 정렬된 지점과 각 지점의 node
+    private final long[] points;
+    private final String[] owners;
+
+    public ConsistentHashRing(List<String> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("node 가 하나 이상 필요합니다.");
+        }
+        this.nodes = List.copyOf(nodes);
+
+        long[][] entries = new long[nodes.size() * virtualNodes][];
+        for (int n = 0; n < nodes.size(); n++) {
+            for (int v = 0; v < virtualNodes; v++) {
+                entries[n * virtualNodes + v] = new long[]{hash(nodes.get(n) + "#" + v), n};
+            }
+        }
+        Arrays.sort(entries, (a, b) -> Long.compare(a[0], b[0]));
+
+        this.points = new long[entries.length];
+        this.owners = new String[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            points[i] = entries[i][0];
+            owners[i] = nodes.get((int) entries[i][1]);
+        }
+    }
+
+    public List<String> nodes() {
+        return nodes;
+    }
+
+    /**
+     * param : userId
+     * user 를 소유한 node
+     */
+    public String ownerOf(long userId) {
+        int index = Arrays.binarySearch(points, mix(userId));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    private static long hash(String value) {
+        // FNV-1a 64 bit 후 mix
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * murmur3 fmix64
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
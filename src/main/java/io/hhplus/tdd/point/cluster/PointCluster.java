@@ -0,0 +1,444 @@
+package io.hhplus.tdd.point.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.database.UserPointRepository;
+import io.hhplus.tdd.point.ClusterUnavailableException;
+import io.hhplus.tdd.point.lock.UserLockManager;
+import io.hhplus.tdd.point.model.PointHistory;
+import io.hhplus.tdd.point.model.PointOperation;
+import io.hhplus.tdd.point.model.PointOperationResult;
+import io.hhplus.tdd.point.model.PointValidation;
+import io.hhplus.tdd.point.service.PointService;
+import io.hhplus.tdd.point.summary.PointSummaryAggregator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * user 를 consistent hash ring 으로 여러 node 에 나누어 저장 (point.cluster.enabled=true)
+ * - 구성(membership)은 번호(epoch) 순서대로 모두 보관하며, 모든 node 에 같은 목록을 전달해야 한다 (PUT /cluster/memberships)
+ * - 소유 node 는 user 를 처음 처리할 때 이전 구성의 소유 node 들에 차례로 넘겨 달라고 요청(release)하여 point / history 를 가져온다
+ *   (user 의 data 는 항상 한 node 에만 있으며, 아무 node 에도 없으면 새 user)
+ * - 넘겨주기는 두 단계로 처리 : 넘겨준 node 는 data 를 지우지 않고 확인 대기(pending)로 두었다가,
+ *   소유 node 가 받은 data 를 저장한 뒤 확인(confirm)하면 그때 user 를 내려놓는다
+ *   (응답이 유실되어도 소유 node 가 다시 요청하면 같은 data 를 다시 넘겨주므로 point 가 사라지지 않음)
+ * - 넘겨준 node 는 이후 (확인을 기다리는 동안에도) 해당 user 를 처리하지 않고 소유 node 로 전달
+ * - 같은 user 의 처리와 넘겨주기는 user lock 으로 순서를 정한다
+ *   (넘겨받기의 HTTP 호출은 user lock 밖에서 user 별로 한 번만 실행하고, 같은 user 의 다른 요청은 그 결과를 기다린다.
+ *    lock 은 받은 data 를 저장할 때만 잡으므로 넘겨받는 동안 lock 을 기다리는 요청이 처리 thread 를 붙잡지 않음)
+ */
+@Component
+@ConditionalOnProperty(name = "point.cluster.enabled", havingValue = "true")
+public class PointCluster {
+
+    private static final Logger log = LoggerFactory.getLogger(PointCluster.class);
+
+    private final String self;
+
+    private final int virtualNodes;
+
+    private final UserLockManager userLockManager;
+
+    private final UserPointRepository userPointRepository;
+
+    private final PointHistoryRepository pointHistoryRepository;
+
+    private final PointSummaryAggregator pointSummaryAggregator;
+
+    private final PointClusterClient client;
+
+    // 다른 요청이 넘겨받는 중인 user 를 기다리는 최대 시간 (release + confirm 호출)
+    private final Duration handoffTimeout;
+
+    // epoch 순서의 구성 (마지막이 현재 구성)
+    private volatile List<ConsistentHashRing> rings;
+
+    // 이 node 가 data 를 가진 user (확인을 기다리는 user 포함)
+    private final Set<Long> held = ConcurrentHashMap.newKeySet();
+
+    // 넘겨주었지만 소유 node 의 확인을 기다리는 user 와 요청한 node 의 epoch
+    private final Map<Long, Integer> pending = new ConcurrentHashMap<>();
+
+    // 다른 node 에 넘겨준 user 와 넘겨줄 때 요청한 node 의 epoch
+    private final Map<Long, Integer> released = new ConcurrentHashMap<>();
+
+    // 넘겨받는 중인 user 와 완료 future (user 별로 한 요청만 넘겨받고 나머지는 기다림)
+    private final Map<Long, CompletableFuture<Void>> handoffs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PointCluster(@Value("${point.cluster.self}") String self,
+                        @Value("${point.cluster.nodes}") List<String> nodes,
+                        @Value("${point.cluster.virtual-nodes:128}") int virtualNodes,
+                        @Value("${point.cluster.request-timeout-seconds:30}") long requestTimeoutSeconds,
+                        @Value("${point.write-behind.enabled:false}") boolean writeBehindEnabled,
+                        UserLockManager userLockManager, UserPointRepository userPointRepository,
+                        PointHistoryRepository pointHistoryRepository, PointSummaryAggregator pointSummaryAggregator,
+                        ObjectMapper objectMapper) {
+        if (writeBehindEnabled) {
+            throw new IllegalStateException("point.cluster.enabled 는 point.write-behind.enabled=false 에서만 사용할 수 있습니다.");
+        }
+        this.self = self;
+        this.virtualNodes = virtualNodes;
+        this.userLockManager = userLockManager;
+        this.userPointRepository = userPointRepository;
+        this.pointHistoryRepository = pointHistoryRepository;
+        this.pointSummaryAggregator = pointSummaryAggregator;
+        this.client = new PointClusterClient(objectMapper, Duration.ofSeconds(requestTimeoutSeconds));
+        this.handoffTimeout = Duration.ofSeconds(requestTimeoutSeconds * 2);
+        this.rings = List.of(new ConsistentHashRing(nodes, virtualNodes));
+    }
+
+    public String self() {
+        return self;
+    }
+
+    public PointClusterClient client() {
+        return client;
+    }
+
+    /**
+     * 현재 구성 번호 (처음 구성이 0)
+     */
+    public int epoch() {
+        return rings.size() - 1;
+    }
+
+    /**
+     * epoch 순서의 구성별 node 목록
+     */
+    public List<List<String>> memberships() {
+        List<List<String>> memberships = new ArrayList<>();
+        for (ConsistentHashRing ring : rings) {
+            memberships.add(ring.nodes());
+        }
+        return memberships;
+    }
+
+    /**
+     * param : memberships
+     * 새 구성 적용, 지금까지의 구성 뒤에 이어지는 목록이어야 한다 (같거나 짧으면 무시)
+     */
+    public synchronized int install(List<List<String>> memberships) {
+        List<ConsistentHashRing> current = rings;
+        for (int i = 0; i < Math.min(current.size(), memberships.size()); i++) {
+            if (!current.get(i).nodes().equals(memberships.get(i))) {
+                throw new IllegalArgumentException("epoch " + i + " 의 구성이 다릅니다.");
+            }
+        }
+        if (memberships.size() <= current.size()) {
+            return epoch();
+        }
+
+        List<ConsistentHashRing> installed = new ArrayList<>(current);
+        for (int i = current.size(); i < memberships.size(); i++) {
+            installed.add(new ConsistentHashRing(memberships.get(i), virtualNodes));
+        }
+        rings = List.copyOf(installed);
+        log.info("cluster 구성 변경 - epoch : {}, nodes : {}", epoch(), memberships.get(memberships.size() - 1));
+        return epoch();
+    }
+
+    /**
+     * param : userId
+     * 현재 구성에서 user 를 소유한 node
+     */
+    public String ownerOf(long userId) {
+        List<ConsistentHashRing> current = rings;
+        return current.get(current.size() - 1).ownerOf(userId);
+    }
+
+    public boolean isOwner(long userId) {
+        return self.equals(ownerOf(userId));
+    }
+
+    /**
+     * param : userId
+     * lock 없이 바로 조회해도 되는 user (이 node 가 소유하고 data 도 가지고 있으며 넘겨주는 중이 아님)
+     */
+    public boolean isReadable(long userId) {
+        return held.contains(userId) && !pending.containsKey(userId) && isOwner(userId);
+    }
+
+    /**
+     * param : userId, action
+     * data 가 없으면 lock 밖에서 가져온 뒤, user lock 안에서 이 node 가 소유 node 인지 확인하고 action 실행
+     * 소유 node 가 아니거나 구성 변경 중이면 ClusterUnavailableException
+     */
+    public <T> T executeLocally(long userId, Supplier<T> action) {
+        awaitHandoff(userId);
+        return userLockManager.executeWithLock(userId, () -> {
+            ensureLocal(userId);
+            return action.get();
+        });
+    }
+
+    /**
+     * param : userId, epoch, from
+     * user 의 data 를 넘기고 이후 처리하지 않음 (data 는 confirm 을 받을 때까지 보관하며, 다시 요청하면 같은 data 를 넘긴다)
+     * 요청한 node 보다 새로운 구성에서 요청한 node 가 소유 node 가 아니면 STALE
+     * 이 node 가 아직 넘겨받는 중이면 BUSY (이전 node 의 확인 후 data 를 저장하기 전에 NOT_HELD 로 답하면 data 가 사라짐)
+     */
+    public UserHandoff release(long userId, int requesterEpoch, String from) {
+        return userLockManager.executeWithLock(userId, () -> {
+            if (requesterEpoch < epoch() && !from.equals(ownerOf(userId))) {
+                return UserHandoff.stale(userId);
+            }
+            if (!held.contains(userId)) {
+                return handoffs.containsKey(userId) ? UserHandoff.busy(userId) : UserHandoff.notHeld(userId);
+            }
+            pending.put(userId, requesterEpoch);
+            released.merge(userId, requesterEpoch, Math::max);
+            return UserHandoff.held(userId, userPointRepository.selectById(userId).point(), pointHistoryRepository.selectAllByUserId(userId),
+                    pointHistoryRepository.selectCompensations(userId));
+        });
+    }
+
+    /**
+     * param : userId, epoch
+     * 소유 node 가 넘겨받은 data 를 저장했음을 확인하면 user 를 내려놓는다
+     * 같은 epoch 로 넘겨준 user 가 아니면 (이미 확인했거나 다시 소유하게 된 경우) false
+     */
+    public boolean confirm(long userId, int requesterEpoch) {
+        return userLockManager.executeWithLock(userId, () -> {
+            if (!pending.remove(userId, requesterEpoch)) {
+                return false;
+            }
+            held.remove(userId);
+            return true;
+        });
+    }
+
+    /**
+     * param : operations, forwarded, pointService
+     * 일괄 충전/사용 요청을 소유 node 별로 나누어, 다른 node 의 요청은 한 번에 전달하고 이 node 의 요청은 pointService.applyAll 로 처리한 뒤
+     * 요청 순서대로 결과 반환 (forwarded : 다른 node 가 전달한 요청이면 모두 이 node 에서 처리)
+     * - 이 node 의 요청은 user lock 안에서 소유 node 인지 확인하며, 처리하지 못한 user 의 요청은 UNAVAILABLE
+     * - 연결할 수 없거나 실패한 node 에 전달한 요청도 UNAVAILABLE (다른 요청은 이미 반영되었을 수 있으므로 전체를 실패시키지 않음)
+     */
+    public List<PointOperationResult> applyAll(Iterable<PointOperation> operations, boolean forwarded, PointService pointService) {
+        List<PointOperation> submitted = new ArrayList<>();
+        List<Integer> localIndexes = new ArrayList<>();
+        Map<String, List<Integer>> remoteIndexes = new LinkedHashMap<>();
+        for (PointOperation operation : operations) {
+            String owner = forwarded ? self : ownerOf(operation.userId());
+            (self.equals(owner) ? localIndexes : remoteIndexes.computeIfAbsent(owner, key -> new ArrayList<>())).add(submitted.size());
+            submitted.add(operation);
+        }
+
+        Map<String, CompletableFuture<HttpResponse<byte[]>>> remoteResults = new LinkedHashMap<>();
+        remoteIndexes.forEach((owner, indexes) -> {
+            List<PointOperation> remote = indexes.stream().map(submitted::get).toList();
+            remoteResults.put(owner, client.forwardAsync(owner, "POST", "/point/bulk",
+                    Map.of("Content-Type", "application/json"), client.write(remote)));
+        });
+
+        // 넘겨받을 user 는 lock 밖에서 먼저 가져오며, 가져오지 못한 user 는 guard 에서 거절되어 UNAVAILABLE
+        localIndexes.stream().map(index -> submitted.get(index).userId()).distinct().forEach(userId -> {
+            try {
+                awaitHandoff(userId);
+            } catch (ClusterUnavailableException e) {
+                log.warn("user {} 를 넘겨받지 못함 - {}", userId, e.getMessage());
+            }
+        });
+        PointOperationResult[] results = new PointOperationResult[submitted.size()];
+        List<PointOperationResult> local = pointService.applyAll(localIndexes.stream().map(submitted::get).toList(), this::ensureLocal);
+        for (int i = 0; i < localIndexes.size(); i++) {
+            results[localIndexes.get(i)] = local.get(i);
+        }
+
+        remoteResults.forEach((owner, future) -> {
+            List<Integer> indexes = remoteIndexes.get(owner);
+            PointOperationResult[] remote = readRemote(owner, future);
+            for (int i = 0; i < indexes.size(); i++) {
+                PointOperation operation = submitted.get(indexes.get(i));
+                results[indexes.get(i)] = remote == null ? PointOperationResult.of(operation, PointValidation.UNAVAILABLE) : remote[i];
+            }
+        });
+        return List.of(results);
+    }
+
+    /**
+     * 이 node 가 data 를 가진 user 중 소유 node 가 바뀐 user 를 소유 node 가 가져가도록 요청하고 요청한 user 수 반환
+     * (node 를 제거하기 전, 또는 구성 변경 후 미리 옮길 때 사용)
+     */
+    public int drain() {
+        int moved = 0;
+        for (Long userId : new ArrayList<>(held)) {
+            String owner = ownerOf(userId);
+            if (!self.equals(owner)) {
+                client.resolve(owner, userId);
+                moved++;
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * user lock 안에서 호출 (일괄 요청의 guard)
+     * 이 node 가 소유 node 이고 data 를 가지고 있는지 확인 (data 는 awaitHandoff 로 미리 가져와야 한다)
+     */
+    private void ensureLocal(long userId) {
+        if (!isOwner(userId)) {
+            throw new ClusterUnavailableException("user " + userId + " 의 소유 node 가 아닙니다.");
+        }
+        Integer releasedAt = released.get(userId);
+        if (releasedAt != null && releasedAt >= epoch()) {
+            throw new ClusterUnavailableException("user " + userId + " 는 다른 node 로 이동했습니다. 구성 변경을 기다려 주세요.");
+        }
+        if (!held.contains(userId)) {
+            throw new ClusterUnavailableException("user " + userId + " 를 넘겨받는 중입니다.");
+        }
+        // 넘겨주었지만 확인받지 못한 채 더 새로운 구성에서 다시 소유하게 된 경우 (늦게 도착한 confirm 은 무시된다)
+        pending.remove(userId);
+    }
+
+    /**
+     * 다른 node 에 전달한 일괄 요청의 결과, 연결할 수 없거나 200 이 아니면 null
+     */
+    private PointOperationResult[] readRemote(String owner, CompletableFuture<HttpResponse<byte[]>> future) {
+        HttpResponse<byte[]> response;
+        try {
+            response = future.join();
+        } catch (CompletionException e) {
+            log.warn("일괄 요청 전달 실패 - node : {}", owner, e.getCause());
+            return null;
+        }
+        if (response.statusCode() != 200) {
+            log.warn("일괄 요청 전달 실패 ({}) - node : {}", response.statusCode(), owner);
+            return null;
+        }
+        return client.read(response, PointOperationResult[].class);
+    }
+
+    /**
+     * user lock 밖에서 호출
+     * 이 node 가 소유 node 인데 data 가 없으면 넘겨받는다. 같은 user 를 이미 다른 요청이 넘겨받는 중이면 그 결과를 기다린다
+     * 기다리는 시간이 handoffTimeout 을 넘거나 넘겨받지 못하면 ClusterUnavailableException
+     */
+    private void awaitHandoff(long userId) {
+        if (held.contains(userId) || !isOwner(userId)) {
+            return;
+        }
+        CompletableFuture<Void> handoff = new CompletableFuture<>();
+        CompletableFuture<Void> running = handoffs.putIfAbsent(userId, handoff);
+        if (running == null) {
+            try {
+                takeOver(userId);
+                handoff.complete(null);
+            } catch (RuntimeException e) {
+                handoff.completeExceptionally(e);
+                throw e;
+            } finally {
+                handoffs.remove(userId, handoff);
+            }
+            return;
+        }
+
+        try {
+            running.get(handoffTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ClusterUnavailableException("user " + userId + " 를 넘겨받는 중입니다.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ClusterUnavailableException cause) {
+                throw cause;
+            }
+            throw new ClusterUnavailableException("user " + userId + " 를 넘겨받지 못했습니다.", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClusterUnavailableException("user " + userId + " 를 넘겨받는 중입니다.", e);
+        }
+    }
+
+    /**
+     * user lock 밖에서 호출 (user 별로 한 요청만 실행)
+     * 이전 구성의 소유 node 들에 최근 구성부터 차례로 넘겨 달라고 요청하고, 받은 data 는 user lock 안에서 저장
+     * (data 가 없는 동안에는 ensureLocal 이 요청을 거절하므로 저장 전에 이 node 에서 user 가 바뀌지 않음)
+     */
+    private void takeOver(long userId) {
+        List<ConsistentHashRing> current = rings;
+        int currentEpoch = current.size() - 1;
+        Integer releasedAt = released.get(userId);
+        if (releasedAt != null && releasedAt >= currentEpoch) {
+            throw new ClusterUnavailableException("user " + userId + " 는 다른 node 로 이동했습니다. 구성 변경을 기다려 주세요.");
+        }
+        if (held.contains(userId)) {
+            return;
+        }
+
+        Set<String> asked = new HashSet<>();
+        asked.add(self);
+        for (int epoch = currentEpoch - 1; epoch >= 0; epoch--) {
+            String candidate = current.get(epoch).ownerOf(userId);
+            if (!asked.add(candidate)) {
+                continue;
+            }
+            UserHandoff handoff = client.release(candidate, userId, currentEpoch, self);
+            if (UserHandoff.STALE.equals(handoff.status())) {
+                throw new ClusterUnavailableException("구성 정보가 오래되었습니다. : " + self);
+            }
+            if (UserHandoff.BUSY.equals(handoff.status())) {
+                throw new ClusterUnavailableException("user " + userId + " 를 넘겨받는 중인 node 입니다. : " + candidate);
+            }
+            if (UserHandoff.HELD.equals(handoff.status())) {
+                userLockManager.executeWithLock(userId, () -> {
+                    store(userId, handoff);
+                    return null;
+                });
+                if (!client.confirm(candidate, userId, currentEpoch)) {
+                    throw new ClusterUnavailableException("user " + userId + " 의 이동을 확인받지 못했습니다. : " + candidate);
+                }
+                log.info("user {} 를 {} 에서 가져옴 - history : {}", userId, candidate, handoff.histories().size());
+                break;
+            }
+        }
+        userLockManager.executeWithLock(userId, () -> {
+            released.remove(userId);
+            held.add(userId);
+            return null;
+        });
+    }
+
+    /**
+     * 넘겨받은 history 중 이 node 에 없는 뒷부분만 추가하고 point 저장
+     * (history 는 항상 전체를 넘기므로, 이전에 이 node 가 가졌던 history 나 확인받지 못해 다시 받은 history 는 받은 history 의 앞부분과 같다)
+     * 보정 history 는 보정 history 로 저장하고, 쓰기 경로와 같이 집계하지 않고 취소된 바로 앞 history 를 집계에서 제외
+     */
+    private void store(long userId, UserHandoff handoff) {
+        List<PointHistory> histories = handoff.histories();
+        int local = pointHistoryRepository.selectAllByUserId(userId).size();
+        long previous = local == 0 || local > histories.size() ? 0 : histories.get(local - 1).amount();
+        for (int i = local; i < histories.size(); i++) {
+            PointHistory history = histories.get(i);
+            Integer reverted = handoff.compensations().get(history.id());
+            if (reverted != null) {
+                pointHistoryRepository.insertCompensation(userId, history.amount(), history.type(), history.updateMillis(), reverted);
+                pointSummaryAggregator.revertLast(userId, histories.subList(0, i), reverted);
+            } else {
+                pointHistoryRepository.insert(userId, history.amount(), history.type(), history.updateMillis());
+                pointSummaryAggregator.record(userId, history.type(), Math.abs(history.amount() - previous), history.updateMillis());
+            }
+            previous = history.amount();
+        }
+        userPointRepository.insertOrUpdate(userId, handoff.point());
+    }
+}
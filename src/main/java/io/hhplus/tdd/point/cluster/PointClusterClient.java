@@ -0,0 +1,121 @@
+package io.hhplus.tdd.point.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hhplus.tdd.point.ClusterUnavailableException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 다른 node 호출 (JDK HttpClient)
+ * - 연결/응답 실패는 ClusterUnavailableException 으로 전달
+ */
+public class PointClusterClient {
+
+    /**
+     * 다른 node 가 전달한 요청 표시 (다시 전달하지 않음)
+     */
+    public static final String FORWARDED_HEADER = "X-Point-Forwarded";
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(2);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(CONNECT_TIMEOUT)
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    private final ObjectMapper objectMapper;
+
+    private final Duration requestTimeout;
+
+    public PointClusterClient(ObjectMapper objectMapper, Duration requestTimeout) {
+        this.objectMapper = objectMapper;
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * param : node, userId, epoch, from
+     * node 에 user 를 넘겨 달라고 요청 (epoch : 요청하는 node 의 구성 번호)
+     */
+    public UserHandoff release(String node, long userId, int epoch, String from) {
+        String query = "?epoch=" + epoch + "&from=" + URLEncoder.encode(from, StandardCharsets.UTF_8);
+        HttpResponse<byte[]> response = send(node, "POST", "/cluster/users/" + userId + "/release" + query, Map.of(), new byte[0]);
+        return read(response, UserHandoff.class);
+    }
+
+    /**
+     * param : node, userId, epoch
+     * 넘겨받은 data 를 저장했음을 알려 node 가 user 를 내려놓도록 요청 (내려놓았으면 true)
+     */
+    public boolean confirm(String node, long userId, int epoch) {
+        HttpResponse<byte[]> response = send(node, "POST", "/cluster/users/" + userId + "/confirm?epoch=" + epoch, Map.of(), new byte[0]);
+        return read(response, Boolean.class);
+    }
+
+    /**
+     * param : node, userId
+     * 소유 node 가 user 의 data 를 가져오도록 요청
+     */
+    public void resolve(String node, long userId) {
+        send(node, "POST", "/cluster/users/" + userId + "/resolve", Map.of(), new byte[0]);
+    }
+
+    /**
+     * param : node, method, pathAndQuery, headers, body
+     * 요청을 그대로 node 에 전달하고 응답 반환 (응답 status 와 관계 없이 반환)
+     */
+    public HttpResponse<byte[]> forward(String node, String method, String pathAndQuery, Map<String, String> headers, byte[] body) {
+        try {
+            return forwardAsync(node, method, pathAndQuery, headers, body).join();
+        } catch (CompletionException e) {
+            throw unavailable(node, e.getCause());
+        }
+    }
+
+    public CompletableFuture<HttpResponse<byte[]>> forwardAsync(String node, String method, String pathAndQuery,
+                                                                Map<String, String> headers, byte[] body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(node + pathAndQuery))
+                .timeout(requestTimeout)
+                .method(method, body.length == 0 ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofByteArray(body))
+                .header(FORWARDED_HEADER, "true");
+        headers.forEach(builder::header);
+        return httpClient.sendAsync(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    public <T> T read(HttpResponse<byte[]> response, Class<T> type) {
+        try {
+            return objectMapper.readValue(response.body(), type);
+        } catch (IOException e) {
+            throw new ClusterUnavailableException("node 응답을 읽을 수 없습니다. : " + response.uri(), e);
+        }
+    }
+
+    public byte[] write(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpResponse<byte[]> send(String node, String method, String pathAndQuery, Map<String, String> headers, byte[] body) {
+        HttpResponse<byte[]> response = forward(node, method, pathAndQuery, headers, body);
+        if (response.statusCode() != 200) {
+            throw new ClusterUnavailableException("node 호출 실패 (" + response.statusCode() + ") : " + response.uri());
+        }
+        return response;
+    }
+
+    private static ClusterUnavailableException unavailable(String node, Throwable cause) {
+        return new ClusterUnavailableException("node 에 연결할 수 없습니다. : " + node, cause);
+    }
+}
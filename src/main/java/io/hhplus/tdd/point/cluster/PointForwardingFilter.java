@@ -0,0 +1,150 @@
+package io.hhplus.tdd.point.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hhplus.tdd.ErrorResponse;
+import io.hhplus.tdd.point.AdmissionRejectedException;
+import io.hhplus.tdd.point.ClusterUnavailableException;
+import io.hhplus.tdd.point.admission.PointAdmissionLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpResponse;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * /point/{id} 로 시작하는 요청을 user 를 소유한 node 에서 처리 (point.cluster.enabled=true)
+ * - 소유 node 가 아니면 요청(method, path, header, body)을 소유 node 로 전달하고 응답을 그대로 반환
+ * - 소유 node 면 user lock 안에서 처리하여 처리 중에 다른 node 로 넘어가지 않도록 한다
+ *   (이미 data 를 가진 user 의 조회는 lock 없이 처리)
+ * - 충전/사용은 user lock 을 기다리기 전에 수용 제어(PointAdmissionLimiter)를 먼저 거쳐, 한도를 넘은 요청이 lock 을 기다리며
+ *   요청 처리 thread 를 차지하지 않도록 한다 (거절은 429, controller 에서는 같은 요청을 다시 세지 않음)
+ * - 다른 node 가 전달한 요청인데 이 node 도 소유 node 가 아니면(구성 변경 중) 다시 전달하지 않고 503
+ */
+@Component
+@ConditionalOnProperty(name = "point.cluster.enabled", havingValue = "true")
+public class PointForwardingFilter extends OncePerRequestFilter {
+
+    private static final Pattern USER_PATH = Pattern.compile("^/point/(\\d+)(/.*)?$");
+
+    // 전달하지 않는 header (연결 단위 header 및 HttpClient 가 직접 설정하는 header)
+    private static final Set<String> EXCLUDED_HEADERS = Set.of(
+            "connection", "content-length", "expect", "host", "upgrade", "keep-alive", "transfer-encoding", "te", "trailer",
+            "proxy-connection", "date", PointClusterClient.FORWARDED_HEADER.toLowerCase(Locale.ROOT));
+
+    private static final Set<String> ADMITTED_PATHS = Set.of("/charge", "/use");
+
+    private final PointCluster pointCluster;
+
+    private final PointAdmissionLimiter pointAdmissionLimiter;
+
+    private final ObjectMapper objectMapper;
+
+    public PointForwardingFilter(PointCluster pointCluster, PointAdmissionLimiter pointAdmissionLimiter, ObjectMapper objectMapper) {
+        this.pointCluster = pointCluster;
+        this.pointAdmissionLimiter = pointAdmissionLimiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !USER_PATH.matcher(request.getRequestURI()).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Matcher matcher = USER_PATH.matcher(request.getRequestURI());
+        if (!matcher.matches()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        long userId = Long.parseLong(matcher.group(1));
+
+        try {
+            if (!pointCluster.isOwner(userId)) {
+                if (request.getHeader(PointClusterClient.FORWARDED_HEADER) != null) {
+                    throw new ClusterUnavailableException("user " + userId + " 의 소유 node 가 아닙니다. : " + pointCluster.self());
+                }
+                forward(pointCluster.ownerOf(userId), request, response);
+                return;
+            }
+            if ("GET".equals(request.getMethod()) && pointCluster.isReadable(userId)) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            if ("PATCH".equals(request.getMethod()) && ADMITTED_PATHS.contains(matcher.group(2))) {
+                pointAdmissionLimiter.admit(userId, () -> executeLocally(userId, request, response, filterChain));
+            } else {
+                executeLocally(userId, request, response, filterChain);
+            }
+        } catch (ClusterUnavailableException e) {
+            if (!response.isCommitted()) {
+                writeError(response, 503, e.getMessage());
+            }
+        } catch (AdmissionRejectedException e) {
+            if (!response.isCommitted()) {
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                writeError(response, 429, e.getMessage());
+            }
+        }
+    }
+
+    private Void executeLocally(long userId, HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) {
+        return pointCluster.executeLocally(userId, () -> {
+            try {
+                filterChain.doFilter(request, response);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (ServletException e) {
+                throw new IllegalStateException(e);
+            }
+            return null;
+        });
+    }
+
+    private void forward(String owner, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Map<String, String> headers = new HashMap<>();
+        for (String name : Collections.list(request.getHeaderNames())) {
+            if (!EXCLUDED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.put(name, request.getHeader(name));
+            }
+        }
+        String pathAndQuery = request.getRequestURI() + (request.getQueryString() == null ? "" : "?" + request.getQueryString());
+        byte[] body = request.getInputStream().readAllBytes();
+
+        HttpResponse<byte[]> forwarded = pointCluster.client().forward(owner, request.getMethod(), pathAndQuery, headers, body);
+
+        response.setStatus(forwarded.statusCode());
+        for (Map.Entry<String, List<String>> header : forwarded.headers().map().entrySet()) {
+            if (EXCLUDED_HEADERS.contains(header.getKey().toLowerCase(Locale.ROOT)) || header.getKey().startsWith(":")) {
+                continue;
+            }
+            for (String value : header.getValue()) {
+                response.addHeader(header.getKey(), value);
+            }
+        }
+        response.getOutputStream().write(forwarded.body());
+    }
+
+    private void writeError(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getOutputStream().write(objectMapper.writeValueAsBytes(new ErrorResponse(String.valueOf(status), message)));
+    }
+}
@@ -0,0 +1,46 @@
+package io.hhplus.tdd.point.cluster;
+
+import io.hhplus.tdd.point.model.PointHistory;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 다른 node 로 넘기는 user 한 명의 point 와 전체 history
+ * - status : HELD (data 포함) / NOT_HELD (이 node 에 data 없음) / STALE (요청한 node 의 구성 정보가 오래됨)
+ *   / BUSY (이 node 가 아직 넘겨받는 중이어서 넘겨줄 수 없음)
+ * - compensations : histories 중 보정 history 의 id 와 취소한 바로 앞 history 수
+ */
+public record UserHandoff(
+        long userId,
+        String status,
+        long point,
+        List<PointHistory> histories,
+        Map<Long, Integer> compensations
+) {
+
+    public static final String HELD = "HELD";
+    public static final String NOT_HELD = "NOT_HELD";
+    public static final String STALE = "STALE";
+    public static final String BUSY = "BUSY";
+
+    public UserHandoff {
+        compensations = compensations == null ? Map.of() : compensations;
+    }
+
+    public static UserHandoff held(long userId, long point, List<PointHistory> histories, Map<Long, Integer> compensations) {
+        return new UserHandoff(userId, HELD, point, histories, compensations);
+    }
+
+    public static UserHandoff notHeld(long userId) {
+        return new UserHandoff(userId, NOT_HELD, 0, List.of(), Map.of());
+    }
+
+    public static UserHandoff stale(long userId) {
+        return new UserHandoff(userId, STALE, 0, List.of(), Map.of());
+    }
+
+    public static UserHandoff busy(long userId) {
+        return new UserHandoff(userId, BUSY, 0, List.of(), Map.of());
+    }
+}
@@ -0,0 +1,93 @@
+package io.hhplus.tdd.point.controller;
+
+import io.hhplus.tdd.point.cluster.PointCluster;
+import io.hhplus.tdd.point.cluster.UserHandoff;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * cluster 구성 관리 및 node 사이의 user 이동 (point.cluster.enabled=true)
+ */
+@RestController
+@RequestMapping("/cluster")
+@ConditionalOnProperty(name = "point.cluster.enabled", havingValue = "true")
+public class ClusterController {
+
+    private final PointCluster pointCluster;
+
+    public ClusterController(PointCluster pointCluster) {
+        this.pointCluster = pointCluster;
+    }
+
+    /**
+     * epoch 순서의 구성별 node 목록 조회
+     */
+    @GetMapping("memberships")
+    public List<List<String>> memberships() {
+        return pointCluster.memberships();
+    }
+
+    /**
+     * 새 구성 적용 (지금까지의 구성 뒤에 새 구성을 이어 붙인 전체 목록), 적용된 epoch 반환
+     * 모든 node 에 같은 목록을 전달해야 한다
+     */
+    @PutMapping("memberships")
+    public int install(
+            @RequestBody List<List<String>> memberships
+    ) {
+        return pointCluster.install(memberships);
+    }
+
+    /**
+     * 현재 구성에서 user 를 소유한 node
+     */
+    @GetMapping("users/{id}/owner")
+    public String owner(
+            @PathVariable long id
+    ) {
+        return pointCluster.ownerOf(id);
+    }
+
+    /**
+     * 다른 node 가 user 의 point / history 를 가져갈 때 호출 (node 사이에서만 사용)
+     */
+    @PostMapping("users/{id}/release")
+    public UserHandoff release(
+            @PathVariable long id,
+            @RequestParam int epoch,
+            @RequestParam String from
+    ) {
+        return pointCluster.release(id, epoch, from);
+    }
+
+    /**
+     * 소유 node 가 넘겨받은 data 를 저장한 뒤 호출하면 user 를 내려놓음 (node 사이에서만 사용)
+     */
+    @PostMapping("users/{id}/confirm")
+    public boolean confirm(
+            @PathVariable long id,
+            @RequestParam int epoch
+    ) {
+        return pointCluster.confirm(id, epoch);
+    }
+
+    /**
+     * 소유 node 가 user 의 data 를 이전 소유 node 에서 가져오도록 요청
+     */
+    @PostMapping("users/{id}/resolve")
+    public void resolve(
+            @PathVariable long id
+    ) {
+        pointCluster.executeLocally(id, () -> null);
+    }
+
+    /**
+     * 이 node 의 user 중 소유 node 가 바뀐 user 를 모두 옮기고 옮긴 user 수 반환 (node 제거 전 호출)
+     */
+    @PostMapping("drain")
+    public int drain() {
+        return pointCluster.drain();
+    }
+}
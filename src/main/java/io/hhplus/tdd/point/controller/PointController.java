@@ -1,10 +1,22 @@
 package io.hhplus.tdd.point.controller;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.hhplus.tdd.ErrorResponse;
 import io.hhplus.tdd.database.PointHistoryTable;
 import io.hhplus.tdd.database.UserPointTable;
 import io.hhplus.tdd.point.HandlePointException;
+import io.hhplus.tdd.point.admission.PointAdmissionLimiter;
+import io.hhplus.tdd.point.cluster.PointCluster;
+import io.hhplus.tdd.point.cluster.PointClusterClient;
+import io.hhplus.tdd.point.lookup.PointLookup;
 import io.hhplus.tdd.point.model.PointHistory;
+import io.hhplus.tdd.point.model.PointHistoryPage;
+import io.hhplus.tdd.point.model.PointHistoryQuery;
+import io.hhplus.tdd.point.model.PointLookupResult;
+import io.hhplus.tdd.point.model.PointOperationResult;
+import io.hhplus.tdd.point.model.PointResult;
+import io.hhplus.tdd.point.model.PointSummary;
 import io.hhplus.tdd.point.model.PointValidation;
 import io.hhplus.tdd.point.model.TransactionType;
 import io.hhplus.tdd.point.model.UserPoint;
@@ -12,9 +24,18 @@ import io.hhplus.tdd.point.service.PointService;
 import jakarta.annotation.Resource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/point")
@@ -22,9 +43,37 @@ public class PointController {
 
     private static final Logger log = LoggerFactory.getLogger(PointController.class);
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     @Resource(name = "pointService")
     private PointService pointService;
 
+    @Resource
+    private PointHistoryExporter pointHistoryExporter;
+
+    @Resource
+    private ObjectMapper objectMapper;
+
+    @Resource
+    private PointAdmissionLimiter pointAdmissionLimiter;
+
+    @Resource
+    private PointLookup pointLookup;
+
+    /**
+     * point.cluster.enabled=true 인 경우에만 존재
+     */
+    @Autowired(required = false)
+    private PointCluster pointCluster;
+
+    /**
+     * true : 충전/사용 요청을 user 별 queue 에서 묶어서 처리
+     */
+    @Value("${point.write-behind.enabled:false}")
+    private boolean writeBehindEnabled;
+
     /**
      * TODO - 특정 유저의 포인트를 조회하는 기능을 작성해주세요.
      */
@@ -36,51 +85,160 @@ public class PointController {
         return new UserPoint(id, userPoint.point(), System.currentTimeMillis());
     }
 
+    /**
+     * 여러 유저의 포인트를 한 번에 조회하는 기능 (GET /point?ids=1,2,3)
+     * 동시에 조회하며, 조회한 point 와 제한 시간 안에 조회하지 못한 id 를 함께 반환 ({"points": [...], "unresolvedIds": [...]})
+     * id 가 point.lookup.max-ids 개를 넘으면 400
+     */
+    @GetMapping
+    public PointLookupResult points(
+            @RequestParam List<Long> ids
+    ) {
+        return pointLookup.lookup(ids);
+    }
+
+    /**
+     * 여러 유저의 포인트를 한 번에 조회하는 기능 (id 가 많아 query 로 보내기 어려운 경우)
+     * body : [1, 2, 3, ...]
+     * cluster 인 경우 다른 node 가 소유 node 로 묶어 전달한 요청이면 다시 전달하지 않음
+     */
+    @PostMapping("lookup")
+    public PointLookupResult lookup(
+            @RequestBody List<Long> ids,
+            @RequestHeader(value = PointClusterClient.FORWARDED_HEADER, required = false) String forwarded
+    ) {
+        return pointLookup.lookup(ids, forwarded != null);
+    }
+
     /**
      * TODO - 특정 유저의 포인트 충전/이용 내역을 조회하는 기능을 작성해주세요.
+     * 조회 조건이 없으면 전체 내역을, cursor / limit / from / to / type 중 하나라도 있으면 한 페이지를 반환
+     * 다음 페이지가 있으면 X-Next-Cursor header 로 다음 cursor 를 전달
      */
     @GetMapping("{id}/histories")
-    public List<PointHistory> history(
+    public ResponseEntity<List<PointHistory>> history(
+            @PathVariable long id,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to,
+            @RequestParam(required = false) TransactionType type
+    ) {
+        if (cursor == null && limit == null && from == null && to == null && type == null) {
+            return ResponseEntity.ok(pointService.selectHistoryById(id));
+        }
+
+        PointHistoryPage page = pointService.selectHistoryPage(id, PointHistoryQuery.of(cursor, limit, from, to, type));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.nextCursor()));
+        }
+        return response.body(page.histories());
+    }
+
+    /**
+     * 특정 유저의 전체 포인트 충전/이용 내역을 NDJSON 으로 내려받는 기능
+     * 내역을 조회하는 대로 응답에 바로 출력
+     * (indexed / wal 저장소는 페이지 단위로 읽어 memory 가 일정하고, table 저장소는 user 의 전체 내역 목록을 한 번 만든 뒤 출력)
+     */
+    @GetMapping(value = "{id}/histories/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody exportHistory(
             @PathVariable long id
     ) {
-        return pointService.selectHistoryById(id);
+        return outputStream -> pointHistoryExporter.export(id, outputStream);
+    }
+
+    /**
+     * 특정 유저의 충전/사용 합계, 건수, 마지막 충전/사용 시각을 조회하는 기능
+     * 내역을 읽지 않고 충전/사용 시 갱신한 집계를 반환
+     */
+    @GetMapping("{id}/summary")
+    public PointSummary summary(
+            @PathVariable long id
+    ) {
+        return pointService.selectSummaryById(id);
     }
 
     /**
      * TODO - 특정 유저의 포인트를 충전하는 기능을 작성해주세요.
+     * 충전을 처리한 lock 구간에서 확정된 point 로 응답 (다시 조회하지 않음)
+     * Idempotency-Key header 가 있으면 같은 key 로 재요청 시 다시 충전하지 않고 처음 결과로 응답
+     * user 별 / 전체 동시 처리 한도를 넘으면 기다리지 않고 429 로 응답 (point.admission.enabled=true)
      */
     @PatchMapping("{id}/charge")
     public UserPoint charge(
             @PathVariable long id,
-            @RequestBody long amount
+            @RequestBody long amount,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
     ) {
-        String result = pointService.chargePoint(id, amount, System.currentTimeMillis());
-        if (PointValidation.EXCEED.equals(result)) {
+        PointResult result = pointAdmissionLimiter.admit(id, () -> writeBehindEnabled
+                ? join(pointService.chargePointAsync(id, amount, System.currentTimeMillis(), idempotencyKey))
+                : pointService.chargePoint(id, amount, System.currentTimeMillis(), idempotencyKey));
+        if (PointValidation.EXCEED.equals(result.result())) {
             throw new HandlePointException("최대 포인트를 초과했습니다.");
         }
-        if (PointValidation.INVALID_AMOUNT.equals(result)) {
+        if (PointValidation.INVALID_AMOUNT.equals(result.result())) {
             throw new HandlePointException("충전 포인트를 확인하세요.");
         }
 
-        UserPoint updatedUserPoint = pointService.selectPointById(id);
-        return new UserPoint(id, updatedUserPoint.point(), System.currentTimeMillis());
+        return new UserPoint(id, result.userPoint().point(), System.currentTimeMillis());
     }
 
     /**
      * TODO - 특정 유저의 포인트를 사용하는 기능을 작성해주세요.
+     * 사용을 처리한 lock 구간에서 확정된 point 로 응답 (다시 조회하지 않음)
+     * Idempotency-Key header 가 있으면 같은 key 로 재요청 시 다시 사용하지 않고 처음 결과로 응답
+     * user 별 / 전체 동시 처리 한도를 넘으면 기다리지 않고 429 로 응답 (point.admission.enabled=true)
      */
     @PatchMapping("{id}/use")
     public UserPoint use(
             @PathVariable long id,
-            @RequestBody long amount
+            @RequestBody long amount,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
     ) {
-        String result = pointService.usePoint(id, amount, System.currentTimeMillis());
+        PointResult result = pointAdmissionLimiter.admit(id, () -> writeBehindEnabled
+                ? join(pointService.usePointAsync(id, amount, System.currentTimeMillis(), idempotencyKey))
+                : pointService.usePoint(id, amount, System.currentTimeMillis(), idempotencyKey));
 
-        if (PointValidation.INSUFFICIENT.equals(result)) {
+        if (PointValidation.INSUFFICIENT.equals(result.result())) {
             throw new HandlePointException("잔액이 부족합니다.");
         }
 
-        UserPoint updatedUserPoint = pointService.selectPointById(id);
-        return new UserPoint(id, updatedUserPoint.point(), System.currentTimeMillis());
+        return new UserPoint(id, result.userPoint().point(), System.currentTimeMillis());
+    }
+
+    /**
+     * 여러 유저의 포인트를 일괄 충전/사용하는 기능
+     * body : [{"userId": 1, "amount": 100, "type": "CHARGE"}, ...]
+     * body 는 읽는 대로 처리하며, 요청 순서대로 처리 결과(PointValidation)를 반환
+     * 형식이 잘못된 항목을 만나면 중단하므로 그 이전 항목은 이미 처리되었을 수 있음
+     * cluster 인 경우 다른 node 가 소유한 user 의 요청은 소유 node 에 나누어 전달
+     */
+    @PostMapping("bulk")
+    public List<PointOperationResult> bulk(
+            InputStream body,
+            @RequestHeader(value = PointClusterClient.FORWARDED_HEADER, required = false) String forwarded
+    ) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (pointCluster != null) {
+                return pointCluster.applyAll(new PointOperationReader(parser), forwarded != null, pointService);
+            }
+            return pointService.applyAll(new PointOperationReader(parser));
+        }
+    }
+
+    /**
+     * write-behind 처리 결과를 기다리며, 처리 중 발생한 예외는 CompletionException 이 아닌 원래 예외로 전달
+     * (ApiControllerAdvice 가 예외 종류에 맞는 응답 코드(402 / 422 / 429 등)로 변환하도록)
+     */
+    private static PointResult join(CompletableFuture<PointResult> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
     }
 }
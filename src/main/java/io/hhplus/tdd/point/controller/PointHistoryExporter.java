@@ -0,0 +1,60 @@
+package io.hhplus.tdd.point.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hhplus.tdd.point.model.PointHistoryQuery;
+import io.hhplus.tdd.point.service.PointService;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * user 의 전체 history 를 NDJSON(한 줄에 PointHistory 하나)으로 출력
+ * - 저장소의 forEachByUserId 로 history 를 한 번만 순회하며 바로 출력
+ *   (페이지 조회를 지원하는 저장소는 한 페이지, table 저장소는 table 조회 한 번의 목록 만큼의 memory 만 사용)
+ */
+@Component
+public class PointHistoryExporter {
+
+    private static final int FLUSH_INTERVAL = PointHistoryQuery.MAX_LIMIT;
+
+    private final PointService pointService;
+
+    private final ObjectMapper objectMapper;
+
+    public PointHistoryExporter(PointService pointService, ObjectMapper objectMapper) {
+        this.pointService = pointService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * param : id, outputStream
+     * 출력한 history 수 반환
+     */
+    public long export(long id, OutputStream outputStream) throws IOException {
+        long[] count = new long[1];
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // 값 사이의 기본 구분자(공백) 대신 줄바꿈만 사용
+            generator.setRootValueSeparator(null);
+
+            pointService.forEachHistoryById(id, history -> {
+                try {
+                    generator.writeObject(history);
+                    generator.writeRaw('\n');
+                    if (++count[0] % FLUSH_INTERVAL == 0) {
+                        generator.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.flush();
+            return count[0];
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
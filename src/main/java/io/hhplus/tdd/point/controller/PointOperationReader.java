@@ -0,0 +1,72 @@
+package io.hhplus.tdd.point.controller;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.hhplus.tdd.point.HandlePointException;
+import io.hhplus.tdd.point.model.PointOperation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 요청 body 의 PointOperation 배열을 한 건씩 읽는 Iterable
+ * - body 전체를 memory 에 올리지 않고, 다음 값이 필요할 때 읽는다
+ * - 한 번만 순회할 수 있다
+ */
+public class PointOperationReader implements Iterable<PointOperation> {
+
+    private final JsonParser parser;
+
+    private boolean started;
+
+    public PointOperationReader(JsonParser parser) {
+        this.parser = parser;
+    }
+
+    @Override
+    public Iterator<PointOperation> iterator() {
+        if (started) {
+            throw new IllegalStateException("PointOperationReader can only be iterated once");
+        }
+        started = true;
+        return new Iterator<>() {
+            private JsonToken next = advance(true);
+
+            @Override
+            public boolean hasNext() {
+                return next == JsonToken.START_OBJECT;
+            }
+
+            @Override
+            public PointOperation next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    PointOperation operation = parser.readValueAs(PointOperation.class);
+                    next = advance(false);
+                    return operation;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    private JsonToken advance(boolean first) {
+        try {
+            if (first && parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new HandlePointException("요청 목록을 확인하세요.");
+            }
+            JsonToken token = parser.nextToken();
+            if (token != JsonToken.START_OBJECT && token != JsonToken.END_ARRAY) {
+                throw new HandlePointException("요청 목록을 확인하세요.");
+            }
+            return token;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
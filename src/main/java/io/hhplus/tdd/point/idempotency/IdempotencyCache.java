@@ -0,0 +1,185 @@
+package io.hhplus.tdd.point.idempotency;
+
+import io.hhplus.tdd.point.AdmissionRejectedException;
+import io.hhplus.tdd.point.IdempotencyKeyReusedException;
+import io.hhplus.tdd.point.model.PointResult;
+import io.hhplus.tdd.point.model.TransactionType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key 별 충전/사용 결과 cache
+ * - 처음 요청한 key 만 실제로 처리하고, 같은 key 의 요청은 처리 결과(PointValidation 결과 코드 + point)를 그대로 반환
+ * - 처리 중인 key 로 들어온 요청은 처음 요청의 future 를 함께 기다린다
+ * - 처리 중 예외가 발생한 key 는 cache 에서 제거하여 다시 요청할 수 있다
+ * - ttl 은 처리가 끝난 때부터 계산하며, 처리가 끝난 순서(= 만료 순서) queue 의 앞에서부터 ttl 이 지났거나 maxEntries 를 넘은 key 를 제거하므로
+ *   memory 는 maxEntries 이내로 유지 (queue 의 앞에서만 꺼내므로 제거 비용은 요청당 상수)
+ * - 처리 중인 key 는 queue 에 넣지 않고 수만 세어, ttl / maxEntries 와 관계없이 제거하지 않는다 (제거하면 같은 key 의 재요청이 한 번 더 처리됨)
+ *   처리 중인 key 만으로 maxEntries 를 넘으면 새 key 의 요청은 처리하지 않고 AdmissionRejectedException (429) 으로 거절
+ */
+@Component
+public class IdempotencyCache {
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    // 처리가 끝난 순서대로의 entry (만료/초과 시 앞에서부터 제거)
+    private final Queue<Entry> order = new ConcurrentLinkedQueue<>();
+
+    // order 에 있는 entry 수
+    private final AtomicInteger stored = new AtomicInteger();
+
+    // 처리 중인 entry 수 (order 에 넣지 않음)
+    private final AtomicInteger pending = new AtomicInteger();
+
+    // 한 번에 한 thread 만 order 의 앞에서 꺼낸다 (다른 thread 는 제거를 건너뜀)
+    private final ReentrantLock evicting = new ReentrantLock();
+
+    private final long ttlNanos;
+
+    private final int maxEntries;
+
+    @Autowired
+    public IdempotencyCache(@Value("${point.idempotency.ttl-seconds:600}") long ttlSeconds,
+                            @Value("${point.idempotency.max-entries:100000}") int maxEntries) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxEntries = maxEntries;
+    }
+
+    public IdempotencyCache() {
+        this(600L, 100_000);
+    }
+
+    /**
+     * param : userId, idempotencyKey, type, amount, action
+     * 처음 받은 key 면 action 을 실행하여 결과를 저장하고, 이미 받은 key 면 저장된(또는 처리 중인) 결과 반환
+     * 같은 key 로 type / amount 가 다른 요청을 보내면 IdempotencyKeyReusedException
+     * 처리 중인 key 만으로 maxEntries 가 차 있으면 AdmissionRejectedException
+     */
+    public CompletableFuture<PointResult> execute(long userId, String idempotencyKey, TransactionType type, long amount,
+                                                  Supplier<CompletableFuture<PointResult>> action) {
+        Key key = new Key(userId, idempotencyKey);
+        Entry created = new Entry(key, type, amount);
+        while (true) {
+            Entry existing = entries.putIfAbsent(key, created);
+            if (existing == null) {
+                break;
+            }
+            if (!existing.isExpired(System.nanoTime())) {
+                if (existing.type != type || existing.amount != amount) {
+                    throw new IdempotencyKeyReusedException("이미 다른 요청에 사용한 Idempotency-Key 입니다.");
+                }
+                return existing.result;
+            }
+            if (entries.replace(key, existing, created)) {
+                break;
+            }
+        }
+
+        pending.incrementAndGet();
+        evict();
+        if (pending.get() > maxEntries) {
+            reject(created);
+        }
+
+        try {
+            action.get().whenComplete((result, e) -> complete(created, result, e));
+        } catch (RuntimeException e) {
+            complete(created, null, e);
+        }
+        return created.result;
+    }
+
+    /**
+     * cache 에 보관 중인 key 수
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * entry 당 한 번 호출
+     * 성공한 entry 는 만료 시각을 정한 뒤 order 에 넣고, 예외로 끝난 entry 는 cache 에서 제거
+     */
+    private void complete(Entry entry, PointResult result, Throwable e) {
+        pending.decrementAndGet();
+        if (e != null) {
+            entries.remove(entry.key, entry);
+            entry.result.completeExceptionally(e);
+        } else {
+            // 결과를 본 요청이 만료 시각을 읽으므로 완료 전에 정한다
+            entry.expiresAtNanos = System.nanoTime() + ttlNanos;
+            stored.incrementAndGet();
+            order.add(entry);
+            entry.result.complete(result);
+        }
+    }
+
+    /**
+     * order 의 앞(가장 먼저 처리가 끝난 entry)부터 만료되었거나 maxEntries 를 넘는 동안 제거
+     * (같은 key 로 다시 저장된 entry 는 map 의 값이 다르므로 제거되지 않는다)
+     */
+    private void evict() {
+        if (!evicting.tryLock()) {
+            return;
+        }
+        try {
+            long now = System.nanoTime();
+            Entry head;
+            while ((head = order.peek()) != null && (stored.get() + pending.get() > maxEntries || head.isExpired(now))) {
+                order.poll();
+                stored.decrementAndGet();
+                entries.remove(head.key, head);
+            }
+        } finally {
+            evicting.unlock();
+        }
+    }
+
+    /**
+     * 방금 저장한 entry 를 되돌리고 거절
+     * (그 사이 같은 key 로 들어와 entry 의 결과를 기다리는 요청도 같은 예외로 끝난다)
+     */
+    private void reject(Entry entry) {
+        AdmissionRejectedException e = new AdmissionRejectedException("처리 중인 Idempotency-Key 요청이 너무 많습니다. 잠시 후 다시 시도해 주세요.");
+        complete(entry, null, e);
+        throw e;
+    }
+
+    private record Key(
+            long userId,
+            String idempotencyKey
+    ) {
+    }
+
+    private static final class Entry {
+        private final Key key;
+        private final TransactionType type;
+        private final long amount;
+        private final CompletableFuture<PointResult> result = new CompletableFuture<>();
+        private volatile long expiresAtNanos;
+
+        Entry(Key key, TransactionType type, long amount) {
+            this.key = key;
+            this.type = type;
+            this.amount = amount;
+        }
+
+        /**
+         * 처리 중인 entry 는 만료되지 않는다
+         */
+        boolean isExpired(long now) {
+            return result.isDone() && now - expiresAtNanos >= 0;
+        }
+    }
+}
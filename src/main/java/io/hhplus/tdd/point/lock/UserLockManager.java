@@ -0,0 +1,76 @@
+package io.hhplus.tdd.point.lock;
+
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 사용자(id) 단위 잠금
+ * - 같은 user 의 충전/사용은 공정(fair) lock 으로 순차 처리
+ * - 서로 다른 user 의 요청은 병렬 처리
+ * - lock 을 기다리거나 보유한 스레드가 없어지면 entry 를 제거
+ */
+@Component
+public class UserLockManager {
+
+    private final Map<Long, LockEntry> locks = new ConcurrentHashMap<>();
+
+    private final PointMetrics pointMetrics;
+
+    @Autowired
+    public UserLockManager(PointMetrics pointMetrics) {
+        this.pointMetrics = pointMetrics;
+        pointMetrics.registerInFlightUsers(this::activeUserCount);
+    }
+
+    public UserLockManager() {
+        this(PointMetrics.noop());
+    }
+
+    /**
+     * param : userId, action
+     * userId 의 lock 을 획득한 상태에서 action 을 실행
+     */
+    public <T> T executeWithLock(long userId, Supplier<T> action) {
+        LockEntry entry = acquire(userId);
+        long waitStart = System.nanoTime();
+        entry.lock.lock();
+        pointMetrics.recordLockWait(System.nanoTime() - waitStart);
+        try {
+            return action.get();
+        } finally {
+            entry.lock.unlock();
+            release(userId);
+        }
+    }
+
+    /**
+     * 현재 lock 을 보유하거나 대기 중인 user 수
+     */
+    public int activeUserCount() {
+        return locks.size();
+    }
+
+    private LockEntry acquire(long userId) {
+        return locks.compute(userId, (key, entry) -> {
+            LockEntry target = entry == null ? new LockEntry() : entry;
+            target.holders++;
+            return target;
+        });
+    }
+
+    private void release(long userId) {
+        locks.computeIfPresent(userId, (key, entry) -> --entry.holders == 0 ? null : entry);
+    }
+
+    private static final class LockEntry {
+        private final ReentrantLock lock = new ReentrantLock(true);
+        // compute 안에서만 변경
+        private int holders;
+    }
+}
@@ -0,0 +1,225 @@
+package io.hhplus.tdd.point.lookup;
+
+import io.hhplus.tdd.point.LookupLimitExceededException;
+import io.hhplus.tdd.point.cluster.PointCluster;
+import io.hhplus.tdd.point.cluster.PointClusterClient;
+import io.hhplus.tdd.point.model.PointLookupResult;
+import io.hhplus.tdd.point.model.UserPoint;
+import io.hhplus.tdd.point.service.PointService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 여러 user 의 point 를 한 번에 조회
+ * - 요청마다 parallelism 개의 작업이 id 를 하나씩 가져가 동시에 조회 (table 조회 지연이 id 수만큼 쌓이지 않도록)
+ * - timeoutMillis 가 지나면 기다리지 않고 그때까지 조회한 point 와 조회하지 못한 id 를 반환
+ *   (이미 시작한 조회는 끝까지 실행하되 새 id 는 가져가지 않는다)
+ * - 조회 중 예외가 발생한 id 도 조회하지 못한 id 로 반환
+ * - 한 요청의 id 는 maxIds 개까지 (넘으면 LookupLimitExceededException)
+ * - cluster 인 경우 다른 node 가 소유한 user 는 소유 node 별로 묶어 node 마다 한 번만 조회 요청
+ *   (소유 node 가 제한 시간 안에 응답하지 않으면 그 node 의 id 는 모두 조회하지 못한 id)
+ */
+@Component
+public class PointLookup {
+
+    private static final Logger log = LoggerFactory.getLogger(PointLookup.class);
+
+    private static final String LOOKUP_PATH = "/point/lookup";
+
+    private final PointService pointService;
+
+    private final Executor pointLookupExecutor;
+
+    private final int parallelism;
+
+    private final long timeoutNanos;
+
+    private final int maxIds;
+
+    /**
+     * point.cluster.enabled=true 인 경우에만 존재
+     */
+    @Autowired(required = false)
+    private PointCluster pointCluster;
+
+    @Autowired
+    public PointLookup(@Qualifier("pointService") PointService pointService,
+                       @Qualifier("pointLookupExecutor") Executor pointLookupExecutor,
+                       @Value("${point.lookup.parallelism:16}") int parallelism,
+                       @Value("${point.lookup.timeout-millis:1000}") long timeoutMillis,
+                       @Value("${point.lookup.max-ids:1000}") int maxIds) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("point.lookup.parallelism 은 1 이상이어야 합니다.");
+        }
+        this.pointService = pointService;
+        this.pointLookupExecutor = pointLookupExecutor;
+        this.parallelism = parallelism;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        this.maxIds = maxIds;
+    }
+
+    public PointLookup(PointService pointService, Executor pointLookupExecutor, int parallelism, long timeoutMillis) {
+        this(pointService, pointLookupExecutor, parallelism, timeoutMillis, 1_000);
+    }
+
+    /**
+     * param : ids
+     * ids 의 point 를 제한 시간 안에서 동시에 조회
+     */
+    public PointLookupResult lookup(Collection<Long> ids) {
+        return lookup(ids, false);
+    }
+
+    /**
+     * param : ids, forwarded
+     * forwarded : 다른 node 가 전달한 요청이면 다시 전달하지 않고 모두 이 node 에서 조회
+     */
+    public PointLookupResult lookup(Collection<Long> ids, boolean forwarded) {
+        if (ids.size() > maxIds) {
+            throw new LookupLimitExceededException("한 번에 조회할 수 있는 id 는 " + maxIds + " 개 이하입니다.");
+        }
+        long[] distinct = ids.stream().filter(Objects::nonNull).mapToLong(Long::longValue).distinct().toArray();
+        AtomicReferenceArray<UserPoint> points = new AtomicReferenceArray<>(distinct.length);
+        long deadline = System.nanoTime() + timeoutNanos;
+
+        int[] local = new int[distinct.length];
+        int localCount = 0;
+        Map<String, List<Integer>> remoteIndexes = new LinkedHashMap<>();
+        for (int i = 0; i < distinct.length; i++) {
+            String owner = pointCluster == null || forwarded ? null : pointCluster.ownerOf(distinct[i]);
+            if (owner == null || owner.equals(pointCluster.self())) {
+                local[localCount++] = i;
+            } else {
+                remoteIndexes.computeIfAbsent(owner, key -> new ArrayList<>()).add(i);
+            }
+        }
+        Map<String, CompletableFuture<HttpResponse<byte[]>>> remoteResults = requestRemote(distinct, remoteIndexes);
+
+        int localIds = localCount;
+        AtomicInteger next = new AtomicInteger();
+        int workers = Math.min(parallelism, localIds);
+        CountDownLatch finished = new CountDownLatch(workers);
+        for (int i = 0; i < workers; i++) {
+            try {
+                pointLookupExecutor.execute(() -> {
+                    try {
+                        int position;
+                        while (System.nanoTime() - deadline < 0 && (position = next.getAndIncrement()) < localIds) {
+                            int index = local[position];
+                            points.set(index, selectQuietly(distinct[index]));
+                        }
+                    } finally {
+                        finished.countDown();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                log.warn("point 조회 작업을 시작하지 못했습니다.", e);
+                finished.countDown();
+            }
+        }
+
+        try {
+            finished.await(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        remoteResults.forEach((owner, future) -> readRemote(owner, future, distinct, remoteIndexes.get(owner), points, deadline));
+
+        List<UserPoint> resolved = new ArrayList<>(distinct.length);
+        List<Long> unresolved = new ArrayList<>();
+        for (int i = 0; i < distinct.length; i++) {
+            UserPoint point = points.get(i);
+            if (point != null) {
+                resolved.add(point);
+            } else {
+                unresolved.add(distinct[i]);
+            }
+        }
+        return new PointLookupResult(resolved, unresolved);
+    }
+
+    /**
+     * 소유 node 별로 그 node 가 소유한 id 를 한 번에 조회 요청 (응답은 기다리지 않음)
+     */
+    private Map<String, CompletableFuture<HttpResponse<byte[]>>> requestRemote(long[] distinct, Map<String, List<Integer>> remoteIndexes) {
+        Map<String, CompletableFuture<HttpResponse<byte[]>>> remoteResults = new LinkedHashMap<>();
+        remoteIndexes.forEach((owner, indexes) -> {
+            PointClusterClient client = pointCluster.client();
+            List<Long> ids = indexes.stream().map(index -> distinct[index]).toList();
+            remoteResults.put(owner, client.forwardAsync(owner, "POST", LOOKUP_PATH, Map.of("Content-Type", "application/json"), client.write(ids)));
+        });
+        return remoteResults;
+    }
+
+    /**
+     * 제한 시간까지 소유 node 의 응답을 기다려 조회한 point 를 요청 위치에 저장
+     * (응답하지 않거나 실패하면 그 node 의 id 는 조회하지 못한 id 로 남는다)
+     */
+    private void readRemote(String owner, CompletableFuture<HttpResponse<byte[]>> future, long[] distinct, List<Integer> indexes,
+                            AtomicReferenceArray<UserPoint> points, long deadline) {
+        try {
+            HttpResponse<byte[]> response = future.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            if (response.statusCode() != 200) {
+                log.warn("{} 에서 point 를 조회하지 못했습니다. ({})", owner, response.statusCode());
+                return;
+            }
+            Map<Long, Integer> indexById = new HashMap<>();
+            for (int index : indexes) {
+                indexById.put(distinct[index], index);
+            }
+            for (UserPoint point : pointCluster.client().read(response, PointLookupResult.class).points()) {
+                Integer index = indexById.get(point.id());
+                if (index != null) {
+                    points.set(index, point);
+                }
+            }
+        } catch (TimeoutException e) {
+            future.cancel(true);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | RuntimeException e) {
+            log.warn("{} 에서 point 를 조회하지 못했습니다.", owner, e);
+        }
+    }
+
+    private UserPoint selectQuietly(long id) {
+        try {
+            return select(id);
+        } catch (RuntimeException e) {
+            log.warn("user {} 의 point 를 조회하지 못했습니다.", id, e);
+            return null;
+        }
+    }
+
+    /**
+     * 이 node 에서 조회 (소유 node 가 아니면 ClusterUnavailableException)
+     */
+    private UserPoint select(long id) {
+        if (pointCluster == null || pointCluster.isReadable(id)) {
+            return pointService.selectPointById(id);
+        }
+        return pointCluster.executeLocally(id, () -> pointService.selectPointById(id));
+    }
+}
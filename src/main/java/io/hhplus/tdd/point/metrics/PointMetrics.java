@@ -0,0 +1,160 @@
+package io.hhplus.tdd.point.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * point 기능의 metric
+ * - point.operation : 충전 / 사용 / 조회 / history 조회 처리 시간 (operation, outcome tag), 건수는 timer count 로 확인
+ * - point.lock.wait : user lock 을 획득하기까지 기다린 시간
+ * - point.table.call : UserPointTable / PointHistoryTable 호출 시간 (table, method tag)
+ * - point.users.in_flight : lock 을 보유하거나 기다리는 user 수
+ * - point.admission.limit / point.admission.rejected : 동시 처리 한도와 한도 초과로 거절한 요청 수 (reason tag)
+ * timer 는 tag 조합 별로 한 번만 만들어 재사용
+ */
+@Component
+public class PointMetrics {
+
+    public static final String OPERATION_CHARGE = "charge";
+    public static final String OPERATION_USE = "use";
+    public static final String OPERATION_SELECT = "select";
+    public static final String OPERATION_HISTORY = "history";
+
+    public static final String OUTCOME_SUCCESS = "SUCCESS";
+    public static final String OUTCOME_ERROR = "ERROR";
+
+    private final MeterRegistry registry;
+
+    private final Timer lockWait;
+
+    // operation > outcome > timer
+    private final Map<String, Map<String, Timer>> operationTimers = new ConcurrentHashMap<>();
+
+    // table > method > timer
+    private final Map<String, Map<String, Timer>> tableTimers = new ConcurrentHashMap<>();
+
+    // reason > counter
+    private final Map<String, Counter> rejectionCounters = new ConcurrentHashMap<>();
+
+    // table 호출 시간(nanos)을 받는 listener
+    private final List<LongConsumer> tableCallListeners = new CopyOnWriteArrayList<>();
+
+    public PointMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.lockWait = Timer.builder("point.lock.wait")
+                .description("user lock 획득 대기 시간")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * 아무 곳에도 기록하지 않는 metric (test / benchmark 용)
+     */
+    public static PointMetrics noop() {
+        return new PointMetrics(new CompositeMeterRegistry());
+    }
+
+    /**
+     * param : operation, outcome, startNanos
+     * outcome 은 PointValidation 결과 코드 또는 OUTCOME_ERROR
+     */
+    public void recordOperation(String operation, String outcome, long startNanos) {
+        Timer timer = timerOf(operationTimers, operation, outcome);
+        if (timer == null) {
+            timer = operationTimers.computeIfAbsent(operation, key -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(outcome, key -> Timer.builder("point.operation")
+                            .description("point 기능 처리 시간")
+                            .tag("operation", operation)
+                            .tag("outcome", outcome.toUpperCase(Locale.ROOT))
+                            .publishPercentileHistogram()
+                            .register(registry));
+        }
+        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * param : waitNanos
+     */
+    public void recordLockWait(long waitNanos) {
+        lockWait.record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * param : table, method, startNanos
+     */
+    public void recordTableCall(String table, String method, long startNanos) {
+        long elapsedNanos = System.nanoTime() - startNanos;
+        Timer timer = timerOf(tableTimers, table, method);
+        if (timer == null) {
+            timer = tableTimers.computeIfAbsent(table, key -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(method, key -> Timer.builder("point.table.call")
+                            .description("table 호출 시간")
+                            .tag("table", table)
+                            .tag("method", method)
+                            .publishPercentileHistogram()
+                            .register(registry));
+        }
+        timer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        for (LongConsumer listener : tableCallListeners) {
+            listener.accept(elapsedNanos);
+        }
+    }
+
+    /**
+     * param : listener
+     * table 호출이 끝날 때마다 호출 시간(nanos)을 전달받을 listener 등록
+     */
+    public void addTableCallListener(LongConsumer listener) {
+        tableCallListeners.add(listener);
+    }
+
+    /**
+     * param : limit
+     * 동시 처리 한도 gauge 등록
+     */
+    public void registerAdmissionLimit(Supplier<Number> limit) {
+        Gauge.builder("point.admission.limit", limit)
+                .description("동시 처리 한도")
+                .register(registry);
+    }
+
+    /**
+     * param : reason
+     */
+    public void recordAdmissionRejected(String reason) {
+        rejectionCounters.computeIfAbsent(reason, key -> Counter.builder("point.admission.rejected")
+                        .description("한도 초과로 거절한 요청 수")
+                        .tag("reason", reason)
+                        .register(registry))
+                .increment();
+    }
+
+    /**
+     * param : inFlightUsers
+     * lock 을 보유하거나 기다리는 user 수 gauge 등록
+     */
+    public void registerInFlightUsers(Supplier<Number> inFlightUsers) {
+        Gauge.builder("point.users.in_flight", inFlightUsers)
+                .description("lock 을 보유하거나 기다리는 user 수")
+                .register(registry);
+    }
+
+    // 이미 만들어진 timer 는 lambda / key 생성 없이 조회
+    private static Timer timerOf(Map<String, Map<String, Timer>> timers, String first, String second) {
+        Map<String, Timer> byFirst = timers.get(first);
+        return byFirst == null ? null : byFirst.get(second);
+    }
+}
@@ -0,0 +1,13 @@
+package io.hhplus.tdd.point.model;
+
+import java.util.List;
+
+/**
+ * history 페이지
+ * - nextCursor : 다음 페이지 조회 시 사용할 cursor (null : 마지막 페이지)
+ */
+public record PointHistoryPage(
+        List<PointHistory> histories,
+        Long nextCursor
+) {
+}
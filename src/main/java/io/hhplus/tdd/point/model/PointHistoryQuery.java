@@ -0,0 +1,37 @@
+package io.hhplus.tdd.point.model;
+
+/**
+ * history 페이지 조회 조건
+ * - cursor : 이전 페이지의 nextCursor, 이 id 이후의 history 부터 조회 (null : 처음부터)
+ * - limit : 페이지 크기 (1 ~ MAX_LIMIT)
+ * - from / to : updateMillis 범위, from 이상 to 미만 (null : 제한 없음)
+ * - type : TransactionType (null : 전체)
+ */
+public record PointHistoryQuery(
+        Long cursor,
+        int limit,
+        Long from,
+        Long to,
+        TransactionType type
+) {
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    public PointHistoryQuery {
+        limit = Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    public static PointHistoryQuery of(Long cursor, Integer limit, Long from, Long to, TransactionType type) {
+        return new PointHistoryQuery(cursor, limit == null ? DEFAULT_LIMIT : limit, from, to, type);
+    }
+
+    /**
+     * param : updateMillis, transactionType
+     * cursor 를 제외한 조건(updateMillis 범위, type)을 만족하는지 확인
+     */
+    public boolean matches(long updateMillis, TransactionType transactionType) {
+        return (from == null || updateMillis >= from)
+                && (to == null || updateMillis < to)
+                && (type == null || type == transactionType);
+    }
+}
@@ -0,0 +1,14 @@
+package io.hhplus.tdd.point.model;
+
+import java.util.List;
+
+/**
+ * 여러 user 의 point 조회 결과
+ * - points : 조회한 point (요청 순서, 중복 id 는 한 번만)
+ * - unresolvedIds : 제한 시간 안에 조회하지 못한 id
+ */
+public record PointLookupResult(
+        List<UserPoint> points,
+        List<Long> unresolvedIds
+) {
+}
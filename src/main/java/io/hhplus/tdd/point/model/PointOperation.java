@@ -0,0 +1,11 @@
+package io.hhplus.tdd.point.model;
+
+/**
+ * 일괄 충전/사용 요청 한 건
+ */
+public record PointOperation(
+        long userId,
+        long amount,
+        TransactionType type
+) {
+}
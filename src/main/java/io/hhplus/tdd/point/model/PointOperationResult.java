@@ -0,0 +1,17 @@
+package io.hhplus.tdd.point.model;
+
+/**
+ * 일괄 충전/사용 요청 한 건의 처리 결과
+ * - result : PointValidation 결과 코드
+ */
+public record PointOperationResult(
+        long userId,
+        long amount,
+        TransactionType type,
+        String result
+) {
+
+    public static PointOperationResult of(PointOperation operation, String result) {
+        return new PointOperationResult(operation.userId(), operation.amount(), operation.type(), result);
+    }
+}
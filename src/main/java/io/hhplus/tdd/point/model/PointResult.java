@@ -0,0 +1,24 @@
+package io.hhplus.tdd.point.model;
+
+/**
+ * 충전/사용 처리 결과
+ * - result : PointValidation 결과 코드
+ * - userPoint : 처리한 lock 구간 안에서 확정된 point (실패한 경우 변경되지 않은 현재 point)
+ */
+public record PointResult(
+        String result,
+        UserPoint userPoint
+) {
+
+    public static PointResult success(UserPoint userPoint) {
+        return new PointResult(PointValidation.SUCCESS, userPoint);
+    }
+
+    public static PointResult failure(String result, UserPoint userPoint) {
+        return new PointResult(result, userPoint);
+    }
+
+    public boolean isSuccess() {
+        return PointValidation.SUCCESS.equals(result);
+    }
+}
@@ -0,0 +1,25 @@
+package io.hhplus.tdd.point.model;
+
+import java.util.List;
+
+/**
+ * user 별 충전/사용 집계
+ * - totalCharged / totalUsed : history 마다 변경된 point 의 합 (보정 history 포함)
+ * - lastActivityMillis : 마지막 history 의 updateMillis (history 가 없으면 0)
+ * - hourly / daily : 최근 시간 / 일(UTC) 단위 집계, 사용하지 않으면 빈 목록
+ */
+public record PointSummary(
+        long userId,
+        long totalCharged,
+        long totalUsed,
+        long chargeCount,
+        long useCount,
+        long lastActivityMillis,
+        List<PointSummaryBucket> hourly,
+        List<PointSummaryBucket> daily
+) {
+
+    public static PointSummary empty(long userId) {
+        return new PointSummary(userId, 0, 0, 0, 0, 0, List.of(), List.of());
+    }
+}
@@ -0,0 +1,13 @@
+package io.hhplus.tdd.point.model;
+
+/**
+ * 일정 구간(startMillis 부터 한 시간 / 하루)의 충전/사용 집계
+ */
+public record PointSummaryBucket(
+        long startMillis,
+        long charged,
+        long used,
+        long chargeCount,
+        long useCount
+) {
+}
@@ -6,6 +6,8 @@ public class PointValidation {
     public static final String SUCCESS = "success";
     public static final String INSUFFICIENT = "insufficient";
     public static final String INVALID_AMOUNT = "invalid_amount";
+    // cluster : 소유 node 에 연결할 수 없거나 user 를 넘겨받지 못해 처리하지 않은 일괄 요청
+    public static final String UNAVAILABLE = "unavailable";
 
     /**
      * param : amount
@@ -28,6 +30,14 @@ public class PointValidation {
      * 사용 전 포인트가 현재 보유 포인트를 초과하는지 확인
      */
     public static boolean hasInsufficientPoints(UserPoint userPoint, long amount) {
-        return userPoint.point() < amount;
+        return hasInsufficientPoints(userPoint.point(), amount);
+    }
+
+    /**
+     * param : userPoint, amount
+     * 사용 전 포인트가 현재 보유 포인트를 초과하는지 확인
+     */
+    public static boolean hasInsufficientPoints(long userPoint, long amount) {
+        return userPoint < amount;
     }
 }
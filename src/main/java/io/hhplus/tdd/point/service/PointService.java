@@ -2,9 +2,19 @@ package io.hhplus.tdd.point.service;
 
 import io.hhplus.tdd.database.PointHistoryTable;
 import io.hhplus.tdd.point.model.PointHistory;
+import io.hhplus.tdd.point.model.PointHistoryPage;
+import io.hhplus.tdd.point.model.PointHistoryQuery;
+import io.hhplus.tdd.point.model.PointOperation;
+import io.hhplus.tdd.point.model.PointOperationResult;
+import io.hhplus.tdd.point.model.PointResult;
+import io.hhplus.tdd.point.model.PointSummary;
+import io.hhplus.tdd.point.model.TransactionType;
 import io.hhplus.tdd.point.model.UserPoint;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 
 public interface PointService {
 
@@ -24,17 +34,108 @@ public interface PointService {
      */
     List<PointHistory> selectHistoryById(long id);
 
+    /**
+     * param : id, query
+
+     * cursor 이후의 history 중 조건(updateMillis 범위, type)을 만족하는 history 를 한 페이지 조회
+     */
+    PointHistoryPage selectHistoryPage(long id, PointHistoryQuery query);
+
+    /**
+     * param : id, action
+
+     * 전체 history 를 저장된 순서대로 action 에 전달 (저장소가 지원하는 가장 적은 조회 횟수로 순회)
+     */
+    void forEachHistoryById(long id, Consumer<PointHistory> action);
+
+    /**
+     * param : id
+
+     * 충전/사용 합계, 건수, 마지막 충전/사용 시각 조회
+     * 구간 집계(hourly / daily)는 설정한 경우에만 포함
+     */
+    PointSummary selectSummaryById(long id);
+
     /**
      * param : id, amount
 
      * point 충전
+     * 처리 결과와 함께 같은 lock 구간에서 확정된 point 반환
      */
-    String chargePoint(long id, long amount, long now);
+    PointResult chargePoint(long id, long amount, long now);
 
     /**
      * param : id, amount
 
      * point 사용
+     * 처리 결과와 함께 같은 lock 구간에서 확정된 point 반환
+     */
+    PointResult usePoint(long id, long amount, long now);
+
+    /**
+     * param : id, amount, now, idempotencyKey
+
+     * point 충전, 같은 Idempotency-Key 로 다시 요청하면 충전하지 않고 처음 처리 결과를 반환
+     * 처음 요청을 처리 중이면 끝날 때까지 기다린다 (key 가 null 이면 chargePoint 와 같음)
+     */
+    PointResult chargePoint(long id, long amount, long now, String idempotencyKey);
+
+    /**
+     * param : id, amount, now, idempotencyKey
+
+     * point 사용, 같은 Idempotency-Key 로 다시 요청하면 사용하지 않고 처음 처리 결과를 반환
+     * 처음 요청을 처리 중이면 끝날 때까지 기다린다 (key 가 null 이면 usePoint 와 같음)
+     */
+    PointResult usePoint(long id, long amount, long now, String idempotencyKey);
+
+    /**
+     * param : id, amount
+
+     * point 충전 요청을 user 별 queue 에 넣고, 처리 결과를 future 로 반환
+     */
+    CompletableFuture<PointResult> chargePointAsync(long id, long amount, long now);
+
+    /**
+     * param : id, amount
+
+     * point 사용 요청을 user 별 queue 에 넣고, 처리 결과를 future 로 반환
+     */
+    CompletableFuture<PointResult> usePointAsync(long id, long amount, long now);
+
+    /**
+     * param : id, amount, now, idempotencyKey
+
+     * Idempotency-Key 를 적용한 chargePointAsync (key 가 null 이면 chargePointAsync 와 같음)
+     */
+    CompletableFuture<PointResult> chargePointAsync(long id, long amount, long now, String idempotencyKey);
+
+    /**
+     * param : id, amount, now, idempotencyKey
+
+     * Idempotency-Key 를 적용한 usePointAsync (key 가 null 이면 usePointAsync 와 같음)
+     */
+    CompletableFuture<PointResult> usePointAsync(long id, long amount, long now, String idempotencyKey);
+
+    /**
+     * param : id, amount, transactionType, now
+
+     * 충전/사용 한 건을 요청 thread 밖에서 처리하고, history 저장과 point 저장이 모두 끝나면(한쪽이 실패하면 보정까지 끝난 뒤) 완료되는 future 반환
+     * (queue 에 묶지 않으며, point.write.overlap=true 이면 두 저장을 동시에 실행)
+     */
+    CompletableFuture<PointResult> writePointAsync(long id, long amount, TransactionType transactionType, long now);
+
+    /**
+     * param : operations
+
+     * 여러 user 의 충전/사용 요청을 일괄 처리
+     * 서로 다른 user 의 요청은 병렬로, 같은 user 의 요청은 순서대로 처리하고 요청 순서대로 결과 반환
+     */
+    List<PointOperationResult> applyAll(Iterable<PointOperation> operations);
+
+    /**
+     * param : operations, guard
+     * applyAll 과 같으며, user 의 요청을 처리하기 직전 user lock 안에서 guard 에 userId 를 전달 (cluster 의 소유 node 확인 등)
+     * guard 가 ClusterUnavailableException 을 던지면 그 user 의 요청은 처리하지 않고 UNAVAILABLE
      */
-    String usePoint(long id, long amount, long now);
-}
\ No newline at end of file
+    List<PointOperationResult> applyAll(Iterable<PointOperation> operations, LongConsumer guard);
+}
@@ -0,0 +1,28 @@
+package io.hhplus.tdd.point.service.impl;
+
+import io.hhplus.tdd.point.model.PointResult;
+import io.hhplus.tdd.point.model.TransactionType;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongConsumer;
+
+/**
+ * user 별 queue 에 쌓이는 충전/사용 요청
+ * - result : 요청 별 처리 결과(PointValidation 결과 코드와 처리 후 point)
+ * - guard : 처리 직전 user lock 안에서 호출할 확인 (없으면 null)
+ */
+public record PointCommand(
+        long amount,
+        TransactionType type,
+        LongConsumer guard,
+        CompletableFuture<PointResult> result
+) {
+
+    public static PointCommand of(long amount, TransactionType type) {
+        return of(amount, type, null);
+    }
+
+    public static PointCommand of(long amount, TransactionType type, LongConsumer guard) {
+        return new PointCommand(amount, type, guard, new CompletableFuture<>());
+    }
+}
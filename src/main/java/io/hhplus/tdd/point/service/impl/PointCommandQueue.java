@@ -0,0 +1,137 @@
+package io.hhplus.tdd.point.service.impl;
+
+import io.hhplus.tdd.point.model.PointResult;
+import io.hhplus.tdd.point.model.TransactionType;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * user 별 충전/사용 요청 queue
+ * - user 마다 하나의 worker 만 queue 를 비우며, 쌓인 요청을 batch 단위로 processor 에 전달
+ * - 요청은 들어온 순서대로 전달되고, 비어 있는 queue 는 제거
+ */
+public class PointCommandQueue {
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+
+    private final Map<Long, UserQueue> queues = new ConcurrentHashMap<>();
+
+    private final BiConsumer<Long, List<PointCommand>> processor;
+
+    private final Executor executor;
+
+    private final int maxBatchSize;
+
+    public PointCommandQueue(BiConsumer<Long, List<PointCommand>> processor, Executor executor, int maxBatchSize) {
+        this.processor = processor;
+        this.executor = executor;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * param : userId, amount, type
+     * 요청을 userId 의 queue 에 넣고 처리 결과 future 반환
+     */
+    public CompletableFuture<PointResult> submit(long userId, long amount, TransactionType type) {
+        return submit(userId, amount, type, null);
+    }
+
+    /**
+     * param : userId, amount, type, guard
+     * submit 과 같으며, processor 가 요청을 처리하기 직전에 호출할 guard 를 함께 전달
+     */
+    public CompletableFuture<PointResult> submit(long userId, long amount, TransactionType type, LongConsumer guard) {
+        PointCommand command = PointCommand.of(amount, type, guard);
+
+        while (true) {
+            UserQueue queue = queues.computeIfAbsent(userId, UserQueue::new);
+            boolean startWorker;
+            synchronized (queue) {
+                // worker 가 queue 를 닫고 제거한 직후라면 새 queue 로 다시 시도
+                if (queue.closed) {
+                    continue;
+                }
+                queue.commands.add(command);
+                startWorker = !queue.scheduled;
+                queue.scheduled = true;
+            }
+            if (startWorker) {
+                schedule(queue);
+            }
+            return command.result();
+        }
+    }
+
+    /**
+     * 처리 대기 중인 요청이 있는 user 수
+     */
+    public int pendingUserCount() {
+        return queues.size();
+    }
+
+    private void schedule(UserQueue queue) {
+        try {
+            executor.execute(() -> drain(queue));
+        } catch (RejectedExecutionException e) {
+            List<PointCommand> rejected;
+            synchronized (queue) {
+                rejected = new ArrayList<>(queue.commands);
+                queue.commands.clear();
+                close(queue);
+            }
+            rejected.forEach(command -> command.result().completeExceptionally(e));
+        }
+    }
+
+    private void drain(UserQueue queue) {
+        List<PointCommand> batch = new ArrayList<>();
+        synchronized (queue) {
+            while (batch.size() < maxBatchSize && !queue.commands.isEmpty()) {
+                batch.add(queue.commands.poll());
+            }
+        }
+
+        try {
+            processor.accept(queue.userId, batch);
+        } catch (RuntimeException e) {
+            batch.forEach(command -> command.result().completeExceptionally(e));
+        }
+
+        synchronized (queue) {
+            if (queue.commands.isEmpty()) {
+                close(queue);
+                return;
+            }
+        }
+        // 같은 worker 가 계속 점유하지 않도록 남은 요청은 다시 executor 에 맡긴다
+        schedule(queue);
+    }
+
+    private void close(UserQueue queue) {
+        queue.scheduled = false;
+        queue.closed = true;
+        queues.remove(queue.userId, queue);
+    }
+
+    private static final class UserQueue {
+        private final long userId;
+        // 아래 필드는 모두 queue 의 monitor 안에서만 변경
+        private final Deque<PointCommand> commands = new ArrayDeque<>();
+        private boolean scheduled;
+        private boolean closed;
+
+        private UserQueue(long userId) {
+            this.userId = userId;
+        }
+    }
+}
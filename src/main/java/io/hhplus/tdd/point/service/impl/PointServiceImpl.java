@@ -1,44 +1,158 @@
 package io.hhplus.tdd.point.service.impl;
 
+import io.hhplus.tdd.database.PointHistoryRepository;
 import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.TablePointHistoryRepository;
+import io.hhplus.tdd.database.TableUserPointRepository;
+import io.hhplus.tdd.database.UserPointRepository;
 import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.database.VersionedUserPoint;
+import io.hhplus.tdd.point.ClusterUnavailableException;
+import io.hhplus.tdd.point.HandlePointException;
 import io.hhplus.tdd.point.model.PointHistory;
+import io.hhplus.tdd.point.model.PointHistoryPage;
+import io.hhplus.tdd.point.model.PointHistoryQuery;
+import io.hhplus.tdd.point.model.PointOperation;
+import io.hhplus.tdd.point.model.PointOperationResult;
+import io.hhplus.tdd.point.model.PointResult;
+import io.hhplus.tdd.point.model.PointSummary;
 import io.hhplus.tdd.point.model.PointValidation;
 import io.hhplus.tdd.point.model.TransactionType;
+import io.hhplus.tdd.point.idempotency.IdempotencyCache;
+import io.hhplus.tdd.point.lock.UserLockManager;
+import io.hhplus.tdd.point.metrics.PointMetrics;
 import io.hhplus.tdd.point.model.UserPoint;
 import io.hhplus.tdd.point.service.PointService;
+import io.hhplus.tdd.point.summary.PointSummaryAggregator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 
 
 @Service("pointService")
 public class PointServiceImpl implements PointService {
 
+    public static final String CONCURRENCY_LOCK = "lock";
+    public static final String CONCURRENCY_OPTIMISTIC = "optimistic";
+
+    static final int MAX_OPTIMISTIC_ATTEMPTS = 8;
+    private static final long OPTIMISTIC_BACKOFF_NANOS = 20_000L;
+
+    @Autowired
+    private UserPointRepository userPointRepository;
+
+    @Autowired
+    private PointHistoryRepository pointHistoryRepository;
+
+    @Autowired
+    private UserLockManager userLockManager;
+
+    @Autowired
+    private PointMetrics pointMetrics;
+
+    @Autowired
+    private PointWriter pointWriter;
+
     @Autowired
-    private UserPointTable userPointTable;
+    private PointSummaryAggregator pointSummaryAggregator;
 
     @Autowired
-    private PointHistoryTable pointHistoryTable;
+    private IdempotencyCache idempotencyCache;
 
+    private final PointCommandQueue pointCommandQueue;
+
+    // optimistic : 충돌이 반복되어 user lock 안에서 저장 중인 user (lock 없는 시도는 이 user 를 충돌로 보고 양보)
+    private final Set<Long> prioritizedUsers = ConcurrentHashMap.newKeySet();
+
+    private final Executor pointCommandExecutor;
+
+    private boolean optimistic;
+
+
+    @Autowired
+    public PointServiceImpl(UserPointRepository userPointRepository, PointHistoryRepository pointHistoryRepository, UserLockManager userLockManager,
+                            PointWriter pointWriter, @Qualifier("pointCommandExecutor") Executor pointCommandExecutor, PointMetrics pointMetrics,
+                            PointSummaryAggregator pointSummaryAggregator, IdempotencyCache idempotencyCache) {
+        this.userPointRepository = userPointRepository;
+        this.pointHistoryRepository = pointHistoryRepository;
+        this.userLockManager = userLockManager;
+        this.pointWriter = pointWriter;
+        this.pointMetrics = pointMetrics;
+        this.pointSummaryAggregator = pointSummaryAggregator;
+        this.idempotencyCache = idempotencyCache;
+        this.pointCommandExecutor = pointCommandExecutor;
+        this.pointCommandQueue = new PointCommandQueue(this::applyCommands, pointCommandExecutor, PointCommandQueue.DEFAULT_MAX_BATCH_SIZE);
+    }
 
     /**
      * 테스트 코드 작성을 위한 생성자 주입
      */
     public PointServiceImpl(UserPointTable userPointTable, PointHistoryTable pointHistoryTable) {
-        this.userPointTable = userPointTable;
-        this.pointHistoryTable = pointHistoryTable;
+        this(new TableUserPointRepository(userPointTable), new TablePointHistoryRepository(pointHistoryTable), new UserLockManager(),
+                ForkJoinPool.commonPool(), PointMetrics.noop());
+    }
+
+    /**
+     * history 저장 후 point 저장을 순서대로 실행하는 생성자
+     */
+    public PointServiceImpl(UserPointRepository userPointRepository, PointHistoryRepository pointHistoryRepository, UserLockManager userLockManager,
+                            Executor pointCommandExecutor, PointMetrics pointMetrics) {
+        this(userPointRepository, pointHistoryRepository, userLockManager, pointCommandExecutor, pointMetrics, new PointSummaryAggregator());
+    }
+
+    private PointServiceImpl(UserPointRepository userPointRepository, PointHistoryRepository pointHistoryRepository, UserLockManager userLockManager,
+                             Executor pointCommandExecutor, PointMetrics pointMetrics, PointSummaryAggregator pointSummaryAggregator) {
+        this(userPointRepository, pointHistoryRepository, userLockManager,
+                PointWriter.sequential(userPointRepository, pointHistoryRepository, pointSummaryAggregator),
+                pointCommandExecutor, pointMetrics, pointSummaryAggregator, new IdempotencyCache());
+    }
+
+    /**
+     * lock : 같은 user 의 충전/사용을 user lock 안에서 조회/검증/저장
+     * optimistic : lock 없이 조회/검증 후 version 이 그대로일 때만 저장(compareAndSet), 충돌하면 다시 조회하여 재시도
+     *   history 는 compareAndSet 이후 lock 없이 저장하므로 같은 user 의 history 순서가 point 반영 순서와 다를 수 있다
+     *   (각 history 의 point 는 그 요청을 반영한 직후 point 이지만, 앞 history 와의 차이가 요청 금액과 같다는 보장은 없음
+     *    충전/사용 합계는 반영 시점에 요청 금액으로 집계하는 PointSummaryAggregator 로 조회)
+     */
+    @Value("${point.concurrency.strategy:lock}")
+    public void setConcurrencyStrategy(String concurrencyStrategy) {
+        this.optimistic = CONCURRENCY_OPTIMISTIC.equalsIgnoreCase(concurrencyStrategy);
     }
 
     /**
      * param : id
      * 등록된 user : 현재 point 조회
      * 등록되지 않은 user : default point 0 조회
+     * 확정된 point 를 lock 없이 조회하므로 진행 중인 충전/사용을 기다리지 않음
      */
     @Override
-    public synchronized UserPoint selectPointById(long id) {
-        return userPointTable.selectById(id);
+    public UserPoint selectPointById(long id) {
+        long start = System.nanoTime();
+        String outcome = PointMetrics.OUTCOME_ERROR;
+        try {
+            UserPoint userPoint = userPointRepository.selectById(id);
+            outcome = PointMetrics.OUTCOME_SUCCESS;
+            return userPoint;
+        } finally {
+            pointMetrics.recordOperation(PointMetrics.OPERATION_SELECT, outcome, start);
+        }
     }
 
     /**
@@ -47,57 +161,481 @@ public class PointServiceImpl implements PointService {
      * 등록되지 않은 user : errorException
      */
     @Override
-    public synchronized List<PointHistory> selectHistoryById(long id) {
-        return pointHistoryTable.selectAllByUserId(id);
+    public List<PointHistory> selectHistoryById(long id) {
+        long start = System.nanoTime();
+        String outcome = PointMetrics.OUTCOME_ERROR;
+        try {
+            List<PointHistory> histories = pointHistoryRepository.selectAllByUserId(id);
+            outcome = PointMetrics.OUTCOME_SUCCESS;
+            return histories;
+        } finally {
+            pointMetrics.recordOperation(PointMetrics.OPERATION_HISTORY, outcome, start);
+        }
+    }
+
+    /**
+     * param : id, query
+     * cursor 이후의 history 중 조건(updateMillis 범위, type)을 만족하는 history 를 한 페이지 조회
+     */
+    @Override
+    public PointHistoryPage selectHistoryPage(long id, PointHistoryQuery query) {
+        return pointHistoryRepository.selectPage(id, query);
+    }
+
+    /**
+     * param : id, action
+     * 전체 history 를 저장된 순서대로 action 에 전달 (export 용)
+     */
+    @Override
+    public void forEachHistoryById(long id, Consumer<PointHistory> action) {
+        pointHistoryRepository.forEachByUserId(id, action);
+    }
+
+    /**
+     * param : id
+     * 충전/사용 합계, 건수, 마지막 충전/사용 시각 조회 (history 를 읽지 않고 저장 시 갱신한 집계 사용)
+     */
+    @Override
+    public PointSummary selectSummaryById(long id) {
+        // 시작 시 history 로 집계를 복구하는 저장소는 복구가 끝난 뒤 조회
+        pointHistoryRepository.awaitRecovered();
+        return pointSummaryAggregator.summarize(id);
     }
 
     /**
      * param : id, amount
      * point 충전
+     * 같은 user 의 충전/사용만 순차 처리하고, 다른 user 와는 병렬로 처리
      */
     @Override
-    public synchronized String chargePoint(long id, long amount, long now) {
-        UserPoint userPoint = userPointTable.selectById(id);
+    public PointResult chargePoint(long id, long amount, long now) {
+        long start = System.nanoTime();
+        String outcome = PointMetrics.OUTCOME_ERROR;
+        try {
+            PointResult result = optimistic
+                    ? applyOptimistic(id, amount, TransactionType.CHARGE)
+                    : userLockManager.executeWithLock(id, () -> charge(id, amount));
+            outcome = result.result();
+            return result;
+        } finally {
+            pointMetrics.recordOperation(PointMetrics.OPERATION_CHARGE, outcome, start);
+        }
+    }
 
-        if (PointValidation.isValidAmount(amount)) {
-            return PointValidation.INVALID_AMOUNT;
+    /**
+     * param : id, amount
+     * point 사용
+     * 같은 user 의 충전/사용만 순차 처리하고, 다른 user 와는 병렬로 처리
+     */
+    @Override
+    public PointResult usePoint(long id, long amount, long now) {
+        long start = System.nanoTime();
+        String outcome = PointMetrics.OUTCOME_ERROR;
+        try {
+            PointResult result = optimistic
+                    ? applyOptimistic(id, amount, TransactionType.USE)
+                    : userLockManager.executeWithLock(id, () -> use(id, amount));
+            outcome = result.result();
+            return result;
+        } finally {
+            pointMetrics.recordOperation(PointMetrics.OPERATION_USE, outcome, start);
         }
+    }
 
-        if (PointValidation.isExceedingMaxPoint(userPoint.point(), amount)) {
-            return PointValidation.EXCEED;
+    /**
+     * param : id, amount, now, idempotencyKey
+     * 같은 key 로 이미 처리한(또는 처리 중인) 충전이면 저장된 결과를 반환하고, 처음 받은 key 면 충전
+     * key 가 없으면 chargePoint 와 같다
+     */
+    @Override
+    public PointResult chargePoint(long id, long amount, long now, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return chargePoint(id, amount, now);
         }
-        long newPoint = userPoint.point() + amount;
-        updatePoint(id, newPoint, TransactionType.CHARGE);
+        return join(idempotencyCache.execute(id, idempotencyKey, TransactionType.CHARGE, amount,
+                () -> CompletableFuture.completedFuture(chargePoint(id, amount, now))));
+    }
 
-        return PointValidation.SUCCESS;
+    /**
+     * param : id, amount, now, idempotencyKey
+     * 같은 key 로 이미 처리한(또는 처리 중인) 사용이면 저장된 결과를 반환하고, 처음 받은 key 면 사용
+     * key 가 없으면 usePoint 와 같다
+     */
+    @Override
+    public PointResult usePoint(long id, long amount, long now, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return usePoint(id, amount, now);
+        }
+        return join(idempotencyCache.execute(id, idempotencyKey, TransactionType.USE, amount,
+                () -> CompletableFuture.completedFuture(usePoint(id, amount, now))));
     }
 
     /**
      * param : id, amount
-     * point 사용
+     * point 충전 요청을 user 별 queue 에 넣고, 처리 결과를 future 로 반환
+     * 같은 user 의 요청이 몰리면 한 번의 point 저장으로 묶어서 처리
+     */
+    @Override
+    public CompletableFuture<PointResult> chargePointAsync(long id, long amount, long now) {
+        return enqueue(id, amount, TransactionType.CHARGE);
+    }
+
+    /**
+     * param : id, amount
+     * point 사용 요청을 user 별 queue 에 넣고, 처리 결과를 future 로 반환
+     * 같은 user 의 요청이 몰리면 한 번의 point 저장으로 묶어서 처리
+     */
+    @Override
+    public CompletableFuture<PointResult> usePointAsync(long id, long amount, long now) {
+        return enqueue(id, amount, TransactionType.USE);
+    }
+
+    /**
+     * param : id, amount, now, idempotencyKey
+     * chargePointAsync 와 같으며, 같은 key 의 요청은 처음 요청의 future 를 함께 기다린다
+     */
+    @Override
+    public CompletableFuture<PointResult> chargePointAsync(long id, long amount, long now, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return chargePointAsync(id, amount, now);
+        }
+        return idempotencyCache.execute(id, idempotencyKey, TransactionType.CHARGE, amount, () -> chargePointAsync(id, amount, now));
+    }
+
+    /**
+     * param : id, amount, now, idempotencyKey
+     * usePointAsync 와 같으며, 같은 key 의 요청은 처음 요청의 future 를 함께 기다린다
+     */
+    @Override
+    public CompletableFuture<PointResult> usePointAsync(long id, long amount, long now, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return usePointAsync(id, amount, now);
+        }
+        return idempotencyCache.execute(id, idempotencyKey, TransactionType.USE, amount, () -> usePointAsync(id, amount, now));
+    }
+
+    /**
+     * param : id, amount, transactionType, now
+     * chargePoint / usePoint 를 point worker(pointCommandExecutor)에서 실행 (user lock 은 worker 가 보유)
+     * 저장은 PointWriter.write 와 같으므로 future 는 history 와 point 가 모두 저장되거나 보정이 끝난 뒤 완료
+     */
+    @Override
+    public CompletableFuture<PointResult> writePointAsync(long id, long amount, TransactionType transactionType, long now) {
+        return CompletableFuture.supplyAsync(() -> transactionType == TransactionType.CHARGE
+                ? chargePoint(id, amount, now)
+                : usePoint(id, amount, now), pointCommandExecutor);
+    }
+
+    /**
+     * param : operations
+     * 요청을 읽는 대로 user 별 queue 에 넣어, 서로 다른 user 는 병렬로 같은 user 는 순서대로 처리
+     * type 이 없는 요청은 INVALID_AMOUNT
+     * queue 처리 중 예외(HandlePointException 등)가 발생하면 CompletionException 이 아닌 원래 예외 전달
+     */
+    @Override
+    public List<PointOperationResult> applyAll(Iterable<PointOperation> operations) {
+        return applyAll(operations, null);
+    }
+
+    /**
+     * param : operations, guard
+     * applyAll 과 같으며, queue 에서 user 의 요청을 처리하기 직전 user lock 안에서 guard 호출
+     * guard 가 ClusterUnavailableException 을 던진 user 의 요청은 처리하지 않고 UNAVAILABLE
      */
     @Override
-    public synchronized String usePoint(long id, long amount, long now) {
+    public List<PointOperationResult> applyAll(Iterable<PointOperation> operations, LongConsumer guard) {
+        List<PointOperation> submitted = new ArrayList<>();
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (PointOperation operation : operations) {
+            submitted.add(operation);
+            results.add(operation.type() == null
+                    ? CompletableFuture.completedFuture(PointValidation.INVALID_AMOUNT)
+                    : enqueue(operation.userId(), operation.amount(), operation.type(), guard).thenApply(PointResult::result));
+        }
+
+        List<PointOperationResult> operationResults = new ArrayList<>(submitted.size());
+        for (int i = 0; i < submitted.size(); i++) {
+            operationResults.add(PointOperationResult.of(submitted.get(i), join(results.get(i))));
+        }
+        return operationResults;
+    }
+
+    private CompletableFuture<PointResult> enqueue(long id, long amount, TransactionType transactionType) {
+        return enqueue(id, amount, transactionType, null);
+    }
+
+    private CompletableFuture<PointResult> enqueue(long id, long amount, TransactionType transactionType, LongConsumer guard) {
+        long start = System.nanoTime();
+        String operation = transactionType == TransactionType.CHARGE ? PointMetrics.OPERATION_CHARGE : PointMetrics.OPERATION_USE;
+        CompletableFuture<PointResult> result = pointCommandQueue.submit(id, amount, transactionType, guard);
+        result.whenComplete((pointResult, e) -> pointMetrics.recordOperation(operation, e == null ? pointResult.result() : PointMetrics.OUTCOME_ERROR, start));
+        return result;
+    }
+
+    private PointResult charge(long id, long amount) {
+        UserPoint userPoint = userPointRepository.selectById(id);
+
         if (PointValidation.isValidAmount(amount)) {
-            return PointValidation.INVALID_AMOUNT;
+            return PointResult.failure(PointValidation.INVALID_AMOUNT, userPoint);
         }
 
-        UserPoint userPoint = userPointTable.selectById(id);
+        if (PointValidation.isExceedingMaxPoint(userPoint.point(), amount)) {
+            return PointResult.failure(PointValidation.EXCEED, userPoint);
+        }
+
+        return PointResult.success(updatePoint(id, userPoint.point(), userPoint.point() + amount, TransactionType.CHARGE));
+    }
+
+    private PointResult use(long id, long amount) {
+        UserPoint userPoint = userPointRepository.selectById(id);
+
+        if (PointValidation.isValidAmount(amount)) {
+            return PointResult.failure(PointValidation.INVALID_AMOUNT, userPoint);
+        }
 
         if (PointValidation.hasInsufficientPoints(userPoint, amount)) {
-            return PointValidation.INSUFFICIENT;
+            return PointResult.failure(PointValidation.INSUFFICIENT, userPoint);
         }
 
-        updatePoint(id, userPoint.point() - amount, TransactionType.USE);
-        return PointValidation.SUCCESS;
+        return PointResult.success(updatePoint(id, userPoint.point(), userPoint.point() - amount, TransactionType.USE));
+    }
+
+    /**
+     * param : id, amount, transactionType
+     * lock 없이 조회/검증/compareAndSet 을 시도하고, 다른 요청과 충돌하면 잠시 기다린 뒤 다시 시도
+     * MAX_OPTIMISTIC_ATTEMPTS 번 모두 충돌하면 같은 user 의 요청끼리 user lock 으로 순서를 정해 backoff 하며 계속 시도
+     * lock 안에서 시도하는 동안 같은 user 의 lock 없는 시도는 compareAndSet 을 하지 않고 양보하므로,
+     * lock 을 가진 요청은 이미 저장 중이던 요청만 끝나면 저장할 수 있다
+     */
+    private PointResult applyOptimistic(long id, long amount, TransactionType transactionType) {
+        for (int attempt = 1; attempt <= MAX_OPTIMISTIC_ATTEMPTS; attempt++) {
+            Optional<PointResult> result = prioritizedUsers.contains(id) ? Optional.empty() : tryApply(id, amount, transactionType);
+            if (result.isPresent()) {
+                return result.get();
+            }
+            backoff(attempt);
+        }
+
+        return userLockManager.executeWithLock(id, () -> {
+            prioritizedUsers.add(id);
+            try {
+                Optional<PointResult> result = tryApply(id, amount, transactionType);
+                for (int attempt = 1; result.isEmpty(); attempt++) {
+                    backoff(attempt);
+                    result = tryApply(id, amount, transactionType);
+                }
+                return result.get();
+            } finally {
+                prioritizedUsers.remove(id);
+            }
+        });
+    }
+
+    /**
+     * param : id, amount, transactionType
+     * 확정된 point 로 검증 후 compareAndSet, 충돌한 경우 empty
+     * point 를 저장한 뒤 history 를 남기며, history 저장에 실패하면 저장한 만큼 point 를 되돌림
+     */
+    private Optional<PointResult> tryApply(long id, long amount, TransactionType transactionType) {
+        VersionedUserPoint current = userPointRepository.selectVersionedById(id);
+        String outcome = validate(current.point(), amount, transactionType);
+        if (!PointValidation.SUCCESS.equals(outcome)) {
+            return Optional.of(PointResult.failure(outcome, current.userPoint()));
+        }
+
+        long newPoint = applyAmount(current.point(), amount, transactionType);
+        Optional<UserPoint> saved = userPointRepository.compareAndSet(id, current.version(), newPoint);
+        if (saved.isEmpty()) {
+            return Optional.empty();
+        }
+
+        insertHistoriesOrRevert(id, current.point(), List.of(new PointWriter.Change(transactionType, newPoint)));
+        return Optional.of(PointResult.success(saved.get()));
     }
 
     /**
-     * param : id, newPointAmount
+     * compareAndSet 으로 point 를 저장한 뒤 history 를 저장하고, history 저장에 실패하면 저장한 만큼 point 를 되돌림
+     */
+    private void insertHistoriesOrRevert(long id, long previousPoint, List<PointWriter.Change> changes) {
+        try {
+            pointWriter.insertHistories(id, previousPoint, changes);
+        } catch (RuntimeException e) {
+            revertOptimistic(id, changes.get(changes.size() - 1).point() - previousPoint, e);
+            throw e;
+        }
+    }
+
+    /**
+     * param : id, delta, cause
+     * 그 사이 다른 요청이 저장했을 수 있으므로 이전 값이 아닌 delta 만큼 반대로 반영 (충돌하면 backoff 후 다시 시도)
+     * 그 사이 다른 요청이 사용/충전하여 되돌린 point 가 0 ~ MAX_POINT 를 벗어나면 되돌리지 않고,
+     * 반영된 채로 남은 변경을 history 에 다시 남긴 뒤 HandlePointException
+     */
+    private void revertOptimistic(long id, long delta, RuntimeException cause) {
+        for (int attempt = 1; ; attempt++) {
+            VersionedUserPoint current = userPointRepository.selectVersionedById(id);
+            long reverted = current.point() - delta;
+            if (reverted < 0 || reverted > PointValidation.MAX_POINT) {
+                pointWriter.appendUnreverted(id, reverted, current.point());
+                HandlePointException error = new HandlePointException(
+                        "user " + id + " 의 point 를 되돌리지 못했습니다. 현재 point : " + current.point() + ", 되돌릴 point : " + delta);
+                error.addSuppressed(cause);
+                throw error;
+            }
+            if (userPointRepository.compareAndSet(id, current.version(), reverted).isPresent()) {
+                return;
+            }
+            backoff(attempt);
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static void backoff(int attempt) {
+        long bound = OPTIMISTIC_BACKOFF_NANOS << Math.min(attempt, 6);
+        LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(bound / 2, bound));
+    }
+
+    private static long applyAmount(long point, long amount, TransactionType transactionType) {
+        return transactionType == TransactionType.CHARGE ? point + amount : point - amount;
+    }
+
+    /**
+     * param : id, previousPoint, newPoint
      * 포인트를 충전(chargePoint) / 사용(usePoint) 한 경우 history를 남기고, 최종 Point로 setting
+     * 한쪽 저장만 실패한 경우의 보정은 PointWriter 참고
+     */
+    private UserPoint updatePoint(long id, long previousPoint, long newPoint, TransactionType transactionType) {
+        return pointWriter.write(id, previousPoint, newPoint, transactionType);
+    }
+
+    /**
+     * param : id, commands
+     * queue 에 쌓인 요청을 순서대로 검증/반영하고, 최종 Point 는 한 번만 저장
+     * 요청 별 결과(요청을 반영한 직후의 point)는 저장이 끝난 뒤 각 future 로 전달
+     * lock : updatePoint 와 같이 PointWriter 로 저장 (재시도, 한쪽만 실패한 경우의 보정 포함)
+     * optimistic : lock 밖의 요청과 충돌할 수 있으므로 compareAndSet 으로 저장하고, 충돌하면 다시 검증
+     *   (history 저장에 실패하면 단건 요청과 같이 저장한 만큼 point 를 되돌림)
+     * guard 가 있는 요청은 같은 lock 구간에서 guard 를 먼저 확인하고, 거절된 요청은 반영하지 않고 UNAVAILABLE
+     */
+    private void applyCommands(long id, List<PointCommand> batch) {
+        List<PointCommand> commands = new ArrayList<>(batch.size());
+        List<PointCommand> unavailable = new ArrayList<>();
+        PointResult[] results = userLockManager.executeWithLock(id, () -> {
+            checkGuards(id, batch, commands, unavailable);
+            if (commands.isEmpty()) {
+                return new PointResult[0];
+            }
+            String[] outcomes = new String[commands.size()];
+            long[] points = new long[commands.size()];
+            UserPoint userPoint;
+            while (true) {
+                VersionedUserPoint current = userPointRepository.selectVersionedById(id);
+                userPoint = current.userPoint();
+                if (!validateAll(current.point(), commands, outcomes, points)) {
+                    break;
+                }
+                List<PointWriter.Change> changes = changesOf(commands, outcomes, points);
+                if (!optimistic) {
+                    userPoint = pointWriter.writeAll(id, current.point(), changes);
+                    break;
+                }
+                Optional<UserPoint> saved = userPointRepository.compareAndSet(id, current.version(), points[commands.size() - 1]);
+                if (saved.isPresent()) {
+                    userPoint = saved.get();
+                    insertHistoriesOrRevert(id, current.point(), changes);
+                    break;
+                }
+            }
+
+            PointResult[] pointResults = new PointResult[commands.size()];
+            for (int i = 0; i < commands.size(); i++) {
+                pointResults[i] = new PointResult(outcomes[i], new UserPoint(id, points[i], userPoint.updateMillis()));
+            }
+            return pointResults;
+        });
+
+        for (PointCommand command : unavailable) {
+            command.result().complete(PointResult.failure(PointValidation.UNAVAILABLE, UserPoint.empty(id)));
+        }
+        for (int i = 0; i < commands.size(); i++) {
+            commands.get(i).result().complete(results[i]);
+        }
+    }
+
+    /**
+     * user lock 안에서 요청의 guard 를 호출하여 통과한 요청은 commands 에, ClusterUnavailableException 으로 거절된 요청은 unavailable 에 담는다
+     * (같은 guard 는 batch 안에서 한 번만 호출)
      */
-    private void updatePoint(long id, long amount, TransactionType transactionType) {
-        pointHistoryTable.insert(id, amount, transactionType, System.currentTimeMillis());
-        userPointTable.insertOrUpdate(id, amount);
+    private static void checkGuards(long id, List<PointCommand> batch, List<PointCommand> commands, List<PointCommand> unavailable) {
+        Map<LongConsumer, Boolean> checked = new IdentityHashMap<>();
+        for (PointCommand command : batch) {
+            if (command.guard() == null || checked.computeIfAbsent(command.guard(), guard -> passes(id, guard))) {
+                commands.add(command);
+            } else {
+                unavailable.add(command);
+            }
+        }
+    }
+
+    private static boolean passes(long id, LongConsumer guard) {
+        try {
+            guard.accept(id);
+            return true;
+        } catch (ClusterUnavailableException e) {
+            return false;
+        }
+    }
+
+    /**
+     * commands 를 순서대로 검증하여 요청 별 결과와 반영 직후 point 를 채우고, 변경된 요청이 있는지 반환
+     */
+    private static boolean validateAll(long point, List<PointCommand> commands, String[] outcomes, long[] points) {
+        boolean changed = false;
+        for (int i = 0; i < commands.size(); i++) {
+            PointCommand command = commands.get(i);
+            outcomes[i] = validate(point, command.amount(), command.type());
+            if (PointValidation.SUCCESS.equals(outcomes[i])) {
+                point = applyAmount(point, command.amount(), command.type());
+                changed = true;
+            }
+            points[i] = point;
+        }
+        return changed;
+    }
+
+    /**
+     * 반영된 요청 별 history 로 저장할 change 목록
+     */
+    private static List<PointWriter.Change> changesOf(List<PointCommand> commands, String[] outcomes, long[] points) {
+        List<PointWriter.Change> changes = new ArrayList<>();
+        for (int i = 0; i < commands.size(); i++) {
+            if (PointValidation.SUCCESS.equals(outcomes[i])) {
+                changes.add(new PointWriter.Change(commands.get(i).type(), points[i]));
+            }
+        }
+        return changes;
+    }
+
+    private static String validate(long point, long amount, TransactionType transactionType) {
+        if (PointValidation.isValidAmount(amount)) {
+            return PointValidation.INVALID_AMOUNT;
+        }
+        if (transactionType == TransactionType.CHARGE && PointValidation.isExceedingMaxPoint(point, amount)) {
+            return PointValidation.EXCEED;
+        }
+        if (transactionType == TransactionType.USE && PointValidation.hasInsufficientPoints(point, amount)) {
+            return PointValidation.INSUFFICIENT;
+        }
+        return PointValidation.SUCCESS;
     }
 }
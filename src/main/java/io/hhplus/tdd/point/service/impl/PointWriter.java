@@ -0,0 +1,293 @@
+package io.hhplus.tdd.point.service.impl;
+
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.database.UserPointRepository;
+import io.hhplus.tdd.point.model.TransactionType;
+import io.hhplus.tdd.point.model.UserPoint;
+import io.hhplus.tdd.point.summary.PointSummaryAggregator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 충전/사용 결과(history, 최종 point) 저장
+ * - point.write.overlap=true : history 저장과 point 저장을 동시에 실행하여 두 지연 중 긴 쪽만큼만 기다린다
+ * - false : history 저장 후 point 저장 (기존 순서)
+ * 한쪽만 실패한 경우 history 의 마지막 point 와 저장된 point 가 달라지지 않도록 아래와 같이 처리
+ * - history 실패 : point 를 이전 값으로 되돌리고 예외 전달
+ *   (writeAll 에서 history 를 일부만 저장한 채 실패한 경우 마지막으로 저장한 history 에서 이전 point 로 되돌리는 history 를 추가)
+ * - point 실패 : 같은 값으로 재시도(덮어쓰기라 여러 번 저장해도 같음), 끝내 실패하면 이전 point 로 되돌리는 history 를 추가하고 예외 전달
+ * 저장된 history 는 저장 직후 PointSummaryAggregator 에 반영하고, 보정 history 를 남기면 보정으로 취소된 history 를 집계에서 제외
+ * (보정 history 자체는 반대 거래로 집계하지 않음)
+ * overlap 에서는 point 가 history 보다 먼저 저장될 수 있으므로, lock 없이 point 를 조회하는 쪽에서는
+ * history 저장이 끝나기 전의 새 point 를 볼 수 있고 history 저장이 실패하면 그 point 는 이전 값으로 되돌아간다
+ * (future 의 완료/실패는 두 저장과 보정이 모두 끝난 뒤이므로 요청 결과는 항상 확정된 값)
+ * 같은 user 에 대한 호출은 호출하는 쪽에서 순차 처리해야 한다
+ */
+@Component
+public class PointWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(PointWriter.class);
+
+    static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_MILLIS = 10L;
+
+    private final UserPointRepository userPointRepository;
+
+    private final PointHistoryRepository pointHistoryRepository;
+
+    private final Executor executor;
+
+    private final boolean overlap;
+
+    private final PointSummaryAggregator pointSummaryAggregator;
+
+    @Autowired
+    public PointWriter(UserPointRepository userPointRepository, PointHistoryRepository pointHistoryRepository,
+                       @Qualifier("pointWriteExecutor") Executor executor, @Value("${point.write.overlap:false}") boolean overlap,
+                       PointSummaryAggregator pointSummaryAggregator) {
+        this.userPointRepository = userPointRepository;
+        this.pointHistoryRepository = pointHistoryRepository;
+        this.executor = executor;
+        this.overlap = overlap;
+        this.pointSummaryAggregator = pointSummaryAggregator;
+    }
+
+    public PointWriter(UserPointRepository userPointRepository, PointHistoryRepository pointHistoryRepository, Executor executor, boolean overlap) {
+        this(userPointRepository, pointHistoryRepository, executor, overlap, new PointSummaryAggregator());
+    }
+
+    /**
+     * history 저장 후 point 저장 (기존 순서)
+     */
+    public static PointWriter sequential(UserPointRepository userPointRepository, PointHistoryRepository pointHistoryRepository,
+                                         PointSummaryAggregator pointSummaryAggregator) {
+        return new PointWriter(userPointRepository, pointHistoryRepository, Runnable::run, false, pointSummaryAggregator);
+    }
+
+    /**
+     * param : id, previousPoint, newPoint, transactionType
+     * history 와 최종 point 를 저장하고 저장된 point 반환, 저장에 실패하면 예외
+     */
+    public UserPoint write(long id, long previousPoint, long newPoint, TransactionType transactionType) {
+        return join(writeAsync(id, previousPoint, newPoint, transactionType));
+    }
+
+    /**
+     * param : id, previousPoint, newPoint, transactionType
+     * 두 저장이 모두 끝나면(또는 보정까지 끝나면) 완료되는 future 반환
+     */
+    public CompletableFuture<UserPoint> writeAsync(long id, long previousPoint, long newPoint, TransactionType transactionType) {
+        return writeAllAsync(id, previousPoint, List.of(new Change(transactionType, newPoint)));
+    }
+
+    /**
+     * param : id, previousPoint, changes
+     * 순서대로 반영한 요청 별 history 를 저장하고 최종 point(마지막 change 의 point)는 한 번만 저장
+     * 저장된 point 반환, 저장에 실패하면 예외
+     */
+    public UserPoint writeAll(long id, long previousPoint, List<Change> changes) {
+        return join(writeAllAsync(id, previousPoint, changes));
+    }
+
+    /**
+     * param : id, previousPoint, changes
+     * writeAll 의 history 저장과 point 저장이 모두 끝나면(또는 보정까지 끝나면) 완료되는 future 반환
+     */
+    public CompletableFuture<UserPoint> writeAllAsync(long id, long previousPoint, List<Change> changes) {
+        if (changes.isEmpty()) {
+            throw new IllegalArgumentException("저장할 change 가 없습니다.");
+        }
+        long newPoint = changes.get(changes.size() - 1).point();
+        // 저장하여 집계에 반영한 history (보정할 때 집계에서 제외)
+        List<Recorded> recorded = new ArrayList<>(changes.size());
+        if (!overlap) {
+            return CompletableFuture.supplyAsync(() -> {
+                insertHistories(id, previousPoint, changes, recorded);
+                return writePoint(id, previousPoint, newPoint, recorded);
+            }, Runnable::run);
+        }
+
+        CompletableFuture<Void> history = CompletableFuture.runAsync(
+                () -> insertHistories(id, previousPoint, changes, recorded), executor);
+        CompletableFuture<UserPoint> point = CompletableFuture.supplyAsync(
+                () -> retry(() -> userPointRepository.insertOrUpdate(id, newPoint)), executor);
+
+        return history.handle((ignored, historyError) -> historyError)
+                .thenCombine(point.handle((saved, pointError) -> pointError == null ? saved : pointError),
+                        (historyError, pointResult) -> resolve(id, previousPoint, newPoint, historyError, pointResult, recorded));
+    }
+
+    private UserPoint resolve(long id, long previousPoint, long newPoint, Throwable historyError, Object pointResult,
+                              List<Recorded> recorded) {
+        if (historyError == null && pointResult instanceof UserPoint saved) {
+            return saved;
+        }
+        if (historyError != null && pointResult instanceof UserPoint) {
+            // history 가 없으므로 point 를 되돌린다
+            revertPoint(id, previousPoint, newPoint);
+            throw asRuntime(historyError);
+        }
+        if (historyError == null) {
+            // point 가 이전 값 그대로이므로 history 의 마지막 point 도 이전 값으로 맞춘다
+            appendCompensation(id, previousPoint, newPoint, recorded);
+        }
+        // 둘 다 실패한 경우 저장된 것이 없으므로 보정할 것도 없다
+        throw asRuntime((Throwable) pointResult);
+    }
+
+    /**
+     * param : id, previousPoint, changes
+     * changes 의 history 만 순서대로 저장 (point 는 호출하는 쪽에서 compareAndSet 등으로 이미 저장한 경우)
+     * 중간에 실패하면 마지막으로 저장한 history 에서 이전 point 로 되돌리는 history 를 추가하고 예외 전달
+     * (저장된 point 를 되돌리는 것은 호출하는 쪽에서 처리)
+     */
+    public void insertHistories(long id, long previousPoint, List<Change> changes) {
+        insertHistories(id, previousPoint, changes, new ArrayList<>(changes.size()));
+    }
+
+    /**
+     * param : id, fromPoint, toPoint
+     * 되돌리지 못하고 반영된 채로 남은 변경(fromPoint → toPoint)을 history 에 남기고 집계에 반영
+     * (이미 같으면 남기지 않음, 재시도 후에도 저장하지 못하면 log 만 남김)
+     */
+    public void appendUnreverted(long id, long fromPoint, long toPoint) {
+        if (fromPoint == toPoint) {
+            return;
+        }
+        TransactionType type = toPoint > fromPoint ? TransactionType.CHARGE : TransactionType.USE;
+        try {
+            retry(() -> {
+                insertHistory(id, fromPoint, toPoint, type);
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.error("반영된 변경의 history 저장 실패 - id : {}, point : {} -> {}", id, fromPoint, toPoint, e);
+        }
+    }
+
+    private void insertHistories(long id, long previousPoint, List<Change> changes, List<Recorded> recorded) {
+        long point = previousPoint;
+        for (Change change : changes) {
+            try {
+                recorded.add(insertHistory(id, point, change.point(), change.type()));
+            } catch (RuntimeException e) {
+                appendCompensation(id, previousPoint, point, recorded);
+                throw e;
+            }
+            point = change.point();
+        }
+    }
+
+    private UserPoint writePoint(long id, long previousPoint, long newPoint, List<Recorded> recorded) {
+        try {
+            return retry(() -> userPointRepository.insertOrUpdate(id, newPoint));
+        } catch (RuntimeException e) {
+            appendCompensation(id, previousPoint, newPoint, recorded);
+            throw e;
+        }
+    }
+
+    private void revertPoint(long id, long previousPoint, long newPoint) {
+        try {
+            retry(() -> userPointRepository.insertOrUpdate(id, previousPoint));
+        } catch (RuntimeException e) {
+            log.error("point 되돌리기 실패 - id : {}, history 없는 point : {}, 이전 point : {}", id, newPoint, previousPoint, e);
+        }
+    }
+
+    /**
+     * history 의 마지막 point(historyPoint)에서 저장된 point(previousPoint)로 되돌리는 history 를 추가하고 (이미 같으면 추가하지 않음)
+     * 되돌린 history(recorded)는 집계에서 제외, 보정 history 는 반대 거래로 집계하지 않는다
+     * (보정 history 에는 되돌린 history 수를 함께 저장하여 재시작 후 복구나 다른 node 로 넘길 때도 같게 제외)
+     */
+    private void appendCompensation(long id, long previousPoint, long historyPoint, List<Recorded> recorded) {
+        if (historyPoint == previousPoint) {
+            return;
+        }
+        TransactionType reverse = historyPoint > previousPoint ? TransactionType.USE : TransactionType.CHARGE;
+        try {
+            retry(() -> pointHistoryRepository.insertCompensation(id, previousPoint, reverse, System.currentTimeMillis(), recorded.size()));
+        } catch (RuntimeException e) {
+            log.error("보정 history 저장 실패 - id : {}, 저장되지 않은 point : {}, 현재 point : {}", id, historyPoint, previousPoint, e);
+            return;
+        }
+        for (Recorded entry : recorded) {
+            pointSummaryAggregator.revert(id, entry.type(), entry.amount(), entry.updateMillis());
+        }
+    }
+
+    /**
+     * param : id, fromPoint, toPoint, transactionType
+     * toPoint 로 변경된 history 를 저장하고 집계에 반영한 값 반환
+     */
+    private Recorded insertHistory(long id, long fromPoint, long toPoint, TransactionType transactionType) {
+        long updateMillis = System.currentTimeMillis();
+        pointHistoryRepository.insert(id, toPoint, transactionType, updateMillis);
+        Recorded recorded = new Recorded(transactionType, Math.abs(toPoint - fromPoint), updateMillis);
+        pointSummaryAggregator.record(id, recorded.type(), recorded.amount(), recorded.updateMillis());
+        return recorded;
+    }
+
+    private static <T> T retry(Supplier<T> action) {
+        RuntimeException last = null;
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                return action.get();
+            } catch (RuntimeException e) {
+                last = e;
+                if (attempt < MAX_ATTEMPTS) {
+                    sleep(RETRY_BACKOFF_MILLIS * attempt);
+                }
+            }
+        }
+        throw last;
+    }
+
+    private static UserPoint join(CompletableFuture<UserPoint> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static RuntimeException asRuntime(Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+        return cause instanceof RuntimeException runtime ? runtime : new CompletionException(cause);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * writeAll 로 저장할 요청 한 건 (point : 요청을 반영한 직후 point)
+     */
+    public record Change(TransactionType type, long point) {
+    }
+
+    /**
+     * 집계에 반영한 history 한 건 (amount : 변경된 point)
+     */
+    private record Recorded(TransactionType type, long amount, long updateMillis) {
+    }
+}
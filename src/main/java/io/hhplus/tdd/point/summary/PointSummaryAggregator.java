@@ -0,0 +1,238 @@
+package io.hhplus.tdd.point.summary;
+
+import io.hhplus.tdd.point.model.PointHistory;
+import io.hhplus.tdd.point.model.PointSummary;
+import io.hhplus.tdd.point.model.PointSummaryBucket;
+import io.hhplus.tdd.point.model.TransactionType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * user 별 충전/사용 집계
+ * - history 를 저장한 직후 같은 쓰기 경로에서 record 를 호출하여 저장된 history 와 같은 값을 유지
+ * - 보정 history 는 반대 거래로 집계하지 않고, 보정으로 취소된 history 를 revert 로 제외
+ *   (재시작 후 복구하거나 다른 node 에서 넘겨받은 보정 history 도 revertLast 로 같은 값을 제외)
+ * - 조회는 user 의 집계 값만 복사하므로 history 수와 무관하게 O(1)
+ * - point.summary.hourly-buckets / daily-buckets : 최근 몇 시간 / 며칠(UTC) 의 구간 집계를 보관할지 (0 이면 보관하지 않음)
+ */
+@Component
+public class PointSummaryAggregator {
+
+    private static final long HOUR_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private final Map<Long, UserSummary> summaries = new ConcurrentHashMap<>();
+
+    private final int hourlyBuckets;
+
+    private final int dailyBuckets;
+
+    @Autowired
+    public PointSummaryAggregator(@Value("${point.summary.hourly-buckets:0}") int hourlyBuckets,
+                                  @Value("${point.summary.daily-buckets:0}") int dailyBuckets) {
+        this.hourlyBuckets = hourlyBuckets;
+        this.dailyBuckets = dailyBuckets;
+    }
+
+    /**
+     * 구간 집계 없이 합계만 보관
+     */
+    public PointSummaryAggregator() {
+        this(0, 0);
+    }
+
+    /**
+     * param : userId, type, amount, updateMillis
+     * 저장된 history 한 건을 집계에 반영 (amount : 해당 history 로 변경된 point)
+     */
+    public void record(long userId, TransactionType type, long amount, long updateMillis) {
+        summaries.computeIfAbsent(userId, id -> new UserSummary(hourlyBuckets, dailyBuckets))
+                .record(type, amount, updateMillis);
+    }
+
+    /**
+     * param : userId, type, amount, updateMillis
+     * 보정 history 로 취소된 history 한 건을 집계에서 제외 (record 에 넘긴 값 그대로 전달)
+     * 마지막 충전/사용 시각은 되돌리지 않는다
+     */
+    public void revert(long userId, TransactionType type, long amount, long updateMillis) {
+        UserSummary summary = summaries.get(userId);
+        if (summary != null) {
+            summary.revert(type, amount, updateMillis);
+        }
+    }
+
+    /**
+     * param : userId, histories, reverted
+     * 저장소에서 다시 읽은 보정 history 가 취소한 history 를 집계에서 제외
+     * histories : 보정 history 바로 앞까지의 user history (저장 순서), 마지막 reverted 건을 처음 저장할 때 record 한 값 그대로 제외
+     */
+    public void revertLast(long userId, List<PointHistory> histories, int reverted) {
+        int from = Math.max(0, histories.size() - reverted);
+        long previous = from == 0 ? 0L : histories.get(from - 1).amount();
+        for (int i = from; i < histories.size(); i++) {
+            PointHistory history = histories.get(i);
+            revert(userId, history.type(), Math.abs(history.amount() - previous), history.updateMillis());
+            previous = history.amount();
+        }
+    }
+
+    /**
+     * param : userId
+     * 현재까지 반영된 집계, history 가 없는 user 는 0
+     */
+    public PointSummary summarize(long userId) {
+        UserSummary summary = summaries.get(userId);
+        if (summary == null) {
+            return PointSummary.empty(userId);
+        }
+        return summary.snapshot(userId);
+    }
+
+    /**
+     * user 한 명의 집계 (같은 user 의 record 는 optimistic 방식에서 동시에 호출될 수 있으므로 monitor 로 순차 처리)
+     */
+    private static final class UserSummary {
+        private long totalCharged;
+        private long totalUsed;
+        private long chargeCount;
+        private long useCount;
+        private long lastActivityMillis;
+        private final Buckets hourly;
+        private final Buckets daily;
+
+        UserSummary(int hourlyBuckets, int dailyBuckets) {
+            this.hourly = hourlyBuckets > 0 ? new Buckets(hourlyBuckets, HOUR_MILLIS) : null;
+            this.daily = dailyBuckets > 0 ? new Buckets(dailyBuckets, DAY_MILLIS) : null;
+        }
+
+        synchronized void record(TransactionType type, long amount, long updateMillis) {
+            if (type == TransactionType.CHARGE) {
+                totalCharged += amount;
+                chargeCount++;
+            } else {
+                totalUsed += amount;
+                useCount++;
+            }
+            lastActivityMillis = Math.max(lastActivityMillis, updateMillis);
+            if (hourly != null) {
+                hourly.record(type, amount, updateMillis);
+            }
+            if (daily != null) {
+                daily.record(type, amount, updateMillis);
+            }
+        }
+
+        synchronized void revert(TransactionType type, long amount, long updateMillis) {
+            if (type == TransactionType.CHARGE) {
+                totalCharged -= amount;
+                chargeCount--;
+            } else {
+                totalUsed -= amount;
+                useCount--;
+            }
+            if (hourly != null) {
+                hourly.revert(type, amount, updateMillis);
+            }
+            if (daily != null) {
+                daily.revert(type, amount, updateMillis);
+            }
+        }
+
+        synchronized PointSummary snapshot(long userId) {
+            return new PointSummary(userId, totalCharged, totalUsed, chargeCount, useCount, lastActivityMillis,
+                    hourly == null ? List.of() : hourly.toList(),
+                    daily == null ? List.of() : daily.toList());
+        }
+    }
+
+    /**
+     * 최근 size 개 구간을 보관하는 원형 배열 (구간 번호 % size 위치에 저장하고, 다른 구간이 들어오면 덮어쓴다)
+     */
+    private static final class Buckets {
+        private final long width;
+        private final long[] periods;
+        private final long[] charged;
+        private final long[] used;
+        private final long[] chargeCounts;
+        private final long[] useCounts;
+        private long latestPeriod = Long.MIN_VALUE;
+
+        Buckets(int size, long width) {
+            this.width = width;
+            this.periods = new long[size];
+            this.charged = new long[size];
+            this.used = new long[size];
+            this.chargeCounts = new long[size];
+            this.useCounts = new long[size];
+            Arrays.fill(periods, Long.MIN_VALUE);
+        }
+
+        void record(TransactionType type, long amount, long updateMillis) {
+            long period = Math.floorDiv(updateMillis, width);
+            if (latestPeriod != Long.MIN_VALUE && period <= latestPeriod - periods.length) {
+                // 보관 범위보다 오래된 구간
+                return;
+            }
+            int slot = (int) Math.floorMod(period, (long) periods.length);
+            if (periods[slot] != period) {
+                periods[slot] = period;
+                charged[slot] = 0;
+                used[slot] = 0;
+                chargeCounts[slot] = 0;
+                useCounts[slot] = 0;
+            }
+            if (type == TransactionType.CHARGE) {
+                charged[slot] += amount;
+                chargeCounts[slot]++;
+            } else {
+                used[slot] += amount;
+                useCounts[slot]++;
+            }
+            latestPeriod = Math.max(latestPeriod, period);
+        }
+
+        /**
+         * 구간이 아직 보관 중일 때만 제외 (이미 밀려난 구간은 조회되지 않으므로 무시)
+         */
+        void revert(TransactionType type, long amount, long updateMillis) {
+            long period = Math.floorDiv(updateMillis, width);
+            int slot = (int) Math.floorMod(period, (long) periods.length);
+            if (periods[slot] != period) {
+                return;
+            }
+            if (type == TransactionType.CHARGE) {
+                charged[slot] -= amount;
+                chargeCounts[slot]--;
+            } else {
+                used[slot] -= amount;
+                useCounts[slot]--;
+            }
+        }
+
+        /**
+         * 보관 범위 안의 구간을 오래된 순서로
+         */
+        List<PointSummaryBucket> toList() {
+            List<PointSummaryBucket> buckets = new ArrayList<>(periods.length);
+            if (latestPeriod == Long.MIN_VALUE) {
+                return buckets;
+            }
+            for (long period = latestPeriod - periods.length + 1; period <= latestPeriod; period++) {
+                int slot = (int) Math.floorMod(period, (long) periods.length);
+                if (periods[slot] == period) {
+                    buckets.add(new PointSummaryBucket(period * width, charged[slot], used[slot], chargeCounts[slot], useCounts[slot]));
+                }
+            }
+            return buckets;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.BalanceSnapshotStore;
+import io.hhplus.tdd.database.MappedPointHistoryLog;
+import io.hhplus.tdd.database.PrimitiveUserPointRepository;
+import io.hhplus.tdd.database.WalPointHistoryRepository;
+import io.hhplus.tdd.point.model.PointSummary;
+import io.hhplus.tdd.point.model.TransactionType;
+import io.hhplus.tdd.point.model.UserPoint;
+import io.hhplus.tdd.point.service.impl.PointWriter;
+import io.hhplus.tdd.point.summary.PointSummaryAggregator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BalanceSnapshotStoreTest {
+
+    private static final int SEGMENT_BYTES = MappedPointHistoryLog.RECORD_BYTES * 10;
+
+    @TempDir
+    Path directory;
+
+    /**
+     * 저장한 snapshot 을 그대로 읽고, 최신 snapshot 이 손상되면 이전 snapshot 을 사용한다.
+     */
+    @Test
+    @DisplayName("snapshot 저장/손상 시 이전 snapshot 사용 test")
+    void testWriteAndFallback() throws Exception {
+        BalanceSnapshotStore snapshotStore = new BalanceSnapshotStore(directory);
+        assertEquals(0L, snapshotStore.loadLatest().watermark());
+
+        snapshotStore.write(10L, Map.of(1L, 100L, 2L, 200L));
+        snapshotStore.write(20L, Map.of(1L, 150L, 2L, 200L, 3L, 300L));
+
+        BalanceSnapshotStore.Snapshot latest = snapshotStore.loadLatest();
+        assertEquals(20L, latest.watermark());
+        assertEquals(Map.of(1L, 150L, 2L, 200L, 3L, 300L), latest.points());
+
+        Path latestFile = snapshotFiles().get(0);
+        try (RandomAccessFile file = new RandomAccessFile(latestFile.toFile(), "rw")) {
+            file.seek(24);
+            file.writeLong(-1L);
+        }
+
+        BalanceSnapshotStore.Snapshot fallback = snapshotStore.loadLatest();
+        assertEquals(10L, fallback.watermark());
+        assertEquals(Map.of(1L, 100L, 2L, 200L), fallback.points());
+
+        snapshotStore.write(30L, Map.of(1L, 1L));
+        snapshotStore.write(40L, Map.of(1L, 2L));
+        assertEquals(2, snapshotFiles().size());
+    }
+
+    /**
+     * snapshot 이후에 추가된 history 만 다시 읽어 최종 point 를 복구하고,
+     * history 조회와 충전/사용 집계는 background 복구가 끝난 뒤 전체 history 를 반영한다.
+     */
+    @Test
+    @DisplayName("snapshot 이후 history 만 반영하여 재시작 test")
+    void testRestartFromSnapshot() {
+        try (WalPointHistoryRepository historyRepository = new WalPointHistoryRepository(new PrimitiveUserPointRepository(), directory, SEGMENT_BYTES)) {
+            for (long i = 1; i <= 25; i++) {
+                historyRepository.insert(i % 5, i * 10, TransactionType.CHARGE, i);
+            }
+            assertEquals(25L, historyRepository.checkpoint());
+            historyRepository.insert(1L, 1_000L, TransactionType.USE, 26L);
+            historyRepository.insert(7L, 70L, TransactionType.CHARGE, 27L);
+        }
+
+        AtomicInteger replayed = new AtomicInteger();
+        new MappedPointHistoryLog(directory, SEGMENT_BYTES, 25L, history -> replayed.incrementAndGet()).close();
+        assertEquals(2, replayed.get());
+
+        PrimitiveUserPointRepository userPointRepository = new PrimitiveUserPointRepository();
+        PointSummaryAggregator pointSummaryAggregator = new PointSummaryAggregator();
+        try (WalPointHistoryRepository historyRepository = new WalPointHistoryRepository(userPointRepository, pointSummaryAggregator,
+                directory, SEGMENT_BYTES)) {
+            assertEquals(1_000L, userPointRepository.selectById(1L).point());
+            assertEquals(250L, userPointRepository.selectById(0L).point());
+            assertEquals(240L, userPointRepository.selectById(4L).point());
+            assertEquals(70L, userPointRepository.selectById(7L).point());
+
+            historyRepository.insert(2L, 500L, TransactionType.USE, 28L);
+            assertEquals(6, historyRepository.selectAllByUserId(1L).size());
+            assertEquals(6, historyRepository.selectAllByUserId(2L).size());
+            assertEquals(500L, historyRepository.selectAllByUserId(2L).get(5).amount());
+
+            // 충전/사용 집계도 snapshot 이전 history 까지 다시 읽어 복구
+            historyRepository.awaitRecovered();
+            PointSummary summary = pointSummaryAggregator.summarize(0L);
+            assertEquals(250L, summary.totalCharged());
+            assertEquals(5L, summary.chargeCount());
+            assertEquals(25L, summary.lastActivityMillis());
+            assertEquals(70L, pointSummaryAggregator.summarize(7L).totalCharged());
+            assertEquals(28L, historyRepository.checkpoint());
+        }
+    }
+
+    /**
+     * point 저장 실패로 보정 history 를 남긴 뒤 재시작해도, 보정 history 는 집계하지 않고 취소된 history 를 제외하여
+     * 재시작 전과 같은 충전/사용 집계를 복구한다. (snapshot 없이 재시작, snapshot 이후 재시작 모두)
+     */
+    @Test
+    @DisplayName("보정 history 이후 재시작 시 집계 유지 test")
+    void testRestartAfterCompensation() {
+        PointSummary beforeRestart;
+        try (WalPointHistoryRepository historyRepository = new WalPointHistoryRepository(new PrimitiveUserPointRepository(), directory, SEGMENT_BYTES)) {
+            PointSummaryAggregator pointSummaryAggregator = new PointSummaryAggregator();
+            PrimitiveUserPointRepository userPointRepository = new PrimitiveUserPointRepository() {
+                @Override
+                public UserPoint insertOrUpdate(long id, long amount) {
+                    if (amount == 250L) {
+                        throw new IllegalStateException("point 저장 실패");
+                    }
+                    return super.insertOrUpdate(id, amount);
+                }
+            };
+            PointWriter pointWriter = PointWriter.sequential(userPointRepository, historyRepository, pointSummaryAggregator);
+
+            pointWriter.write(1L, 0L, 100L, TransactionType.CHARGE);
+            assertThrows(IllegalStateException.class, () -> pointWriter.writeAll(1L, 100L, List.of(
+                    new PointWriter.Change(TransactionType.CHARGE, 300L),
+                    new PointWriter.Change(TransactionType.USE, 250L))));
+            pointWriter.write(1L, 100L, 40L, TransactionType.USE);
+
+            beforeRestart = pointSummaryAggregator.summarize(1L);
+            assertEquals(100L, beforeRestart.totalCharged());
+            assertEquals(60L, beforeRestart.totalUsed());
+            assertEquals(1L, beforeRestart.chargeCount());
+            assertEquals(1L, beforeRestart.useCount());
+            assertEquals(5, historyRepository.selectAllByUserId(1L).size());
+        }
+
+        PointSummaryAggregator replayed = new PointSummaryAggregator();
+        try (WalPointHistoryRepository historyRepository = new WalPointHistoryRepository(new PrimitiveUserPointRepository(), replayed,
+                directory, SEGMENT_BYTES)) {
+            historyRepository.awaitRecovered();
+            assertEquals(beforeRestart, replayed.summarize(1L));
+            assertEquals(Map.of(historyRepository.selectAllByUserId(1L).get(3).id(), 2), historyRepository.selectCompensations(1L));
+            historyRepository.checkpoint();
+        }
+
+        PointSummaryAggregator fromSnapshot = new PointSummaryAggregator();
+        PrimitiveUserPointRepository userPointRepository = new PrimitiveUserPointRepository();
+        try (WalPointHistoryRepository historyRepository = new WalPointHistoryRepository(userPointRepository, fromSnapshot,
+                directory, SEGMENT_BYTES)) {
+            historyRepository.awaitRecovered();
+            assertEquals(40L, userPointRepository.selectById(1L).point());
+            assertEquals(beforeRestart, fromSnapshot.summarize(1L));
+        }
+    }
+
+    private List<Path> snapshotFiles() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".snap"))
+                    .sorted((a, b) -> b.compareTo(a))
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.point.model.PointHistory;
+import io.hhplus.tdd.point.model.TransactionType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 실행 시간 비교를 위해 random throttle 대신 고정 지연을 사용하는 PointHistoryTable
+ * (동시에 실행된 insert 의 최대 수를 기록)
+ */
+class FixedLatencyPointHistoryTable extends PointHistoryTable {
+
+    private final Map<Long, List<PointHistory>> table = new ConcurrentHashMap<>();
+
+    private final AtomicLong cursor = new AtomicLong(1);
+
+    private final long latencyMillis;
+
+    private final AtomicInteger writing = new AtomicInteger();
+
+    private final AtomicInteger peakWriting = new AtomicInteger();
+
+    FixedLatencyPointHistoryTable(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        peakWriting.accumulateAndGet(writing.incrementAndGet(), Math::max);
+        try {
+            FixedLatencyUserPointTable.sleep(latencyMillis);
+            PointHistory pointHistory = new PointHistory(cursor.getAndIncrement(), userId, amount, type, updateMillis);
+            table.computeIfAbsent(userId, key -> new CopyOnWriteArrayList<>()).add(pointHistory);
+            return pointHistory;
+        } finally {
+            writing.decrementAndGet();
+        }
+    }
+
+    /**
+     * 동시에 실행된 insert 의 최대 수
+     */
+    int peakConcurrentWrites() {
+        return peakWriting.get();
+    }
+
+    @Override
+    public List<PointHistory> selectAllByUserId(long userId) {
+        return List.copyOf(table.getOrDefault(userId, List.of()));
+    }
+}
@@ -0,0 +1,33 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * application 을 띄우는 test 에서 table 을 고정 지연 table 로 교체
+ * - test.table.latency-millis 를 지정한 경우에만 등록 (다른 test 가 띄우는 application 의 component scan 에는 적용되지 않음)
+ * - 고정 지연 table 은 직접 동기화하므로 point.table.thread-safe=true 와 함께 사용
+ */
+@Configuration
+@ConditionalOnProperty(name = FixedLatencyTableConfig.LATENCY_PROPERTY)
+class FixedLatencyTableConfig {
+
+    static final String LATENCY_PROPERTY = "test.table.latency-millis";
+
+    @Bean
+    @Primary
+    UserPointTable fixedLatencyUserPointTable(@Value("${" + LATENCY_PROPERTY + "}") long latencyMillis) {
+        return new FixedLatencyUserPointTable(latencyMillis);
+    }
+
+    @Bean
+    @Primary
+    PointHistoryTable fixedLatencyPointHistoryTable(@Value("${" + LATENCY_PROPERTY + "}") long latencyMillis) {
+        return new FixedLatencyPointHistoryTable(latencyMillis);
+    }
+}
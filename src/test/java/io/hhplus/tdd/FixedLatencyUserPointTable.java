@@ -0,0 +1,62 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.model.UserPoint;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 실행 시간 비교를 위해 random throttle 대신 고정 지연을 사용하는 UserPointTable
+ * (동시에 실행된 insertOrUpdate 의 최대 수를 기록)
+ */
+class FixedLatencyUserPointTable extends UserPointTable {
+
+    private final Map<Long, UserPoint> table = new ConcurrentHashMap<>();
+
+    private final long latencyMillis;
+
+    private final AtomicInteger writing = new AtomicInteger();
+
+    private final AtomicInteger peakWriting = new AtomicInteger();
+
+    FixedLatencyUserPointTable(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    @Override
+    public UserPoint selectById(Long id) {
+        sleep(latencyMillis);
+        return table.getOrDefault(id, UserPoint.empty(id));
+    }
+
+    @Override
+    public UserPoint insertOrUpdate(long id, long amount) {
+        peakWriting.accumulateAndGet(writing.incrementAndGet(), Math::max);
+        try {
+            sleep(latencyMillis);
+            UserPoint userPoint = new UserPoint(id, amount, System.currentTimeMillis());
+            table.put(id, userPoint);
+            return userPoint;
+        } finally {
+            writing.decrementAndGet();
+        }
+    }
+
+    /**
+     * 동시에 실행된 insertOrUpdate 의 최대 수
+     */
+    int peakConcurrentWrites() {
+        return peakWriting.get();
+    }
+
+    static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
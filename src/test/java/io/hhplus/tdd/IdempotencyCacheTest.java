@@ -0,0 +1,193 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.point.AdmissionRejectedException;
+import io.hhplus.tdd.point.IdempotencyKeyReusedException;
+import io.hhplus.tdd.point.idempotency.IdempotencyCache;
+import io.hhplus.tdd.point.model.PointResult;
+import io.hhplus.tdd.point.model.PointValidation;
+import io.hhplus.tdd.point.model.TransactionType;
+import io.hhplus.tdd.point.model.UserPoint;
+import io.hhplus.tdd.point.service.impl.PointServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyCacheTest {
+
+    /**
+     * 같은 key 로 동시에 충전을 요청하면 한 번만 충전/history 저장하고,
+     * 처음 요청을 기다린 나머지 요청과 이후 재요청은 같은 결과를 받는다.
+     */
+    @Test
+    @DisplayName("같은 Idempotency-Key 동시 충전 시 한 번만 처리 test")
+    void testConcurrentDuplicates() throws Exception {
+        FixedLatencyPointHistoryTable pointHistoryTable = new FixedLatencyPointHistoryTable(50L);
+        PointServiceImpl pointService = new PointServiceImpl(new FixedLatencyUserPointTable(50L), pointHistoryTable);
+        int requests = 32;
+        ExecutorService executorService = Executors.newFixedThreadPool(requests);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<PointResult>> results = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            results.add(executorService.submit(() -> {
+                start.await();
+                return pointService.chargePoint(1L, 1_000L, System.currentTimeMillis(), "charge-1");
+            }));
+        }
+        start.countDown();
+
+        PointResult first = results.get(0).get(10, TimeUnit.SECONDS);
+        for (Future<PointResult> result : results) {
+            assertEquals(first, result.get(10, TimeUnit.SECONDS));
+        }
+        executorService.shutdown();
+
+        assertEquals(PointValidation.SUCCESS, first.result());
+        assertEquals(1_000L, first.userPoint().point());
+        assertEquals(first, pointService.chargePoint(1L, 1_000L, System.currentTimeMillis(), "charge-1"));
+        assertEquals(first, pointService.chargePointAsync(1L, 1_000L, System.currentTimeMillis(), "charge-1").join());
+        assertEquals(1, pointHistoryTable.selectAllByUserId(1L).size());
+        assertEquals(1_000L, pointService.selectPointById(1L).point());
+
+        // 다른 key / key 없는 요청은 그대로 처리
+        assertEquals(2_000L, pointService.chargePoint(1L, 1_000L, System.currentTimeMillis(), "charge-2").userPoint().point());
+        assertEquals(3_000L, pointService.chargePoint(1L, 1_000L, System.currentTimeMillis(), null).userPoint().point());
+    }
+
+    /**
+     * 실패 결과(잔액 부족)도 저장하여 그대로 반환하고,
+     * 같은 key 로 다른 요청을 보내면 IdempotencyKeyReusedException 이 발생한다.
+     */
+    @Test
+    @DisplayName("실패 결과 재사용 및 다른 요청의 key 재사용 test")
+    void testStoredFailureAndReusedKey() {
+        PointServiceImpl pointService = new PointServiceImpl(new FixedLatencyUserPointTable(0L), new FixedLatencyPointHistoryTable(0L));
+
+        PointResult insufficient = pointService.usePoint(1L, 500L, System.currentTimeMillis(), "use-1");
+        assertEquals(PointValidation.INSUFFICIENT, insufficient.result());
+
+        pointService.chargePoint(1L, 1_000L, System.currentTimeMillis());
+        assertEquals(insufficient, pointService.usePoint(1L, 500L, System.currentTimeMillis(), "use-1"));
+        assertEquals(1_000L, pointService.selectPointById(1L).point());
+
+        assertThrows(IdempotencyKeyReusedException.class, () -> pointService.usePoint(1L, 700L, System.currentTimeMillis(), "use-1"));
+        assertThrows(IdempotencyKeyReusedException.class, () -> pointService.chargePoint(1L, 500L, System.currentTimeMillis(), "use-1"));
+    }
+
+    /**
+     * 예외로 끝난 요청은 저장하지 않아 같은 key 로 다시 처리할 수 있고,
+     * ttl 이 지난 key 는 다시 처리하며, 보관하는 key 수는 maxEntries 를 넘지 않는다.
+     */
+    @Test
+    @DisplayName("예외 / ttl / 최대 개수 test")
+    void testEviction() {
+        IdempotencyCache cache = new IdempotencyCache(600L, 100);
+        AtomicInteger calls = new AtomicInteger();
+        PointResult success = PointResult.success(new UserPoint(1L, 100L, 0L));
+
+        CompletableFuture<PointResult> failed = cache.execute(1L, "key", TransactionType.CHARGE, 100L,
+                () -> CompletableFuture.failedFuture(new IllegalStateException("table 오류")));
+        assertTrue(failed.isCompletedExceptionally());
+        assertEquals(success, cache.execute(1L, "key", TransactionType.CHARGE, 100L, () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(success);
+        }).join());
+        assertEquals(1, calls.get());
+
+        for (int i = 0; i < 10_000; i++) {
+            cache.execute(1L, "key-" + i, TransactionType.CHARGE, 100L, () -> CompletableFuture.completedFuture(success));
+            assertTrue(cache.size() <= 100);
+        }
+
+        IdempotencyCache expired = new IdempotencyCache(0L, 100);
+        for (int i = 0; i < 3; i++) {
+            expired.execute(1L, "key", TransactionType.CHARGE, 100L, () -> {
+                calls.incrementAndGet();
+                return CompletableFuture.completedFuture(success);
+            });
+        }
+        assertEquals(4, calls.get());
+    }
+
+    /**
+     * 처리 중인 key 는 ttl 이 지나거나 maxEntries 를 넘어도 제거하지 않아 같은 key 의 재요청은 처리 중인 결과를 기다리고,
+     * 처리 중인 key 만으로 maxEntries 가 차 있으면 새 key 는 거절한 뒤 처리가 끝나면 다시 받는다.
+     */
+    @Test
+    @DisplayName("처리 중인 key 유지 및 한도 초과 시 거절 test")
+    void testPendingEntriesAreKept() {
+        IdempotencyCache cache = new IdempotencyCache(0L, 2);
+        AtomicInteger calls = new AtomicInteger();
+        PointResult success = PointResult.success(new UserPoint(1L, 100L, 0L));
+        List<CompletableFuture<PointResult>> pending = List.of(new CompletableFuture<>(), new CompletableFuture<>());
+
+        for (int i = 0; i < pending.size(); i++) {
+            CompletableFuture<PointResult> action = pending.get(i);
+            cache.execute(1L, "key-" + i, TransactionType.CHARGE, 100L, () -> {
+                calls.incrementAndGet();
+                return action;
+            });
+        }
+        CompletableFuture<PointResult> duplicate = cache.execute(1L, "key-0", TransactionType.CHARGE, 100L, () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(success);
+        });
+        assertFalse(duplicate.isDone());
+        assertEquals(2, calls.get());
+
+        assertThrows(AdmissionRejectedException.class, () -> cache.execute(1L, "key-2", TransactionType.CHARGE, 100L, () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(success);
+        }));
+        assertEquals(2, calls.get());
+        assertEquals(2, cache.size());
+
+        pending.get(0).complete(success);
+        assertEquals(success, duplicate.join());
+        assertEquals(success, cache.execute(1L, "key-2", TransactionType.CHARGE, 100L, () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(success);
+        }).join());
+        assertEquals(3, calls.get());
+        assertEquals(2, cache.size());
+    }
+
+    /**
+     * 처리 중인 key 가 maxEntries 가까이 있어도 처리가 끝난 key 만 오래된 순서대로 제거하며,
+     * 처리 중인 key 의 재요청은 계속 처리 중인 결과를 기다린다.
+     */
+    @Test
+    @DisplayName("처리 중인 key 가 많을 때 처리가 끝난 key 만 제거 test")
+    void testEvictionSkipsPendingEntries() {
+        IdempotencyCache cache = new IdempotencyCache(600L, 100);
+        PointResult success = PointResult.success(new UserPoint(1L, 100L, 0L));
+        List<CompletableFuture<PointResult>> pending = new ArrayList<>();
+        for (int i = 0; i < 99; i++) {
+            CompletableFuture<PointResult> action = new CompletableFuture<>();
+            pending.add(action);
+            cache.execute(1L, "pending-" + i, TransactionType.CHARGE, 100L, () -> action);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            cache.execute(1L, "key-" + i, TransactionType.CHARGE, 100L, () -> CompletableFuture.completedFuture(success));
+            assertTrue(cache.size() <= 100);
+        }
+
+        CompletableFuture<PointResult> duplicate = cache.execute(1L, "pending-0", TransactionType.CHARGE, 100L,
+                () -> CompletableFuture.completedFuture(success));
+        assertFalse(duplicate.isDone());
+        pending.get(0).complete(success);
+        assertEquals(success, duplicate.join());
+    }
+}
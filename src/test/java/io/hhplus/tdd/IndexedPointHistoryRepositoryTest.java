@@ -0,0 +1,238 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.IndexedPointHistoryRepository;
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.point.model.PointHistory;
+import io.hhplus.tdd.point.model.PointHistoryPage;
+import io.hhplus.tdd.point.model.PointHistoryQuery;
+import io.hhplus.tdd.point.model.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexedPointHistoryRepositoryTest {
+
+    private IndexedPointHistoryRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new IndexedPointHistoryRepository();
+    }
+
+    /**
+     * 저장한 history 는 해당 user 로만, 저장한 순서대로 조회된다.
+     */
+    @Test
+    @DisplayName("user 별 history 조회 test")
+    void testSelectByUser() {
+        long now = System.currentTimeMillis();
+        repository.insert(1L, 1000L, TransactionType.CHARGE, now);
+        repository.insert(2L, 500L, TransactionType.CHARGE, now);
+        repository.insert(1L, 700L, TransactionType.USE, now + 1);
+
+        List<PointHistory> histories = repository.selectAllByUserId(1L);
+
+        assertEquals(List.of(
+                new PointHistory(1L, 1L, 1000L, TransactionType.CHARGE, now),
+                new PointHistory(3L, 1L, 700L, TransactionType.USE, now + 1)
+        ), histories);
+        assertEquals(1, repository.selectAllByUserId(2L).size());
+        assertTrue(repository.selectAllByUserId(3L).isEmpty());
+    }
+
+    /**
+     * cursor 로 끝까지 조회한 결과는 조건으로 거른 전체 history 와 같고,
+     * 마지막 페이지의 nextCursor 는 null 이다.
+     */
+    @Test
+    @DisplayName("history 페이지 조회 test")
+    void testSelectPage() {
+        for (int i = 0; i < 3_000; i++) {
+            repository.insert(1L, i, i % 4 == 0 ? TransactionType.USE : TransactionType.CHARGE, 1_000L + i);
+            repository.insert(2L, i, TransactionType.CHARGE, 1_000L + i);
+        }
+        PointHistoryRepository fullScan = fullScanOf(repository.selectAllByUserId(1L));
+
+        List<PointHistoryQuery> queries = List.of(
+                PointHistoryQuery.of(null, 100, null, null, null),
+                PointHistoryQuery.of(null, 7, 1_500L, 2_500L, null),
+                PointHistoryQuery.of(null, 33, null, 3_000L, TransactionType.USE),
+                PointHistoryQuery.of(null, 1000, 10_000L, null, null)
+        );
+        for (PointHistoryQuery query : queries) {
+            List<PointHistory> expected = repository.selectAllByUserId(1L).stream()
+                    .filter(history -> query.matches(history.updateMillis(), history.type()))
+                    .toList();
+
+            assertEquals(expected, readAll(repository, query));
+            assertEquals(expected, readAll(fullScan, query));
+        }
+    }
+
+    /**
+     * 오래된 history 를 cold tier 로 옮겨도 전체/페이지 조회 결과는 그대로이고,
+     * 옮긴 뒤 추가한 history 도 이어서 조회된다.
+     */
+    @Test
+    @DisplayName("history cold tier 조회 test")
+    void testColdTier() {
+        insertRandomWalk(50, 300, 7L);
+        List<PointHistoryQuery> queries = List.of(
+                PointHistoryQuery.of(null, 64, null, null, null),
+                PointHistoryQuery.of(null, 5, 50_000L, 200_000L, TransactionType.USE)
+        );
+        List<List<PointHistory>> expected = new ArrayList<>();
+        for (PointHistoryQuery query : queries) {
+            expected.add(readAll(repository, query));
+        }
+        List<PointHistory> before = repository.selectAllByUserId(1L);
+
+        assertTrue(repository.moveToCold(100_000L) > 0);
+        assertEquals(before, repository.selectAllByUserId(1L));
+        assertTrue(repository.moveToCold(Long.MAX_VALUE) > 0);
+        assertEquals(0, repository.moveToCold(Long.MAX_VALUE));
+        assertEquals(before, repository.selectAllByUserId(1L));
+        for (int i = 0; i < queries.size(); i++) {
+            assertEquals(expected.get(i), readAll(repository, queries.get(i)));
+        }
+
+        PointHistory added = repository.insert(1L, 0L, TransactionType.USE, 1L);
+        List<PointHistory> after = repository.selectAllByUserId(1L);
+        assertEquals(before.size() + 1, after.size());
+        assertEquals(added, after.get(after.size() - 1));
+    }
+
+    /**
+     * 여러 번 나누어 cold tier 로 옮겨도(chunk 여러 개) 임의의 cursor 이후 페이지는
+     * 처음부터 읽은 결과와 같다 (block 중간의 cursor, chunk 경계의 cursor 포함).
+     */
+    @Test
+    @DisplayName("history cold tier cursor 조회 test")
+    void testColdTierSeek() {
+        insertRandomWalk(3, 1_000, 13L);
+        List<PointHistory> all = repository.selectAllByUserId(1L);
+        // insertRandomWalk 는 row 마다 10ms 씩 증가하므로 user 1 의 row 를 대략 1/4 씩 옮긴다
+        for (long cutoff : new long[]{8_000L, 15_000L, 23_000L, Long.MAX_VALUE}) {
+            assertTrue(repository.moveToCold(cutoff) > 0);
+        }
+        assertEquals(all, repository.selectAllByUserId(1L));
+
+        SplittableRandom random = new SplittableRandom(17L);
+        for (int i = 0; i < 200; i++) {
+            int from = random.nextInt(all.size());
+            long cursor = all.get(from).id();
+            PointHistoryPage page = repository.selectPage(1L, PointHistoryQuery.of(cursor, 5, null, null, null));
+            assertEquals(all.subList(from + 1, Math.min(all.size(), from + 6)), page.histories(), "cursor : " + cursor);
+        }
+        assertTrue(repository.selectPage(1L, PointHistoryQuery.of(all.get(all.size() - 1).id(), 5, null, null, null)).histories().isEmpty());
+    }
+
+    /**
+     * cold tier 는 같은 history 를 PointHistory 객체(48 byte)로 보관할 때보다 5 배 이상 적은 memory 를 사용한다.
+     */
+    @Test
+    @DisplayName("history cold tier memory test")
+    void testColdTierFootprint() {
+        int users = 1_000;
+        int perUser = 200;
+        insertRandomWalk(users, perUser, 11L);
+
+        repository.moveToCold(Long.MAX_VALUE);
+
+        long pointHistoryBytes = 48L * users * perUser;
+        long coldBytes = repository.coldFootprintBytes();
+        assertTrue(coldBytes * 5 <= pointHistoryBytes, "cold tier : " + coldBytes + " byte");
+    }
+
+    /**
+     * user 들이 번갈아 충전/사용하며, 이전 point 에 1 ~ 1,000 을 더하거나 빼고 시간은 10ms 씩 증가
+     */
+    private void insertRandomWalk(int users, int perUser, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] points = new long[users + 1];
+        long millis = 1_000L;
+        for (int i = 0; i < perUser; i++) {
+            for (int userId = 1; userId <= users; userId++) {
+                long amount = 1 + random.nextInt(1_000);
+                boolean use = points[userId] >= amount && random.nextInt(3) == 0;
+                points[userId] += use ? -amount : amount;
+                repository.insert(userId, points[userId], use ? TransactionType.USE : TransactionType.CHARGE, millis);
+                millis += 10;
+            }
+        }
+    }
+
+    private List<PointHistory> readAll(PointHistoryRepository source, PointHistoryQuery first) {
+        List<PointHistory> histories = new ArrayList<>();
+        PointHistoryQuery query = first;
+        while (true) {
+            PointHistoryPage page = source.selectPage(1L, query);
+            assertTrue(page.histories().size() <= query.limit());
+            histories.addAll(page.histories());
+            if (page.nextCursor() == null) {
+                return histories;
+            }
+            query = new PointHistoryQuery(page.nextCursor(), query.limit(), query.from(), query.to(), query.type());
+        }
+    }
+
+    /**
+     * selectPage 기본 구현(전체 조회 후 거르기)을 사용하는 저장소
+     */
+    private static PointHistoryRepository fullScanOf(List<PointHistory> histories) {
+        return new PointHistoryRepository() {
+            @Override
+            public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public List<PointHistory> selectAllByUserId(long userId) {
+                return histories;
+            }
+        };
+    }
+
+    /**
+     * 여러 스레드가 동시에 저장하더라도 누락 없이 저장되고,
+     * user 안에서는 id 가 증가하는 순서로 조회된다.
+     */
+    @Test
+    @DisplayName("history 동시 저장 test")
+    void testConcurrentInsert() throws InterruptedException {
+        int users = 4;
+        int perUser = 5_000;
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+
+        for (int i = 0; i < users * perUser; i++) {
+            long userId = i % users;
+            TransactionType type = i % 3 == 0 ? TransactionType.USE : TransactionType.CHARGE;
+            long amount = i;
+            executorService.submit(() -> repository.insert(userId, amount, type, amount));
+        }
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(1, TimeUnit.MINUTES));
+
+        for (long userId = 0; userId < users; userId++) {
+            List<PointHistory> histories = repository.selectAllByUserId(userId);
+            assertEquals(perUser, histories.size());
+            for (int i = 0; i < histories.size(); i++) {
+                PointHistory history = histories.get(i);
+                assertEquals(userId, history.userId());
+                assertEquals(history.amount() % 3 == 0 ? TransactionType.USE : TransactionType.CHARGE, history.type());
+                if (i > 0) {
+                    assertTrue(histories.get(i - 1).id() < history.id());
+                }
+            }
+        }
+    }
+}
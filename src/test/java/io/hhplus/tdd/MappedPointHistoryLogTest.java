@@ -0,0 +1,236 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.MappedPointHistoryLog;
+import io.hhplus.tdd.database.PrimitiveUserPointRepository;
+import io.hhplus.tdd.database.WalPointHistoryRepository;
+import io.hhplus.tdd.point.lock.UserLockManager;
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import io.hhplus.tdd.point.model.PointHistory;
+import io.hhplus.tdd.point.model.TransactionType;
+import io.hhplus.tdd.point.service.impl.PointServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedPointHistoryLogTest {
+
+    private static final int SEGMENT_BYTES = MappedPointHistoryLog.RECORD_BYTES * 10;
+
+    @TempDir
+    Path directory;
+
+    /**
+     * 추가한 record 는 다시 열었을 때 같은 순서로 복구되고,
+     * segment 가 가득 차면 다음 파일로 넘어가며 id 는 이어서 발급된다.
+     */
+    @Test
+    @DisplayName("WAL 추가/복구 및 segment 전환 test")
+    void testAppendAndRecover() {
+        List<PointHistory> appended = new ArrayList<>();
+        try (MappedPointHistoryLog log = new MappedPointHistoryLog(directory, SEGMENT_BYTES, history -> fail("빈 log"))) {
+            for (int i = 1; i <= 25; i++) {
+                PointHistory history = log.append(i % 3, i * 100L, i % 2 == 0 ? TransactionType.USE : TransactionType.CHARGE, 1_700_000_000_000L + i);
+                log.awaitDurable(history.id());
+                appended.add(history);
+            }
+        }
+
+        List<PointHistory> recovered = new ArrayList<>();
+        try (MappedPointHistoryLog log = new MappedPointHistoryLog(directory, SEGMENT_BYTES, recovered::add)) {
+            assertEquals(appended, recovered);
+            assertEquals(3, segmentCount());
+            assertEquals(26L, log.append(1L, 1L, TransactionType.CHARGE, 1L).id());
+        }
+    }
+
+    /**
+     * 마지막 record 를 쓰는 도중 종료되어 crc 가 맞지 않으면 해당 record 는 버리고,
+     * 그 위치부터 다시 추가한다.
+     */
+    @Test
+    @DisplayName("WAL 마지막 record 손상 시 복구 test")
+    void testTornTailIsDiscarded() throws Exception {
+        try (MappedPointHistoryLog log = new MappedPointHistoryLog(directory, SEGMENT_BYTES, history -> { })) {
+            for (int i = 1; i <= 3; i++) {
+                log.awaitDurable(log.append(1L, i, TransactionType.CHARGE, i).id());
+            }
+        }
+        // 세 번째 record 의 amount 일부만 바뀐 상태로 만든다
+        try (RandomAccessFile file = new RandomAccessFile(lastSegment().toFile(), "rw")) {
+            file.seek(MappedPointHistoryLog.RECORD_BYTES * 2L + 16);
+            file.writeLong(999L);
+        }
+
+        List<PointHistory> recovered = new ArrayList<>();
+        try (MappedPointHistoryLog log = new MappedPointHistoryLog(directory, SEGMENT_BYTES, recovered::add)) {
+            assertEquals(2, recovered.size());
+            assertEquals(3L, log.append(1L, 30L, TransactionType.CHARGE, 3L).id());
+        }
+
+        recovered.clear();
+        try (MappedPointHistoryLog ignored = new MappedPointHistoryLog(directory, SEGMENT_BYTES, recovered::add)) {
+            assertEquals(3, recovered.size());
+            assertEquals(30L, recovered.get(2).amount());
+        }
+    }
+
+    /**
+     * 손상된 record 뒤에 이전 실행에서 쓴 record 가 남아 있어도 버린 위치부터 segment 끝까지 지우므로,
+     * 다시 추가한 뒤 재시작하면 새로 추가한 record 까지만 복구된다.
+     */
+    @Test
+    @DisplayName("WAL 손상 위치 이후 record 삭제 test")
+    void testTailAfterTruncationIsCleared() throws Exception {
+        try (MappedPointHistoryLog log = new MappedPointHistoryLog(directory, SEGMENT_BYTES, history -> { })) {
+            for (int i = 1; i <= 5; i++) {
+                log.awaitDurable(log.append(1L, i, TransactionType.CHARGE, i).id());
+            }
+        }
+        try (RandomAccessFile file = new RandomAccessFile(lastSegment().toFile(), "rw")) {
+            file.seek(MappedPointHistoryLog.RECORD_BYTES * 2L + 16);
+            file.writeLong(999L);
+        }
+
+        try (MappedPointHistoryLog log = new MappedPointHistoryLog(directory, SEGMENT_BYTES, history -> { })) {
+            assertEquals(3L, log.append(1L, 30L, TransactionType.CHARGE, 3L).id());
+        }
+
+        List<PointHistory> recovered = new ArrayList<>();
+        try (MappedPointHistoryLog log = new MappedPointHistoryLog(directory, SEGMENT_BYTES, recovered::add)) {
+            assertEquals(List.of(1L, 2L, 30L), recovered.stream().map(PointHistory::amount).toList());
+            assertEquals(4L, log.append(1L, 40L, TransactionType.CHARGE, 4L).id());
+        }
+    }
+
+    /**
+     * crc 가 맞더라도 id 가 앞 record 에서 이어지지 않으면 그 위치부터 버린다.
+     */
+    @Test
+    @DisplayName("WAL id 가 이어지지 않는 record 복구 test")
+    void testNonContiguousIdIsDiscarded() throws Exception {
+        try (MappedPointHistoryLog log = new MappedPointHistoryLog(directory, SEGMENT_BYTES, history -> { })) {
+            for (int i = 1; i <= 5; i++) {
+                log.awaitDurable(log.append(1L, i, TransactionType.CHARGE, i).id());
+            }
+        }
+        // 다섯 번째 record(id 5)를 세 번째 위치에 복사
+        try (RandomAccessFile file = new RandomAccessFile(lastSegment().toFile(), "rw")) {
+            byte[] record = new byte[MappedPointHistoryLog.RECORD_BYTES];
+            file.seek(MappedPointHistoryLog.RECORD_BYTES * 4L);
+            file.readFully(record);
+            file.seek(MappedPointHistoryLog.RECORD_BYTES * 2L);
+            file.write(record);
+        }
+
+        List<PointHistory> recovered = new ArrayList<>();
+        try (MappedPointHistoryLog log = new MappedPointHistoryLog(directory, SEGMENT_BYTES, recovered::add)) {
+            assertEquals(List.of(1L, 2L), recovered.stream().map(PointHistory::id).toList());
+            assertEquals(3L, log.append(1L, 3L, TransactionType.CHARGE, 3L).id());
+        }
+    }
+
+    /**
+     * 여러 thread 가 record 를 추가하는 도중 process 를 강제 종료해도
+     * 디스크 반영을 확인받은 record 는 모두, 순서대로, 내용 그대로 복구된다.
+     */
+    @Test
+    @DisplayName("WAL 쓰기 도중 process 강제 종료 후 복구 test")
+    void testRecoverAfterKill() throws Exception {
+        Path java = Path.of(System.getProperty("java.home"), "bin", "java");
+        Process process = new ProcessBuilder(java.toString(), "-cp", System.getProperty("java.class.path"),
+                WalCrashWriter.class.getName(), directory.toString())
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+
+        long lastAcknowledged = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lastAcknowledged = Math.max(lastAcknowledged, Long.parseLong(line.trim()));
+                if (lastAcknowledged >= 3_000) {
+                    process.destroyForcibly();
+                    break;
+                }
+            }
+        }
+        assertTrue(process.waitFor(10, TimeUnit.SECONDS));
+        assertTrue(lastAcknowledged >= 3_000, "acknowledged : " + lastAcknowledged);
+
+        List<PointHistory> recovered = new ArrayList<>();
+        try (MappedPointHistoryLog log = new MappedPointHistoryLog(directory, WalCrashWriter.SEGMENT_BYTES, recovered::add)) {
+            assertTrue(recovered.size() >= lastAcknowledged, "recovered : " + recovered.size());
+            for (int i = 0; i < recovered.size(); i++) {
+                long id = i + 1;
+                PointHistory history = recovered.get(i);
+                assertEquals(id, history.id());
+                assertEquals(id % 100, history.userId());
+                assertEquals(id * 10, history.amount());
+                assertEquals(id, history.updateMillis());
+            }
+            assertEquals(recovered.size() + 1L, log.append(1L, 1L, TransactionType.CHARGE, 1L).id());
+        }
+    }
+
+    /**
+     * 재시작하면 history 와 함께 user 별 최종 point 가 log 에서 복구된다.
+     */
+    @Test
+    @DisplayName("WAL 저장소 재시작 시 point 복구 test")
+    void testRepositoryRestoresBalances() {
+        try (WalPointHistoryRepository historyRepository = walRepository(new PrimitiveUserPointRepository())) {
+            PointServiceImpl pointService = serviceOf(historyRepository);
+            pointService.chargePoint(1L, 1_000L, System.currentTimeMillis());
+            pointService.usePoint(1L, 300L, System.currentTimeMillis());
+            pointService.chargePoint(2L, 500L, System.currentTimeMillis());
+        }
+
+        PrimitiveUserPointRepository userPointRepository = new PrimitiveUserPointRepository();
+        try (WalPointHistoryRepository historyRepository = walRepository(userPointRepository)) {
+            assertEquals(700L, userPointRepository.selectById(1L).point());
+            assertEquals(500L, userPointRepository.selectById(2L).point());
+            assertEquals(2, historyRepository.selectAllByUserId(1L).size());
+
+            PointServiceImpl pointService = new PointServiceImpl(userPointRepository, historyRepository, new UserLockManager(),
+                    ForkJoinPool.commonPool(), PointMetrics.noop());
+            assertEquals(800L, pointService.chargePoint(1L, 100L, System.currentTimeMillis()).userPoint().point());
+            assertEquals(3, pointService.selectHistoryById(1L).size());
+        }
+    }
+
+    private WalPointHistoryRepository walRepository(PrimitiveUserPointRepository userPointRepository) {
+        return new WalPointHistoryRepository(userPointRepository, directory, SEGMENT_BYTES);
+    }
+
+    private PointServiceImpl serviceOf(WalPointHistoryRepository historyRepository) {
+        return new PointServiceImpl(new PrimitiveUserPointRepository(), historyRepository, new UserLockManager(),
+                ForkJoinPool.commonPool(), PointMetrics.noop());
+    }
+
+    private long segmentCount() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Path lastSegment() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().reduce((first, second) -> second).orElseThrow();
+        }
+    }
+}
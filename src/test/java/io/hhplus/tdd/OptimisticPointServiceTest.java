@@ -0,0 +1,309 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.TablePointHistoryRepository;
+import io.hhplus.tdd.database.TableUserPointRepository;
+import io.hhplus.tdd.point.HandlePointException;
+import io.hhplus.tdd.point.lock.UserLockManager;
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import io.hhplus.tdd.point.model.PointHistory;
+import io.hhplus.tdd.point.model.PointResult;
+import io.hhplus.tdd.point.model.PointValidation;
+import io.hhplus.tdd.point.model.TransactionType;
+import io.hhplus.tdd.point.model.UserPoint;
+import io.hhplus.tdd.point.service.impl.PointServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimisticPointServiceTest {
+
+    private static final long USER_ID = 1L;
+    private static final int THREADS = 32;
+    private static final int OPERATIONS_PER_THREAD = 500;
+
+    private FixedLatencyUserPointTable userPointTable;
+    private PointServiceImpl pointService;
+
+    @BeforeEach
+    void setUp() {
+        userPointTable = new FixedLatencyUserPointTable(0L);
+        pointService = new PointServiceImpl(userPointTable, new FixedLatencyPointHistoryTable(0L));
+        pointService.setConcurrencyStrategy(PointServiceImpl.CONCURRENCY_OPTIMISTIC);
+    }
+
+    /**
+     * 여러 thread 가 한 user 에 충전/사용을 동시에 요청해도
+     * 최종 point 는 성공한 충전 합 - 성공한 사용 합과 같고(누락 없음),
+     * 어느 시점에도 point 는 0 이상 MAX_POINT 이하이다.
+     */
+    @Test
+    @DisplayName("optimistic 같은 user 동시 충전/사용 시 누락 없음 test")
+    void testNoLostUpdates() throws Exception {
+        AtomicLong charged = new AtomicLong();
+        AtomicLong used = new AtomicLong();
+        AtomicLong successes = new AtomicLong();
+        AtomicBoolean outOfRange = new AtomicBoolean();
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        Thread observer = new Thread(() -> {
+            while (running.get()) {
+                long point = pointService.selectPointById(USER_ID).point();
+                if (point < 0 || point > PointValidation.MAX_POINT) {
+                    outOfRange.set(true);
+                }
+            }
+        });
+        observer.start();
+
+        runConcurrently(thread -> {
+            Random random = new Random(thread);
+            for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                long amount = 1 + random.nextInt(2_000_000);
+                boolean charge = random.nextBoolean();
+                PointResult result = charge
+                        ? pointService.chargePoint(USER_ID, amount, System.currentTimeMillis())
+                        : pointService.usePoint(USER_ID, amount, System.currentTimeMillis());
+                long point = result.userPoint().point();
+                if (point < 0 || point > PointValidation.MAX_POINT) {
+                    outOfRange.set(true);
+                }
+                if (result.isSuccess()) {
+                    (charge ? charged : used).addAndGet(amount);
+                    successes.incrementAndGet();
+                }
+            }
+        });
+        running.set(false);
+        observer.join();
+
+        long expected = charged.get() - used.get();
+        assertFalse(outOfRange.get());
+        assertEquals(expected, pointService.selectPointById(USER_ID).point());
+        assertEquals(expected, userPointTable.selectById(USER_ID).point());
+        assertEquals(successes.get(), pointService.selectHistoryById(USER_ID).size());
+    }
+
+    /**
+     * MAX_POINT 에 가까운 user 에 동시에 충전하면 한도 안에서 들어갈 수 있는 만큼만 성공하고,
+     * 잔액이 적은 user 에 동시에 사용하면 잔액만큼만 성공한다.
+     */
+    @Test
+    @DisplayName("optimistic 한도/잔액 경계 동시 요청 test")
+    void testBoundsUnderContention() throws Exception {
+        pointService.chargePoint(USER_ID, PointValidation.MAX_POINT - 1_000L, System.currentTimeMillis());
+
+        AtomicLong charges = new AtomicLong();
+        runConcurrently(thread -> {
+            for (int i = 0; i < 10; i++) {
+                if (pointService.chargePoint(USER_ID, 100L, System.currentTimeMillis()).isSuccess()) {
+                    charges.incrementAndGet();
+                }
+            }
+        });
+        assertEquals(10L, charges.get());
+        assertEquals(PointValidation.MAX_POINT, pointService.selectPointById(USER_ID).point());
+
+        pointService.usePoint(USER_ID, PointValidation.MAX_POINT - 1_000L, System.currentTimeMillis());
+        AtomicLong uses = new AtomicLong();
+        runConcurrently(thread -> {
+            for (int i = 0; i < 10; i++) {
+                if (pointService.usePoint(USER_ID, 100L, System.currentTimeMillis()).isSuccess()) {
+                    uses.incrementAndGet();
+                }
+            }
+        });
+        assertEquals(10L, uses.get());
+        assertEquals(0L, pointService.selectPointById(USER_ID).point());
+
+        List<PointHistory> histories = pointService.selectHistoryById(USER_ID);
+        assertEquals(22, histories.size());
+        assertEquals(11, histories.stream().filter(history -> history.type() == TransactionType.CHARGE).count());
+    }
+
+    /**
+     * queue 에서 묶어서 처리한 요청을 compareAndSet 으로 저장한 뒤 history 저장이 실패하면
+     * 저장한 만큼 point 를 되돌리고 보정 history 를 남겨, history 의 마지막 point 와 저장된 point 가 같게 유지된다.
+     */
+    @Test
+    @DisplayName("optimistic batch 처리 중 history 저장 실패 시 point 되돌리기 test")
+    void testBatchedHistoryFailureReverted() {
+        pointService = new PointServiceImpl(userPointTable, new FixedLatencyPointHistoryTable(0L) {
+            @Override
+            public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+                if (type == TransactionType.CHARGE && amount >= 1_300L) {
+                    throw new IllegalStateException("history 저장 실패");
+                }
+                return super.insert(userId, amount, type, updateMillis);
+            }
+        });
+        pointService.setConcurrencyStrategy(PointServiceImpl.CONCURRENCY_OPTIMISTIC);
+        pointService.chargePoint(USER_ID, 1_000L, System.currentTimeMillis());
+
+        List<CompletableFuture<PointResult>> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            results.add(pointService.chargePointAsync(USER_ID, 100L, System.currentTimeMillis()));
+        }
+        long failed = results.stream().filter(result -> result.handle((ignored, e) -> e != null).join()).count();
+
+        List<PointHistory> histories = pointService.selectHistoryById(USER_ID);
+        long point = pointService.selectPointById(USER_ID).point();
+        assertTrue(failed > 0);
+        assertTrue(point < 1_300L, "point : " + point);
+        assertEquals(point, histories.get(histories.size() - 1).amount());
+        assertEquals(point, userPointTable.selectById(USER_ID).point());
+    }
+
+    /**
+     * history 저장이 끝나기 전에 다른 요청이 충전한 point 를 모두 사용하면 충전을 되돌릴 수 없으므로(0 미만)
+     * point 는 그대로 두고 충전을 history 에 다시 남긴 뒤 HandlePointException 을 반환한다.
+     */
+    @Test
+    @DisplayName("optimistic 되돌릴 point 가 범위를 벗어나는 경우 test")
+    void testRevertOutOfRangeRecordsHistory() throws Exception {
+        CountDownLatch chargeHistoryStarted = new CountDownLatch(1);
+        CountDownLatch failChargeHistory = new CountDownLatch(1);
+        AtomicBoolean failed = new AtomicBoolean();
+        FixedLatencyPointHistoryTable pointHistoryTable = new FixedLatencyPointHistoryTable(0L) {
+            @Override
+            public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+                if (type == TransactionType.CHARGE && amount == 1_000L && failed.compareAndSet(false, true)) {
+                    chargeHistoryStarted.countDown();
+                    await(failChargeHistory);
+                    throw new IllegalStateException("history 저장 실패");
+                }
+                return super.insert(userId, amount, type, updateMillis);
+            }
+        };
+        pointService = new PointServiceImpl(new TableUserPointRepository(userPointTable, PointMetrics.noop(), true),
+                new TablePointHistoryRepository(pointHistoryTable, PointMetrics.noop(), true),
+                new UserLockManager(), ForkJoinPool.commonPool(), PointMetrics.noop());
+        pointService.setConcurrencyStrategy(PointServiceImpl.CONCURRENCY_OPTIMISTIC);
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        Future<PointResult> charge = executorService.submit(() -> pointService.chargePoint(USER_ID, 1_000L, System.currentTimeMillis()));
+        assertTrue(chargeHistoryStarted.await(5, TimeUnit.SECONDS));
+        assertEquals(PointValidation.SUCCESS, pointService.usePoint(USER_ID, 1_000L, System.currentTimeMillis()).result());
+        failChargeHistory.countDown();
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> charge.get(5, TimeUnit.SECONDS));
+        assertTrue(error.getCause() instanceof HandlePointException, "cause : " + error.getCause());
+        executorService.shutdown();
+
+        List<PointHistory> histories = pointService.selectHistoryById(USER_ID);
+        assertEquals(0L, pointService.selectPointById(USER_ID).point());
+        assertEquals(List.of(TransactionType.USE, TransactionType.CHARGE), histories.stream().map(PointHistory::type).toList());
+        assertEquals(0L, histories.get(1).amount());
+    }
+
+    /**
+     * 충돌이 반복되어 user lock 안에서 시도하는 요청이 있으면 같은 user 의 lock 없는 요청은 compareAndSet 을 하지 않고 양보하므로
+     * lock 없는 요청이 계속 들어와도 lock 안의 요청이 저장되고 (이미 시작한 compareAndSet 만 먼저 끝날 수 있음), 누락도 없다.
+     */
+    @Test
+    @DisplayName("optimistic 충돌 반복 시 lock 안의 요청 우선 test")
+    void testFallbackWriterHasPriority() throws Exception {
+        int forcedConflicts = 8;
+        Thread[] fallbackThread = new Thread[1];
+        AtomicLong fallbackCalls = new AtomicLong();
+        AtomicBoolean inFallback = new AtomicBoolean();
+        AtomicLong othersDuringFallback = new AtomicLong();
+        TableUserPointRepository userPointRepository = new TableUserPointRepository(userPointTable, PointMetrics.noop(), true) {
+            @Override
+            public Optional<UserPoint> compareAndSet(long id, long expectedVersion, long amount) {
+                if (Thread.currentThread() == fallbackThread[0]) {
+                    // lock 없는 시도는 모두 충돌시켜 user lock 안에서 시도하도록 한다
+                    if (fallbackCalls.incrementAndGet() <= forcedConflicts) {
+                        return Optional.empty();
+                    }
+                    inFallback.set(true);
+                    Optional<UserPoint> saved = super.compareAndSet(id, expectedVersion, amount);
+                    inFallback.set(saved.isEmpty());
+                    return saved;
+                }
+                if (inFallback.get()) {
+                    othersDuringFallback.incrementAndGet();
+                }
+                return super.compareAndSet(id, expectedVersion, amount);
+            }
+        };
+        pointService = new PointServiceImpl(userPointRepository,
+                new TablePointHistoryRepository(new FixedLatencyPointHistoryTable(0L), PointMetrics.noop(), true),
+                new UserLockManager(), ForkJoinPool.commonPool(), PointMetrics.noop());
+        pointService.setConcurrencyStrategy(PointServiceImpl.CONCURRENCY_OPTIMISTIC);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong others = new AtomicLong();
+        ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> hammers = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            hammers.add(executorService.submit(() -> {
+                while (running.get()) {
+                    pointService.chargePoint(USER_ID, 1L, System.currentTimeMillis());
+                    others.incrementAndGet();
+                }
+            }));
+        }
+
+        CompletableFuture<PointResult> fallback = new CompletableFuture<>();
+        fallbackThread[0] = new Thread(() -> fallback.complete(pointService.chargePoint(USER_ID, 1_000_000L, System.currentTimeMillis())));
+        fallbackThread[0].start();
+        PointResult result = fallback.get(10, TimeUnit.SECONDS);
+        running.set(false);
+        for (Future<?> hammer : hammers) {
+            hammer.get(10, TimeUnit.SECONDS);
+        }
+        executorService.shutdown();
+
+        assertEquals(PointValidation.SUCCESS, result.result());
+        assertTrue(othersDuringFallback.get() <= THREADS, "lock 안의 시도 중 다른 compareAndSet : " + othersDuringFallback.get());
+        assertEquals(1_000_000L + others.get(), pointService.selectPointById(USER_ID).point());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runConcurrently(ThreadBody body) throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            int seed = thread;
+            futures.add(executorService.submit(() -> {
+                start.await();
+                body.run(seed);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executorService.shutdown();
+    }
+
+    private interface ThreadBody {
+        void run(int thread);
+    }
+}
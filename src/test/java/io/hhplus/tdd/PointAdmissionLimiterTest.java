@@ -0,0 +1,193 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.TablePointHistoryRepository;
+import io.hhplus.tdd.database.TableUserPointRepository;
+import io.hhplus.tdd.point.AdmissionRejectedException;
+import io.hhplus.tdd.point.admission.AdaptiveConcurrencyLimit;
+import io.hhplus.tdd.point.admission.PointAdmissionLimiter;
+import io.hhplus.tdd.point.lock.UserLockManager;
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import io.hhplus.tdd.point.model.PointResult;
+import io.hhplus.tdd.point.model.PointValidation;
+import io.hhplus.tdd.point.service.impl.PointServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PointAdmissionLimiterTest {
+
+    private static final long TABLE_LATENCY_MILLIS = 10L;
+    private static final int REQUEST_THREADS = 16;
+    private static final int FLOOD_REQUESTS = 160;
+    private static final int OTHER_USERS = 40;
+
+    /**
+     * 요청 처리 thread(Tomcat thread 대신 고정 크기 pool)에 한 user 의 사용 요청이 몰린 뒤 다른 user 의 충전 요청이 들어오면
+     * - 제한 없음 : 몰린 요청이 user lock 을 기다리며 thread 를 모두 차지하여 다른 user 의 요청도 몰린 요청이 끝날 때까지 기다린다
+     * - 수용 제어 : user 별 한도를 넘은 요청은 바로 거절되므로 다른 user 의 p99 가 table 지연 수준으로 유지된다
+     */
+    @Test
+    @DisplayName("한 user 에 요청이 몰릴 때 다른 user 의 p99 test")
+    void testFloodingUserDoesNotStallOthers() throws Exception {
+        long unlimitedP99 = p99OfOtherUsers(new PointAdmissionLimiter(), PointMetrics.noop());
+
+        PointMetrics pointMetrics = PointMetrics.noop();
+        PointAdmissionLimiter limiter = new PointAdmissionLimiter(true, 4, 50L, 100, 8, 200, 2.0, pointMetrics);
+        long admittedP99 = p99OfOtherUsers(limiter, pointMetrics);
+
+        assertTrue(admittedP99 < 300L, "admission p99 : " + admittedP99 + "ms");
+        assertTrue(admittedP99 * 5 < unlimitedP99, "unlimited p99 : " + unlimitedP99 + "ms, admission p99 : " + admittedP99 + "ms");
+        assertEquals(0, limiter.inFlight());
+    }
+
+    /**
+     * 전체 한도에 닿으면 다른 user 의 요청도 max-wait 이후 거절하고, 처리가 끝나면 다시 받는다.
+     */
+    @Test
+    @DisplayName("전체 동시 처리 한도 초과 시 거절 test")
+    void testGlobalLimitRejects() throws Exception {
+        PointAdmissionLimiter limiter = new PointAdmissionLimiter(true, 4, 20L, 2, 2, 2, 2.0, PointMetrics.noop());
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch finish = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        List<Future<Integer>> running = new ArrayList<>();
+        for (long userId = 1; userId <= 2; userId++) {
+            long id = userId;
+            running.add(executorService.submit(() -> limiter.admit(id, () -> {
+                started.countDown();
+                await(finish);
+                return 1;
+            })));
+        }
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        long start = System.nanoTime();
+        assertThrows(AdmissionRejectedException.class, () -> limiter.admit(3L, () -> 1));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1_000L);
+
+        finish.countDown();
+        for (Future<Integer> result : running) {
+            assertEquals(1, result.get(5, TimeUnit.SECONDS).intValue());
+        }
+        executorService.shutdown();
+        assertEquals(1, limiter.admit(3L, () -> 1).intValue());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    /**
+     * cluster filter 에서 user lock 전에 수용한 요청은 controller 에서 다시 admit 해도 한도를 다시 세지 않고,
+     * 다른 user 로 호출하면 그 user 의 한도를 따로 확인한다.
+     */
+    @Test
+    @DisplayName("이미 수용된 요청 안에서 다시 admit test")
+    void testNestedAdmitCountsOnce() {
+        PointAdmissionLimiter limiter = new PointAdmissionLimiter(true, 1, 20L, 1, 1, 1, 2.0, PointMetrics.noop());
+
+        assertEquals(1, limiter.admit(1L, () -> limiter.admit(1L, () -> limiter.inFlight())).intValue());
+        assertThrows(AdmissionRejectedException.class, () -> limiter.admit(1L, () -> limiter.admit(2L, () -> 1)));
+        assertEquals(0, limiter.inFlight());
+        assertEquals(1, limiter.admit(2L, () -> 1).intValue());
+    }
+
+    /**
+     * table 호출 시간이 평소보다 tolerance 배 이상 길어지면 한도를 줄이고, 평소로 돌아오면 다시 늘린다.
+     */
+    @Test
+    @DisplayName("table 지연에 따른 한도 조정 test")
+    void testAdaptiveLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(50, 8, 200, 2.0);
+        long normal = TimeUnit.MILLISECONDS.toNanos(10);
+
+        // 한도를 거의 사용하지 않으면 늘리지 않음
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(normal, 1);
+        }
+        assertEquals(50, limit.limit());
+
+        for (int i = 0; i < 200; i++) {
+            limit.onSample(normal, limit.limit());
+        }
+        assertEquals(200, limit.limit());
+
+        // table 이 느려짐
+        for (int i = 0; i < 30; i++) {
+            limit.onSample(normal * 10, limit.limit());
+        }
+        assertTrue(limit.limit() < 50, "slow : " + limit.limit());
+
+        // 회복
+        for (int i = 0; i < 500; i++) {
+            limit.onSample(normal, limit.limit());
+        }
+        assertEquals(200, limit.limit());
+    }
+
+    private long p99OfOtherUsers(PointAdmissionLimiter limiter, PointMetrics pointMetrics) throws Exception {
+        PointServiceImpl pointService = new PointServiceImpl(
+                new TableUserPointRepository(new FixedLatencyUserPointTable(TABLE_LATENCY_MILLIS), pointMetrics, true),
+                new TablePointHistoryRepository(new FixedLatencyPointHistoryTable(TABLE_LATENCY_MILLIS), pointMetrics, true),
+                new UserLockManager(), ForkJoinPool.commonPool(), pointMetrics);
+        pointService.chargePoint(1L, 1_000_000L, System.currentTimeMillis());
+
+        ExecutorService requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+        AtomicInteger used = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> flood = new ArrayList<>();
+        for (int i = 0; i < FLOOD_REQUESTS; i++) {
+            flood.add(requestThreads.submit(() -> {
+                try {
+                    PointResult result = limiter.admit(1L, () -> pointService.usePoint(1L, 10L, System.currentTimeMillis()));
+                    assertEquals(PointValidation.SUCCESS, result.result());
+                    used.incrementAndGet();
+                } catch (AdmissionRejectedException e) {
+                    rejected.incrementAndGet();
+                }
+            }));
+        }
+
+        List<Future<Long>> others = new ArrayList<>();
+        for (long userId = 2; userId < 2 + OTHER_USERS; userId++) {
+            long id = userId;
+            long submitted = System.nanoTime();
+            others.add(requestThreads.submit(() -> {
+                limiter.admit(id, () -> pointService.chargePoint(id, 100L, System.currentTimeMillis()));
+                return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - submitted);
+            }));
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+
+        long[] latencies = new long[OTHER_USERS];
+        for (int i = 0; i < OTHER_USERS; i++) {
+            latencies[i] = others.get(i).get(1, TimeUnit.MINUTES);
+        }
+        for (Future<?> result : flood) {
+            result.get(1, TimeUnit.MINUTES);
+        }
+        requestThreads.shutdown();
+
+        assertEquals(FLOOD_REQUESTS, used.get() + rejected.get());
+        assertEquals(1_000_000L - used.get() * 10L, pointService.selectPointById(1L).point());
+        Arrays.sort(latencies);
+        return latencies[(int) Math.ceil(latencies.length * 0.99) - 1];
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.point.cluster.ConsistentHashRing;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 여러 node(localhost 의 다른 port)로 user 를 나누어 처리하는 cluster test
+ */
+class PointClusterTest {
+
+    private static final int VIRTUAL_NODES = 128;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    private final Map<String, ConfigurableApplicationContext> nodes = new HashMap<>();
+
+    @AfterEach
+    void tearDown() {
+        nodes.values().forEach(ConfigurableApplicationContext::close);
+        nodes.clear();
+    }
+
+    /**
+     * user 는 node 별로 고르게 나뉘고, node 를 추가하면 새 node 로 옮겨지는 user 만 소유 node 가 바뀐다.
+     */
+    @Test
+    @DisplayName("consistent hash ring 분배 및 이동 user 수 test")
+    void testRingDistribution() {
+        List<String> three = List.of("http://localhost:8081", "http://localhost:8082", "http://localhost:8083");
+        List<String> four = new ArrayList<>(three);
+        four.add("http://localhost:8084");
+        ConsistentHashRing before = new ConsistentHashRing(three, VIRTUAL_NODES);
+        ConsistentHashRing after = new ConsistentHashRing(four, VIRTUAL_NODES);
+
+        int users = 30_000;
+        Map<String, Integer> owned = new HashMap<>();
+        int moved = 0;
+        for (long userId = 1; userId <= users; userId++) {
+            owned.merge(before.ownerOf(userId), 1, Integer::sum);
+            String owner = after.ownerOf(userId);
+            if (!owner.equals(before.ownerOf(userId))) {
+                assertEquals("http://localhost:8084", owner);
+                moved++;
+            }
+        }
+
+        for (String node : three) {
+            double share = owned.get(node) / (double) users;
+            assertTrue(share > 0.25 && share < 0.42, node + " : " + share);
+        }
+        // 새 node 의 몫(1/4) 만큼만 이동
+        assertTrue(moved > users * 0.15 && moved < users * 0.35, "moved : " + moved);
+        assertEquals(before.ownerOf(42L), new ConsistentHashRing(List.of(three.get(2), three.get(0), three.get(1)), VIRTUAL_NODES).ownerOf(42L));
+    }
+
+    /**
+     * node 를 추가하고 제거해도 어느 node 로 요청하든 point / history 가 유지된다.
+     * 넘겨주기 응답이 유실되어도 이전 소유 node 는 확인을 받을 때까지 data 를 보관하므로 point 가 사라지지 않는다.
+     * 여러 user 조회는 다른 node 가 소유한 user 도 함께 반환한다.
+     */
+    @Test
+    @DisplayName("node 추가/제거 시 point, history 이동 test")
+    void testHandoffOnJoinAndLeave() throws Exception {
+        String a = newNode();
+        String b = newNode();
+        List<String> initial = List.of(a, b);
+        nodes.put(a, startNode(a, initial, 0));
+        nodes.put(b, startNode(b, initial, 0));
+
+        int users = 40;
+        for (long userId = 1; userId <= users; userId++) {
+            assertEquals(200, send(userId % 2 == 0 ? a : b, "PATCH", "/point/" + userId + "/charge", "100").statusCode());
+        }
+
+        // node 추가
+        String c = newNode();
+        nodes.put(c, startNode(c, initial, 0));
+        List<List<String>> memberships = List.of(initial, List.of(a, b, c));
+        installAll(memberships);
+
+        // c 로 옮겨지는 user 를 넘겨 달라고 요청하고 응답은 버림 (응답 유실)
+        ConsistentHashRing previous = new ConsistentHashRing(initial, VIRTUAL_NODES);
+        ConsistentHashRing joined = new ConsistentHashRing(List.of(a, b, c), VIRTUAL_NODES);
+        long lost = 1;
+        while (!c.equals(joined.ownerOf(lost))) {
+            lost++;
+        }
+        String from = URLEncoder.encode(c, StandardCharsets.UTF_8);
+        assertEquals(200, send(previous.ownerOf(lost), "POST", "/cluster/users/" + lost + "/release?epoch=1&from=" + from, null).statusCode());
+        assertTrue(send(c, "GET", "/point/" + lost, null).body().contains("\"point\":100"));
+
+        for (long userId = 1; userId <= users; userId++) {
+            String node = List.of(a, b, c).get((int) (userId % 3));
+            assertEquals(200, send(node, "PATCH", "/point/" + userId + "/charge", "50").statusCode());
+        }
+        assertTrue(send(c, "GET", "/cluster/memberships", null).body().contains(c));
+        assertUsers(List.of(a, b, c), users, 150L, 2);
+
+        // node 제거 : 제거할 node 의 user 를 먼저 옮긴 뒤 종료
+        installAll(List.of(initial, List.of(a, b, c), initial));
+        assertEquals(200, send(c, "POST", "/cluster/drain", null).statusCode());
+        nodes.remove(c).close();
+        assertUsers(List.of(a, b), users, 150L, 2);
+        for (long userId = 1; userId <= users; userId++) {
+            assertEquals(200, send(a, "PATCH", "/point/" + userId + "/use", "30").statusCode());
+        }
+        assertUsers(List.of(a, b), users, 120L, 3);
+
+        // 여러 user 조회는 소유 node 별로 묶어 조회
+        StringBuilder ids = new StringBuilder();
+        for (long userId = 1; userId <= users; userId++) {
+            ids.append(userId == 1 ? "" : ",").append(userId);
+        }
+        String lookup = send(a, "GET", "/point?ids=" + ids, null).body();
+        assertTrue(lookup.contains("\"unresolvedIds\":[]"), lookup);
+        assertEquals(users, lookup.split("\"point\":120").length - 1, lookup);
+    }
+
+    /**
+     * node 별 요청 처리 thread 가 같을 때 node 를 3 개로 늘리면 쓰기 처리량도 늘어난다.
+     * (client 는 소유 node 로 바로 요청, 실행 환경의 core 수에 따라 결과가 달라지므로 throughputTest task 에서 실행)
+     */
+    @Test
+    @Tag("throughput")
+    @DisplayName("node 수에 따른 쓰기 처리량 test")
+    void testWriteThroughputScales() throws Exception {
+        long single = measureWrites(1);
+        tearDown();
+        long triple = measureWrites(3);
+
+        assertTrue(triple * 1.5 < single, "1 node : " + single + "ms, 3 nodes : " + triple + "ms");
+    }
+
+    private long measureWrites(int count) throws Exception {
+        List<String> members = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            members.add(newNode());
+        }
+        for (String node : members) {
+            nodes.put(node, startNode(node, members, 8));
+        }
+        ConsistentHashRing ring = new ConsistentHashRing(members, VIRTUAL_NODES);
+
+        int requests = 240;
+        ExecutorService clients = Executors.newFixedThreadPool(48);
+        long start = System.nanoTime();
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            long userId = 1 + i % 120;
+            results.add(clients.submit(() -> send(ring.ownerOf(userId), "PATCH", "/point/" + userId + "/charge", "10").statusCode()));
+        }
+        for (Future<Integer> result : results) {
+            assertEquals(200, result.get(2, TimeUnit.MINUTES).intValue());
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        clients.shutdown();
+        return elapsedMillis;
+    }
+
+    private void assertUsers(List<String> members, int users, long point, int histories) throws Exception {
+        for (long userId = 1; userId <= users; userId++) {
+            for (String node : members) {
+                assertTrue(send(node, "GET", "/point/" + userId, null).body().contains("\"point\":" + point), node + " user " + userId);
+                String body = send(node, "GET", "/point/" + userId + "/histories", null).body();
+                assertEquals(histories, body.split("\"userId\"").length - 1, node + " user " + userId);
+            }
+        }
+    }
+
+    private void installAll(List<List<String>> memberships) throws Exception {
+        StringBuilder body = new StringBuilder("[");
+        for (List<String> membership : memberships) {
+            body.append(body.length() == 1 ? "[" : ",[");
+            for (int i = 0; i < membership.size(); i++) {
+                body.append(i == 0 ? "" : ",").append('"').append(membership.get(i)).append('"');
+            }
+            body.append(']');
+        }
+        body.append(']');
+        for (String node : nodes.keySet()) {
+            assertEquals(200, send(node, "PUT", "/cluster/memberships", body.toString()).statusCode());
+        }
+    }
+
+    private ConfigurableApplicationContext startNode(String node, List<String> members, int tomcatThreads) {
+        List<String> properties = new ArrayList<>(List.of(
+                "server.port=" + URI.create(node).getPort(),
+                "point.cluster.enabled=true",
+                "point.cluster.self=" + node,
+                "point.cluster.nodes=" + String.join(",", members),
+                "point.cluster.virtual-nodes=" + VIRTUAL_NODES));
+        if (tomcatThreads > 0) {
+            properties.add("server.tomcat.threads.max=" + tomcatThreads);
+        }
+        return new SpringApplicationBuilder(TddApplication.class)
+                .properties(properties.toArray(String[]::new))
+                .run();
+    }
+
+    private HttpResponse<String> send(String node, String method, String path, String body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(node + path))
+                .header("Content-Type", "application/json")
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * 사용하지 않는 port 의 node 주소
+     */
+    private static String newNode() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return "http://localhost:" + socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.point.AdmissionRejectedException;
+import io.hhplus.tdd.point.HandlePointException;
+import io.hhplus.tdd.point.IdempotencyKeyReusedException;
+import io.hhplus.tdd.point.admission.PointAdmissionLimiter;
+import io.hhplus.tdd.point.controller.PointController;
+import io.hhplus.tdd.point.model.PointResult;
+import io.hhplus.tdd.point.service.PointService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * write-behind(point.write-behind.enabled=true)에서 queue 처리 중 실패한 요청의 응답 코드 test
+ * 처리 결과 future 가 예외로 끝나면 CompletionException 이 아닌 원래 예외의 응답 코드로 응답해야 한다
+ */
+class PointControllerWriteBehindTest {
+
+    private static final long USER_ID = 1L;
+
+    private final PointService pointService = mock(PointService.class);
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        PointController pointController = new PointController();
+        ReflectionTestUtils.setField(pointController, "pointService", pointService);
+        ReflectionTestUtils.setField(pointController, "pointAdmissionLimiter", new PointAdmissionLimiter());
+        ReflectionTestUtils.setField(pointController, "writeBehindEnabled", true);
+        mockMvc = MockMvcBuilders.standaloneSetup(pointController)
+                .setControllerAdvice(new ApiControllerAdvice())
+                .build();
+    }
+
+    /**
+     * 처리 중인 Idempotency-Key 가 너무 많아 거절된 요청의 결과를 기다리던 요청도 429 로 응답한다.
+     */
+    @Test
+    @DisplayName("write-behind 충전 수용 거절 시 429 test")
+    void testAdmissionRejected() throws Exception {
+        when(pointService.chargePointAsync(eq(USER_ID), eq(100L), anyLong(), any()))
+                .thenReturn(failed(new AdmissionRejectedException("처리 중인 요청이 너무 많습니다.")));
+
+        mockMvc.perform(patch("/point/{id}/charge", USER_ID)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("100")
+                        .header(PointController.IDEMPOTENCY_KEY_HEADER, "charge-1"))
+                .andExpect(status().is(429))
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    /**
+     * 다른 요청에 사용한 Idempotency-Key 로 요청하면 422 로 응답한다.
+     */
+    @Test
+    @DisplayName("write-behind Idempotency-Key 재사용 시 422 test")
+    void testIdempotencyKeyReused() throws Exception {
+        when(pointService.usePointAsync(eq(USER_ID), eq(100L), anyLong(), any()))
+                .thenReturn(failed(new IdempotencyKeyReusedException("이미 다른 요청에 사용한 Idempotency-Key 입니다.")));
+
+        mockMvc.perform(patch("/point/{id}/use", USER_ID)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("100")
+                        .header(PointController.IDEMPOTENCY_KEY_HEADER, "use-1"))
+                .andExpect(status().is(422));
+    }
+
+    /**
+     * queue 처리 중 point 를 되돌리지 못한 경우(HandlePointException) 402 로 응답한다.
+     */
+    @Test
+    @DisplayName("write-behind 처리 중 HandlePointException 시 402 test")
+    void testHandlePointException() throws Exception {
+        when(pointService.chargePointAsync(eq(USER_ID), eq(100L), anyLong(), any()))
+                .thenReturn(failed(new HandlePointException("point 를 되돌리지 못했습니다.")));
+        when(pointService.usePointAsync(eq(USER_ID), eq(100L), anyLong(), any()))
+                .thenReturn(failed(new HandlePointException("point 를 되돌리지 못했습니다.")));
+
+        mockMvc.perform(patch("/point/{id}/charge", USER_ID)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("100"))
+                .andExpect(status().is(402));
+        mockMvc.perform(patch("/point/{id}/use", USER_ID)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("100"))
+                .andExpect(status().is(402));
+    }
+
+    /**
+     * queue 처리(다른 thread)에서 실패한 것처럼 future 가 예외로 끝나도록 만든다
+     */
+    private static CompletableFuture<PointResult> failed(RuntimeException e) {
+        return CompletableFuture.supplyAsync(() -> {
+            throw e;
+        });
+    }
+}
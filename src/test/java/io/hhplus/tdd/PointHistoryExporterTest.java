@@ -0,0 +1,170 @@
+package io.hhplus.tdd;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hhplus.tdd.database.IndexedPointHistoryRepository;
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.database.TablePointHistoryRepository;
+import io.hhplus.tdd.database.TableUserPointRepository;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.controller.PointHistoryExporter;
+import io.hhplus.tdd.point.lock.UserLockManager;
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import io.hhplus.tdd.point.model.PointHistory;
+import io.hhplus.tdd.point.model.PointHistoryPage;
+import io.hhplus.tdd.point.model.PointHistoryQuery;
+import io.hhplus.tdd.point.model.TransactionType;
+import io.hhplus.tdd.point.service.impl.PointServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * heapLimitedTest task 에서 작은 heap(-Xmx64m)으로 실행
+ */
+@Tag("heap-limited")
+class PointHistoryExporterTest {
+
+    private static final long USER_ID = 1L;
+
+    /**
+     * 한 줄에 history 하나씩, 저장된 순서대로 출력된다.
+     */
+    @Test
+    @DisplayName("history NDJSON 출력 test")
+    void testExportFormat() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long count = exporterOf(new SyntheticHistoryRepository(2_500), objectMapper).export(USER_ID, outputStream);
+
+        String[] lines = outputStream.toString().split("\n");
+        assertEquals(2_500L, count);
+        assertEquals(2_500, lines.length);
+        assertEquals(SyntheticHistoryRepository.historyOf(1L), objectMapper.readValue(lines[0], PointHistory.class));
+        assertEquals(SyntheticHistoryRepository.historyOf(2_500L), objectMapper.readValue(lines[2_499], PointHistory.class));
+    }
+
+    /**
+     * indexed 저장소에 저장한 history(primitive 배열로 heap 의 절반 가까이 차지)를
+     * PointHistory 목록으로 한 번에 만들면 heap(64MB)을 넘지만, 페이지 단위로 출력하므로 끝까지 출력된다.
+     */
+    @Test
+    @DisplayName("대용량 history NDJSON 출력 test")
+    void testExportLargeHistory() throws Exception {
+        int size = 1_000_000;
+        try (IndexedPointHistoryRepository pointHistoryRepository = new IndexedPointHistoryRepository()) {
+            for (int i = 1; i <= size; i++) {
+                pointHistoryRepository.insert(USER_ID, i * 10L, TransactionType.CHARGE, 1_700_000_000_000L + i);
+            }
+            CountingOutputStream outputStream = new CountingOutputStream();
+
+            long count = exporterOf(pointHistoryRepository, new ObjectMapper()).export(USER_ID, outputStream);
+
+            assertEquals(size, count);
+            assertEquals(size, outputStream.lines);
+        }
+    }
+
+    /**
+     * table 저장소는 페이지마다 전체 history 를 다시 읽지 않고
+     * table 조회 한 번으로 user 의 history 만 저장된 순서대로 출력한다.
+     */
+    @Test
+    @DisplayName("table 저장소 history NDJSON 출력 test")
+    void testExportTableHistory() throws Exception {
+        int size = 3 * PointHistoryQuery.MAX_LIMIT + 7;
+        AtomicInteger tableReads = new AtomicInteger();
+        FixedLatencyPointHistoryTable pointHistoryTable = new FixedLatencyPointHistoryTable(0L) {
+            @Override
+            public List<PointHistory> selectAllByUserId(long userId) {
+                tableReads.incrementAndGet();
+                return super.selectAllByUserId(userId);
+            }
+        };
+        for (int i = 1; i <= size; i++) {
+            pointHistoryTable.insert(USER_ID, i * 10L, TransactionType.CHARGE, 1_700_000_000_000L + i);
+            pointHistoryTable.insert(USER_ID + 1, i, TransactionType.CHARGE, 1_700_000_000_000L + i);
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long count = exporterOf(new TablePointHistoryRepository(pointHistoryTable), objectMapper).export(USER_ID, outputStream);
+
+        String[] lines = outputStream.toString().split("\n");
+        assertEquals(size, count);
+        assertEquals(size, lines.length);
+        assertEquals(1, tableReads.get());
+        List<PointHistory> histories = pointHistoryTable.selectAllByUserId(USER_ID);
+        assertEquals(histories.get(0), objectMapper.readValue(lines[0], PointHistory.class));
+        assertEquals(histories.get(size - 1), objectMapper.readValue(lines[size - 1], PointHistory.class));
+    }
+
+    private static PointHistoryExporter exporterOf(PointHistoryRepository pointHistoryRepository, ObjectMapper objectMapper) {
+        PointServiceImpl pointService = new PointServiceImpl(new TableUserPointRepository(new UserPointTable()), pointHistoryRepository,
+                new UserLockManager(), ForkJoinPool.commonPool(), PointMetrics.noop());
+        return new PointHistoryExporter(pointService, objectMapper);
+    }
+
+    /**
+     * 요청한 페이지만 그때그때 만들어 반환하는 저장소 (전체 조회는 지원하지 않음)
+     */
+    private static class SyntheticHistoryRepository implements PointHistoryRepository {
+        private final long size;
+
+        SyntheticHistoryRepository(long size) {
+            this.size = size;
+        }
+
+        static PointHistory historyOf(long id) {
+            return new PointHistory(id, USER_ID, id * 10, id % 2 == 0 ? TransactionType.USE : TransactionType.CHARGE, 1_700_000_000_000L + id);
+        }
+
+        @Override
+        public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<PointHistory> selectAllByUserId(long userId) {
+            throw new UnsupportedOperationException("전체 history 를 한 번에 조회하면 안 됩니다.");
+        }
+
+        @Override
+        public PointHistoryPage selectPage(long userId, PointHistoryQuery query) {
+            long first = query.cursor() == null ? 1 : query.cursor() + 1;
+            long last = Math.min(size, first + query.limit() - 1);
+            List<PointHistory> histories = new ArrayList<>();
+            for (long id = first; id <= last; id++) {
+                histories.add(historyOf(id));
+            }
+            return new PointHistoryPage(histories, last < size ? last : null);
+        }
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.point.LookupLimitExceededException;
+import io.hhplus.tdd.point.lookup.PointLookup;
+import io.hhplus.tdd.point.model.PointLookupResult;
+import io.hhplus.tdd.point.model.UserPoint;
+import io.hhplus.tdd.point.service.impl.PointServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PointLookupTest {
+
+    private static final long TABLE_LATENCY_MILLIS = 50L;
+
+    private final ExecutorService executorService = Executors.newFixedThreadPool(64);
+
+    @AfterEach
+    void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    /**
+     * table 조회가 한 번에 50ms 걸릴 때 200 명을 동시에 조회하면 순서대로 조회(10 초)보다 훨씬 빨리 끝나고,
+     * 요청 순서대로 중복 없이 모든 point 를 반환한다.
+     */
+    @Test
+    @DisplayName("여러 user point 동시 조회 test")
+    void testLookupInParallel() {
+        PointServiceImpl pointService = new PointServiceImpl(new FixedLatencyUserPointTable(TABLE_LATENCY_MILLIS),
+                new FixedLatencyPointHistoryTable(0L));
+        for (long userId = 1; userId <= 10; userId++) {
+            pointService.chargePoint(userId, userId * 100, System.currentTimeMillis());
+        }
+        PointLookup pointLookup = new PointLookup(pointService, executorService, 32, 5_000L);
+
+        List<Long> ids = new ArrayList<>(LongStream.rangeClosed(1, 200).boxed().toList());
+        ids.add(3L);
+        long start = System.nanoTime();
+        PointLookupResult result = pointLookup.lookup(ids);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMillis < 2_000L, "elapsed : " + elapsedMillis + "ms");
+        assertTrue(result.unresolvedIds().isEmpty());
+        assertEquals(200, result.points().size());
+        for (int i = 0; i < 200; i++) {
+            UserPoint userPoint = result.points().get(i);
+            assertEquals(i + 1, userPoint.id());
+            assertEquals(userPoint.id() <= 10 ? userPoint.id() * 100 : 0L, userPoint.point());
+        }
+    }
+
+    /**
+     * 제한 시간이 지나면 조회를 기다리지 않고, 조회한 point 와 조회하지 못한 id 를 나누어 반환한다.
+     */
+    @Test
+    @DisplayName("제한 시간 초과 시 일부 결과 반환 test")
+    void testPartialResultOnDeadline() {
+        PointServiceImpl pointService = new PointServiceImpl(new FixedLatencyUserPointTable(TABLE_LATENCY_MILLIS),
+                new FixedLatencyPointHistoryTable(0L));
+        PointLookup pointLookup = new PointLookup(pointService, executorService, 2, 180L);
+
+        long start = System.nanoTime();
+        PointLookupResult result = pointLookup.lookup(LongStream.rangeClosed(1, 100).boxed().toList());
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMillis < 1_000L, "elapsed : " + elapsedMillis + "ms");
+        assertFalse(result.points().isEmpty());
+        assertFalse(result.unresolvedIds().isEmpty());
+        assertEquals(100, result.points().size() + result.unresolvedIds().size());
+
+        Set<Long> all = new HashSet<>(result.unresolvedIds());
+        result.points().forEach(userPoint -> all.add(userPoint.id()));
+        assertEquals(100, all.size());
+    }
+
+    /**
+     * 한 요청의 id 수가 maxIds 를 넘으면 조회하지 않고 거절한다.
+     */
+    @Test
+    @DisplayName("조회 id 수 제한 test")
+    void testMaxIds() {
+        PointServiceImpl pointService = new PointServiceImpl(new FixedLatencyUserPointTable(0L), new FixedLatencyPointHistoryTable(0L));
+        PointLookup pointLookup = new PointLookup(pointService, executorService, 4, 1_000L, 5);
+
+        assertEquals(5, pointLookup.lookup(LongStream.rangeClosed(1, 5).boxed().toList()).points().size());
+        assertThrows(LookupLimitExceededException.class, () -> pointLookup.lookup(LongStream.rangeClosed(1, 6).boxed().toList()));
+    }
+}
@@ -0,0 +1,346 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.TablePointHistoryRepository;
+import io.hhplus.tdd.database.TableUserPointRepository;
+import io.hhplus.tdd.point.ClusterUnavailableException;
+import io.hhplus.tdd.point.lock.UserLockManager;
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import io.hhplus.tdd.point.model.PointHistory;
+import io.hhplus.tdd.point.model.PointOperation;
+import io.hhplus.tdd.point.model.PointOperationResult;
+import io.hhplus.tdd.point.model.PointResult;
+import io.hhplus.tdd.point.model.PointValidation;
+import io.hhplus.tdd.point.model.TransactionType;
+import io.hhplus.tdd.point.model.UserPoint;
+import io.hhplus.tdd.point.service.impl.PointServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PointServiceConcurrencyTest {
+
+    private static final long TABLE_LATENCY_MILLIS = 5L;
+    private static final int THREADS = 8;
+    private static final int OPERATIONS = 80;
+
+    private PointServiceImpl pointService;
+
+    private FixedLatencyUserPointTable userPointTable;
+
+    @BeforeEach
+    void setUp() {
+        // 고정 지연 table 은 직접 동기화하므로 repository 의 table lock 없이 user 별로 병렬 처리
+        PointMetrics pointMetrics = PointMetrics.noop();
+        userPointTable = new FixedLatencyUserPointTable(TABLE_LATENCY_MILLIS);
+        pointService = new PointServiceImpl(
+                new TableUserPointRepository(userPointTable, pointMetrics, true),
+                new TablePointHistoryRepository(new FixedLatencyPointHistoryTable(TABLE_LATENCY_MILLIS), pointMetrics, true),
+                new UserLockManager(), ForkJoinPool.commonPool(), pointMetrics);
+    }
+
+    /**
+     * 같은 user 에 대한 충전/사용은 순차 처리 되어야 하므로
+     * 동시에 충전하더라도 누락 없이 모든 충전 금액이 반영된다.
+     */
+    @Test
+    @DisplayName("같은 user 동시 충전 시 누락 없음 test")
+    void testSameUserSerialized() throws InterruptedException {
+        long userId = 1L;
+
+        run(OPERATIONS, i -> userId);
+
+        assertEquals(OPERATIONS * 100L, pointService.selectPointById(userId).point());
+        assertEquals(OPERATIONS, pointService.selectHistoryById(userId).size());
+    }
+
+    /**
+     * 같은 user 의 충전은 table 저장이 겹치지 않고,
+     * 서로 다른 user 의 충전은 병렬로 처리되므로 table 저장이 겹친다.
+     */
+    @Test
+    @DisplayName("서로 다른 user 충전의 병렬 처리 test")
+    void testDistinctUsersOverlap() throws InterruptedException {
+        run(OPERATIONS, i -> 1L);
+        assertEquals(1, userPointTable.peakConcurrentWrites());
+
+        run(OPERATIONS, i -> 100L + i % THREADS);
+        assertTrue(userPointTable.peakConcurrentWrites() > 1, "peak : " + userPointTable.peakConcurrentWrites());
+
+        for (int i = 0; i < THREADS; i++) {
+            assertEquals(OPERATIONS / THREADS * 100L, pointService.selectPointById(100L + i).point());
+        }
+    }
+
+    /**
+     * 서로 다른 user 의 충전은 병렬로 처리되므로
+     * user 수가 늘어날수록 처리량이 증가한다.
+     * (실행 시간 비교는 실행 환경의 core 수와 부하에 따라 달라지므로 기본 test 에서 제외, ./gradlew throughputTest 로 실행)
+     */
+    @Test
+    @Tag("throughput")
+    @DisplayName("user 수에 따른 처리량 증가 test")
+    void testThroughputGrowsWithDistinctUsers() throws InterruptedException {
+        long singleUserMillis = run(OPERATIONS, i -> 1L);
+        long multiUserMillis = run(OPERATIONS, i -> 100L + i % THREADS);
+
+        // 1명 : 모든 요청이 순차 처리 / 8명 : 최대 8개 요청이 동시에 처리
+        assertTrue(multiUserMillis * 3 < singleUserMillis,
+                "single user : " + singleUserMillis + "ms, " + THREADS + " users : " + multiUserMillis + "ms");
+
+        for (int i = 0; i < THREADS; i++) {
+            assertEquals(OPERATIONS / THREADS * 100L, pointService.selectPointById(100L + i).point());
+        }
+    }
+
+    /**
+     * 기본 구성(point.table.thread-safe=false)에서는 thread-safe 하지 않은 table 을 보호하기 위해
+     * user 와 관계없이 table 저장을 한 번에 하나씩 처리하므로, 서로 다른 user 의 요청이라도 table 저장은 겹치지 않는다.
+     * (처리량은 table 저장 시간으로 제한되며, 서로 다른 user 의 저장을 병렬로 처리하려면 primitive / indexed 저장소를 사용)
+     */
+    @Test
+    @DisplayName("기본 table 구성에서 table 저장 직렬화 test")
+    void testDefaultTableWiringSerializesWrites() throws InterruptedException {
+        FixedLatencyUserPointTable userPointTable = new FixedLatencyUserPointTable(TABLE_LATENCY_MILLIS);
+        FixedLatencyPointHistoryTable pointHistoryTable = new FixedLatencyPointHistoryTable(TABLE_LATENCY_MILLIS);
+        pointService = new PointServiceImpl(userPointTable, pointHistoryTable);
+
+        run(OPERATIONS, i -> 100L + i % THREADS);
+
+        assertEquals(1, userPointTable.peakConcurrentWrites());
+        assertEquals(1, pointHistoryTable.peakConcurrentWrites());
+        for (int i = 0; i < THREADS; i++) {
+            assertEquals(OPERATIONS / THREADS * 100L, pointService.selectPointById(100L + i).point());
+        }
+    }
+
+    /**
+     * 충전이 진행 중(table 저장 대기)이더라도 조회는 기다리지 않고
+     * 마지막으로 확정된 point 를 반환한다.
+     */
+    @Test
+    @DisplayName("충전 진행 중 조회 시 확정된 point 반환 test")
+    void testReadDoesNotBlockBehindWriter() throws Exception {
+        long userId = 7L;
+        CountDownLatch writeStarted = new CountDownLatch(1);
+        CountDownLatch releaseWrite = new CountDownLatch(1);
+        FixedLatencyUserPointTable blockingTable = new FixedLatencyUserPointTable(TABLE_LATENCY_MILLIS) {
+            @Override
+            public UserPoint insertOrUpdate(long id, long amount) {
+                if (amount == 300L) {
+                    writeStarted.countDown();
+                    try {
+                        releaseWrite.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.insertOrUpdate(id, amount);
+            }
+        };
+        pointService = new PointServiceImpl(blockingTable, new FixedLatencyPointHistoryTable(TABLE_LATENCY_MILLIS));
+        pointService.chargePoint(userId, 100L, System.currentTimeMillis());
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        Future<PointResult> pendingCharge = executorService.submit(() -> pointService.chargePoint(userId, 200L, System.currentTimeMillis()));
+        assertTrue(writeStarted.await(5, TimeUnit.SECONDS));
+
+        // 저장이 끝나지 않은 300 이 아닌, 확정된 100 이 조회되어야 한다
+        assertEquals(100L, pointService.selectPointById(userId).point());
+
+        releaseWrite.countDown();
+        assertEquals(300L, pendingCharge.get(5, TimeUnit.SECONDS).userPoint().point());
+        executorService.shutdown();
+        assertEquals(300L, pointService.selectPointById(userId).point());
+    }
+
+    /**
+     * 같은 user 의 요청이 한꺼번에 들어오면 queue 에서 묶어서 처리하므로 point 저장 횟수는 요청 수보다 적고,
+     * 요청 별 결과는 들어온 순서대로 적용한 결과와 같다.
+     */
+    @Test
+    @DisplayName("같은 user 요청 batch 처리 test")
+    void testQueuedCommandsAreBatchedInOrder() {
+        long userId = 9L;
+        AtomicInteger writes = new AtomicInteger();
+        pointService = new PointServiceImpl(new FixedLatencyUserPointTable(TABLE_LATENCY_MILLIS) {
+            @Override
+            public UserPoint insertOrUpdate(long id, long amount) {
+                writes.incrementAndGet();
+                return super.insertOrUpdate(id, amount);
+            }
+        }, new FixedLatencyPointHistoryTable(TABLE_LATENCY_MILLIS));
+
+        List<CompletableFuture<PointResult>> results = new ArrayList<>();
+        results.add(pointService.usePointAsync(userId, 50L, System.currentTimeMillis()));
+        for (int i = 0; i < 20; i++) {
+            results.add(pointService.chargePointAsync(userId, 100L, System.currentTimeMillis()));
+        }
+        results.add(pointService.chargePointAsync(userId, -1L, System.currentTimeMillis()));
+        results.add(pointService.usePointAsync(userId, 1500L, System.currentTimeMillis()));
+        results.add(pointService.usePointAsync(userId, 1000L, System.currentTimeMillis()));
+
+        List<String> outcomes = results.stream().map(CompletableFuture::join).map(PointResult::result).toList();
+
+        assertEquals(PointValidation.INSUFFICIENT, outcomes.get(0));
+        for (int i = 1; i <= 20; i++) {
+            assertEquals(PointValidation.SUCCESS, outcomes.get(i));
+        }
+        assertEquals(PointValidation.INVALID_AMOUNT, outcomes.get(21));
+        assertEquals(PointValidation.SUCCESS, outcomes.get(22));
+        assertEquals(PointValidation.INSUFFICIENT, outcomes.get(23));
+        // 요청 별로 해당 요청을 반영한 직후의 point 를 반환
+        assertEquals(0L, results.get(0).join().userPoint().point());
+        assertEquals(2000L, results.get(20).join().userPoint().point());
+        assertEquals(500L, results.get(23).join().userPoint().point());
+
+        assertEquals(500L, pointService.selectPointById(userId).point());
+        assertEquals(21, pointService.selectHistoryById(userId).size());
+        assertTrue(writes.get() < outcomes.size() / 2, "point writes : " + writes.get());
+    }
+
+    /**
+     * queue 에서 묶어서 처리한 요청의 point 저장이 끝내 실패하면 단건 요청과 같이 이전 point 로 되돌리는 history 를 남기고
+     * 묶인 요청 모두 실패로 끝나므로, history 의 마지막 point 와 저장된 point 가 같게 유지된다.
+     */
+    @Test
+    @DisplayName("batch 처리 중 point 저장 실패 시 보정 history test")
+    void testBatchedPointFailureCompensated() {
+        long userId = 11L;
+        AtomicInteger attempts = new AtomicInteger();
+        pointService = new PointServiceImpl(new FixedLatencyUserPointTable(0L) {
+            @Override
+            public UserPoint insertOrUpdate(long id, long amount) {
+                if (amount > 1000L) {
+                    attempts.incrementAndGet();
+                    throw new IllegalStateException("point 저장 실패");
+                }
+                return super.insertOrUpdate(id, amount);
+            }
+        }, new FixedLatencyPointHistoryTable(0L));
+        pointService.chargePoint(userId, 1000L, System.currentTimeMillis());
+
+        List<CompletableFuture<PointResult>> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            results.add(pointService.chargePointAsync(userId, 100L, System.currentTimeMillis()));
+        }
+        for (CompletableFuture<PointResult> result : results) {
+            assertThrows(CompletionException.class, result::join);
+        }
+
+        List<PointHistory> histories = pointService.selectHistoryById(userId);
+        assertEquals(1000L, pointService.selectPointById(userId).point());
+        assertEquals(1000L, histories.get(histories.size() - 1).amount());
+        // 실패한 point 저장은 재시도한 뒤 보정
+        assertTrue(attempts.get() >= 3, "attempts : " + attempts.get());
+    }
+
+    /**
+     * 일괄 처리 시 같은 user 의 요청은 순서대로 적용되고,
+     * 결과는 요청 순서대로 반환된다.
+     */
+    @Test
+    @DisplayName("일괄 충전/사용 test")
+    void testApplyAll() {
+        int users = 50;
+        List<PointOperation> operations = new ArrayList<>();
+        for (int round = 0; round < 4; round++) {
+            for (long userId = 1; userId <= users; userId++) {
+                // user 별 순서 : 충전 100 > 사용 150(부족) > 충전 100 > 사용 150(성공)
+                operations.add(round % 2 == 0
+                        ? new PointOperation(userId, 100L, TransactionType.CHARGE)
+                        : new PointOperation(userId, 150L, TransactionType.USE));
+            }
+        }
+        operations.add(new PointOperation(1L, 100L, null));
+
+        List<PointOperationResult> results = pointService.applyAll(operations);
+
+        assertEquals(operations.size(), results.size());
+        for (int i = 0; i < users * 4; i++) {
+            PointOperationResult result = results.get(i);
+            assertEquals(operations.get(i).userId(), result.userId());
+            String expected = i / users == 1 ? PointValidation.INSUFFICIENT : PointValidation.SUCCESS;
+            assertEquals(expected, result.result());
+        }
+        assertEquals(PointValidation.INVALID_AMOUNT, results.get(users * 4).result());
+        for (long userId = 1; userId <= users; userId++) {
+            assertEquals(50L, pointService.selectPointById(userId).point());
+        }
+    }
+
+    /**
+     * 일괄 처리 중 queue 에서 저장이 실패하면 CompletionException 이 아닌 원래 예외를 전달하여
+     * controller advice 가 예외 종류에 맞는 응답 코드로 변환할 수 있다.
+     */
+    @Test
+    @DisplayName("일괄 처리 중 저장 실패 시 원래 예외 전달 test")
+    void testApplyAllFailureUnwrapped() {
+        pointService = new PointServiceImpl(new FixedLatencyUserPointTable(0L) {
+            @Override
+            public UserPoint insertOrUpdate(long id, long amount) {
+                if (id == 2L) {
+                    throw new IllegalStateException("point 저장 실패");
+                }
+                return super.insertOrUpdate(id, amount);
+            }
+        }, new FixedLatencyPointHistoryTable(0L));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> pointService.applyAll(List.of(
+                new PointOperation(1L, 100L, TransactionType.CHARGE),
+                new PointOperation(2L, 100L, TransactionType.CHARGE))));
+        assertEquals("point 저장 실패", e.getMessage());
+        assertEquals(100L, pointService.selectPointById(1L).point());
+    }
+
+    /**
+     * 일괄 처리의 guard 는 user lock 안에서 user 별로 호출되며,
+     * guard 가 ClusterUnavailableException 으로 거절한 user 의 요청만 반영하지 않고 UNAVAILABLE 로 반환한다.
+     */
+    @Test
+    @DisplayName("일괄 처리 guard 거절 시 해당 user 만 UNAVAILABLE test")
+    void testApplyAllGuardRejected() {
+        List<PointOperationResult> results = pointService.applyAll(List.of(
+                new PointOperation(1L, 100L, TransactionType.CHARGE),
+                new PointOperation(2L, 100L, TransactionType.CHARGE),
+                new PointOperation(1L, 50L, TransactionType.USE)), userId -> {
+            if (userId == 2L) {
+                throw new ClusterUnavailableException("user " + userId + " 의 소유 node 가 아닙니다.");
+            }
+        });
+
+        assertEquals(List.of(PointValidation.SUCCESS, PointValidation.UNAVAILABLE, PointValidation.SUCCESS),
+                results.stream().map(PointOperationResult::result).toList());
+        assertEquals(50L, pointService.selectPointById(1L).point());
+        assertEquals(0L, pointService.selectPointById(2L).point());
+    }
+
+    private long run(int operations, IntToLongFunction userIdOf) throws InterruptedException {
+        ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+
+        for (int i = 0; i < operations; i++) {
+            long userId = userIdOf.applyAsLong(i);
+            executorService.submit(() -> pointService.chargePoint(userId, 100L, System.currentTimeMillis()));
+        }
+
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(1, TimeUnit.MINUTES));
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+}
@@ -2,6 +2,7 @@ package io.hhplus.tdd;
 
 import io.hhplus.tdd.database.PointHistoryTable;
 import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.model.PointResult;
 import io.hhplus.tdd.point.model.PointValidation;
 import io.hhplus.tdd.point.model.TransactionType;
 import io.hhplus.tdd.point.model.UserPoint;
@@ -30,6 +31,10 @@ class PointServiceTest {
         userPointTable = mock(UserPointTable.class);
         pointHistoryTable = mock(PointHistoryTable.class);
         pointService = new PointServiceImpl(userPointTable, pointHistoryTable); // Constructor injection for mocks
+
+        // table 과 동일하게 저장된 UserPoint 를 반환하도록 설정
+        when(userPointTable.insertOrUpdate(anyLong(), anyLong()))
+                .thenAnswer(invocation -> new UserPoint(invocation.getArgument(0), invocation.getArgument(1), System.currentTimeMillis()));
     }
 
     /**
@@ -47,10 +52,10 @@ class PointServiceTest {
         when(userPointTable.selectById(userId)).thenReturn(userPoint);
 
         // 충전 포인트로 음수로 지정하는 객체 생성
-        String result = pointService.chargePoint(userId, -100L, now);
+        PointResult result = pointService.chargePoint(userId, -100L, now);
 
         // INVALID_AMOUNT 음수 값으로 충전 할 수 없음
-        assertEquals(PointValidation.INVALID_AMOUNT, result);
+        assertEquals(PointValidation.INVALID_AMOUNT, result.result());
     }
 
     /**
@@ -68,10 +73,10 @@ class PointServiceTest {
         when(userPointTable.selectById(userId)).thenReturn(userPoint);
 
         // 최대 포인트를 이미 도달했지만, 1L 포인트를 충전 하고자 시도
-        String result = pointService.chargePoint(userId, 1L, now);
+        PointResult result = pointService.chargePoint(userId, 1L, now);
         
         // EXCEED 포인트 초과로 충전 할 수 없음
-        assertEquals(PointValidation.EXCEED, result);
+        assertEquals(PointValidation.EXCEED, result.result());
     }
 
     /**
@@ -89,10 +94,12 @@ class PointServiceTest {
         when(userPointTable.selectById(userId)).thenReturn(userPoint);
 
         // 1000L 충전
-        String result = pointService.chargePoint(userId, 1000L, now);
+        PointResult result = pointService.chargePoint(userId, 1000L, now);
 
         // 충전 포인트(amount) 가 음수도 아니고, 충전 후 포인트가 최대 포인트에 도달하지 않기 때문에 성공
-        assertEquals(PointValidation.SUCCESS, result);
+        assertEquals(PointValidation.SUCCESS, result.result());
+        // 저장된 point 를 결과로 반환
+        assertEquals(6000L, result.userPoint().point());
 
         // ArgumentCaptor를 사용하여 시간 값 캡처 (Argument Mismatch 에러 방지)
         ArgumentCaptor<Long> timeCaptor = ArgumentCaptor.forClass(Long.class);
@@ -118,8 +125,8 @@ class PointServiceTest {
         when(userPointTable.selectById(userId)).thenReturn(userPoint);
 
         // -2000L 포인트 사용 > 음수로 사용할 수 없음
-        String result = pointService.usePoint(userId, -2000L, now);
-        assertEquals(PointValidation.INVALID_AMOUNT, result);
+        PointResult result = pointService.usePoint(userId, -2000L, now);
+        assertEquals(PointValidation.INVALID_AMOUNT, result.result());
     }
 
     /**
@@ -137,8 +144,10 @@ class PointServiceTest {
         when(userPointTable.selectById(userId)).thenReturn(userPoint);
 
         // 2000L 포인트 사용 > 3445L user 가 가지고있는 포인트 보다 많은 포인트를 사용하고자 했기 때문에 사용할 수 없음
-        String result = pointService.usePoint(userId, 2000L, now);
-        assertEquals(PointValidation.INSUFFICIENT, result);
+        PointResult result = pointService.usePoint(userId, 2000L, now);
+        assertEquals(PointValidation.INSUFFICIENT, result.result());
+        // 변경되지 않은 현재 point 를 결과로 반환
+        assertEquals(1000L, result.userPoint().point());
     }
 
     /**
@@ -156,8 +165,10 @@ class PointServiceTest {
         when(userPointTable.selectById(userId)).thenReturn(userPoint);
 
         // 1000L 포인트 사용
-        String result = pointService.usePoint(userId, 2000L, now);
-        assertEquals(PointValidation.SUCCESS, result);
+        PointResult result = pointService.usePoint(userId, 2000L, now);
+        assertEquals(PointValidation.SUCCESS, result.result());
+        // 저장된 point 를 결과로 반환
+        assertEquals(1000L, result.userPoint().point());
 
         // ArgumentCaptor를 사용하여 시간 값 캡처 (Argument Mismatch 에러 방지)
         ArgumentCaptor<Long> timeCaptor = ArgumentCaptor.forClass(Long.class);
@@ -0,0 +1,133 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.point.model.PointHistory;
+import io.hhplus.tdd.point.model.PointSummary;
+import io.hhplus.tdd.point.model.PointSummaryBucket;
+import io.hhplus.tdd.point.model.TransactionType;
+import io.hhplus.tdd.point.service.impl.PointServiceImpl;
+import io.hhplus.tdd.point.summary.PointSummaryAggregator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PointSummaryTest {
+
+    private static final int USERS = 4;
+    private static final int OPERATIONS_PER_USER = 400;
+
+    /**
+     * lock / optimistic / queue 방식으로 동시에 충전/사용해도
+     * 집계는 history 에서 계산한 합계, 건수, 마지막 시각과 같고 충전 합 - 사용 합은 최종 point 와 같다.
+     */
+    @Test
+    @DisplayName("동시 충전/사용 후 집계와 history 일치 test")
+    void testSummaryMatchesHistory() throws Exception {
+        for (String strategy : List.of(PointServiceImpl.CONCURRENCY_LOCK, PointServiceImpl.CONCURRENCY_OPTIMISTIC)) {
+            PointServiceImpl pointService = new PointServiceImpl(new FixedLatencyUserPointTable(0L), new FixedLatencyPointHistoryTable(0L));
+            pointService.setConcurrencyStrategy(strategy);
+
+            ExecutorService executorService = Executors.newFixedThreadPool(16);
+            List<CompletableFuture<?>> results = new ArrayList<>();
+            for (int i = 0; i < USERS * OPERATIONS_PER_USER; i++) {
+                long userId = i % USERS;
+                long amount = 1 + i % 700;
+                boolean use = i % 3 == 0;
+                boolean queued = i % 2 == 0;
+                if (queued) {
+                    results.add(use ? pointService.usePointAsync(userId, amount, 0L) : pointService.chargePointAsync(userId, amount, 0L));
+                } else {
+                    results.add(CompletableFuture.runAsync(() -> {
+                        if (use) {
+                            pointService.usePoint(userId, amount, 0L);
+                        } else {
+                            pointService.chargePoint(userId, amount, 0L);
+                        }
+                    }, executorService));
+                }
+            }
+            CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(1, TimeUnit.MINUTES);
+            executorService.shutdown();
+
+            for (long userId = 0; userId < USERS; userId++) {
+                assertSummaryMatches(pointService, userId, PointServiceImpl.CONCURRENCY_LOCK.equals(strategy));
+            }
+        }
+    }
+
+    /**
+     * 구간 집계는 최근 설정한 개수만큼의 시간/일 구간을 오래된 순서로 보관하고, 범위를 벗어난 구간은 버린다.
+     */
+    @Test
+    @DisplayName("시간/일 구간 집계 test")
+    void testBuckets() {
+        long hour = TimeUnit.HOURS.toMillis(1);
+        long day = TimeUnit.DAYS.toMillis(1);
+        PointSummaryAggregator aggregator = new PointSummaryAggregator(3, 2);
+
+        aggregator.record(1L, TransactionType.CHARGE, 100L, day + 10);
+        aggregator.record(1L, TransactionType.USE, 30L, day + hour + 10);
+        aggregator.record(1L, TransactionType.CHARGE, 50L, day + hour + 20);
+        aggregator.record(1L, TransactionType.CHARGE, 70L, day + 3 * hour);
+        aggregator.record(1L, TransactionType.CHARGE, 5L, day);
+        aggregator.record(1L, TransactionType.USE, 10L, 2 * day + 3 * hour);
+
+        PointSummary summary = aggregator.summarize(1L);
+        assertEquals(225L, summary.totalCharged());
+        assertEquals(40L, summary.totalUsed());
+        assertEquals(4L, summary.chargeCount());
+        assertEquals(2L, summary.useCount());
+        assertEquals(2 * day + 3 * hour, summary.lastActivityMillis());
+        assertEquals(List.of(
+                new PointSummaryBucket(2 * day + 3 * hour, 0L, 10L, 0L, 1L)
+        ), summary.hourly());
+        assertEquals(List.of(
+                new PointSummaryBucket(day, 225L, 30L, 4L, 1L),
+                new PointSummaryBucket(2 * day, 0L, 10L, 0L, 1L)
+        ), summary.daily());
+
+        assertEquals(PointSummary.empty(2L), aggregator.summarize(2L));
+    }
+
+    /**
+     * ordered : history 가 반영 순서대로 저장되는 경우(lock) 이전 history 와의 point 차이로 합계까지 비교
+     * optimistic 은 동시에 처리된 요청의 history 순서가 반영 순서와 다를 수 있으므로 건수와 순 변화량만 비교
+     */
+    private void assertSummaryMatches(PointServiceImpl pointService, long userId, boolean ordered) {
+        List<PointHistory> histories = pointService.selectHistoryById(userId);
+        long charged = 0;
+        long used = 0;
+        long chargeCount = 0;
+        long useCount = 0;
+        long lastActivity = 0;
+        long previous = 0;
+        for (PointHistory history : histories) {
+            if (history.type() == TransactionType.CHARGE) {
+                charged += history.amount() - previous;
+                chargeCount++;
+            } else {
+                used += previous - history.amount();
+                useCount++;
+            }
+            previous = history.amount();
+            lastActivity = Math.max(lastActivity, history.updateMillis());
+        }
+
+        PointSummary summary = pointService.selectSummaryById(userId);
+        assertEquals(chargeCount, summary.chargeCount());
+        assertEquals(useCount, summary.useCount());
+        assertEquals(lastActivity, summary.lastActivityMillis());
+        if (ordered) {
+            assertEquals(charged, summary.totalCharged());
+            assertEquals(used, summary.totalUsed());
+        }
+        assertEquals(pointService.selectPointById(userId).point(), summary.totalCharged() - summary.totalUsed());
+    }
+}
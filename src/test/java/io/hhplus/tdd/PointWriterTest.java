@@ -0,0 +1,262 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.TablePointHistoryRepository;
+import io.hhplus.tdd.database.TableUserPointRepository;
+import io.hhplus.tdd.point.idempotency.IdempotencyCache;
+import io.hhplus.tdd.point.lock.UserLockManager;
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import io.hhplus.tdd.point.model.PointHistory;
+import io.hhplus.tdd.point.model.PointResult;
+import io.hhplus.tdd.point.model.PointSummary;
+import io.hhplus.tdd.point.model.PointValidation;
+import io.hhplus.tdd.point.model.TransactionType;
+import io.hhplus.tdd.point.model.UserPoint;
+import io.hhplus.tdd.point.service.impl.PointServiceImpl;
+import io.hhplus.tdd.point.service.impl.PointWriter;
+import io.hhplus.tdd.point.summary.PointSummaryAggregator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PointWriterTest {
+
+    private static final long TABLE_LATENCY_MILLIS = 100L;
+    private static final long USER_ID = 1L;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * history 저장과 point 저장을 동시에 실행하므로
+     * 두 저장 지연의 합보다 짧은 시간 안에 둘 다 저장된다.
+     */
+    @Test
+    @DisplayName("history/point 동시 저장 test")
+    void testOverlappedWrite() {
+        FixedLatencyUserPointTable userPointTable = new FixedLatencyUserPointTable(TABLE_LATENCY_MILLIS);
+        FixedLatencyPointHistoryTable pointHistoryTable = new FixedLatencyPointHistoryTable(TABLE_LATENCY_MILLIS);
+        PointWriter pointWriter = writerOf(userPointTable, pointHistoryTable);
+
+        long start = System.currentTimeMillis();
+        UserPoint saved = pointWriter.write(USER_ID, 0L, 1000L, TransactionType.CHARGE);
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertEquals(1000L, saved.point());
+        assertEquals(1000L, userPointTable.selectById(USER_ID).point());
+        assertEquals(1, pointHistoryTable.selectAllByUserId(USER_ID).size());
+        assertTrue(elapsed < TABLE_LATENCY_MILLIS * 2, "elapsed : " + elapsed);
+    }
+
+    /**
+     * history 저장이 실패하면 먼저 저장된 point 를 이전 값으로 되돌리고 예외를 전달한다.
+     */
+    @Test
+    @DisplayName("history 저장 실패 시 point 되돌리기 test")
+    void testHistoryFailureRevertsPoint() {
+        FixedLatencyUserPointTable userPointTable = new FixedLatencyUserPointTable(0L);
+        userPointTable.insertOrUpdate(USER_ID, 500L);
+        FixedLatencyPointHistoryTable pointHistoryTable = new FixedLatencyPointHistoryTable(0L) {
+            @Override
+            public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+                throw new IllegalStateException("history 저장 실패");
+            }
+        };
+        PointWriter pointWriter = writerOf(userPointTable, pointHistoryTable);
+
+        assertThrows(IllegalStateException.class, () -> pointWriter.write(USER_ID, 500L, 1500L, TransactionType.CHARGE));
+
+        assertEquals(500L, userPointTable.selectById(USER_ID).point());
+        assertTrue(pointHistoryTable.selectAllByUserId(USER_ID).isEmpty());
+    }
+
+    /**
+     * point 저장이 일시적으로 실패하면 재시도하여 저장하고, history 는 한 번만 남는다.
+     */
+    @Test
+    @DisplayName("point 저장 재시도 test")
+    void testPointFailureRetried() {
+        AtomicInteger failures = new AtomicInteger(2);
+        FixedLatencyUserPointTable userPointTable = new FixedLatencyUserPointTable(0L) {
+            @Override
+            public UserPoint insertOrUpdate(long id, long amount) {
+                if (failures.getAndDecrement() > 0) {
+                    throw new IllegalStateException("point 저장 실패");
+                }
+                return super.insertOrUpdate(id, amount);
+            }
+        };
+        FixedLatencyPointHistoryTable pointHistoryTable = new FixedLatencyPointHistoryTable(0L);
+        PointWriter pointWriter = writerOf(userPointTable, pointHistoryTable);
+
+        UserPoint saved = pointWriter.write(USER_ID, 0L, 1000L, TransactionType.CHARGE);
+
+        assertEquals(1000L, saved.point());
+        assertEquals(1, pointHistoryTable.selectAllByUserId(USER_ID).size());
+    }
+
+    /**
+     * point 저장이 재시도 후에도 실패하면 이전 point 로 되돌리는 history 를 남겨
+     * history 의 마지막 point 와 저장된 point 가 같게 유지된다.
+     */
+    @Test
+    @DisplayName("point 저장 실패 시 보정 history test")
+    void testPointFailureCompensated() {
+        FixedLatencyUserPointTable userPointTable = new FixedLatencyUserPointTable(0L) {
+            @Override
+            public UserPoint insertOrUpdate(long id, long amount) {
+                if (amount == 300L) {
+                    throw new IllegalStateException("point 저장 실패");
+                }
+                return super.insertOrUpdate(id, amount);
+            }
+        };
+        userPointTable.insertOrUpdate(USER_ID, 1000L);
+        FixedLatencyPointHistoryTable pointHistoryTable = new FixedLatencyPointHistoryTable(0L);
+        PointWriter pointWriter = writerOf(userPointTable, pointHistoryTable);
+
+        assertThrows(IllegalStateException.class, () -> pointWriter.write(USER_ID, 1000L, 300L, TransactionType.USE));
+
+        List<PointHistory> histories = pointHistoryTable.selectAllByUserId(USER_ID);
+        assertEquals(2, histories.size());
+        assertEquals(TransactionType.CHARGE, histories.get(1).type());
+        assertEquals(userPointTable.selectById(USER_ID).point(), histories.get(1).amount());
+        assertEquals(1000L, userPointTable.selectById(USER_ID).point());
+    }
+
+    /**
+     * 여러 요청의 history 를 저장하다 중간에 실패하면 이미 저장한 history 뒤에 이전 point 로 되돌리는 history 를 남기고,
+     * 먼저 저장된 point 도 이전 값으로 되돌린다. 되돌린 history 와 보정 history 는 집계에 남지 않는다.
+     */
+    @Test
+    @DisplayName("writeAll history 일부 저장 실패 시 보정 test")
+    void testWriteAllPartialHistoryFailure() {
+        FixedLatencyUserPointTable userPointTable = new FixedLatencyUserPointTable(0L);
+        userPointTable.insertOrUpdate(USER_ID, 100L);
+        FixedLatencyPointHistoryTable pointHistoryTable = new FixedLatencyPointHistoryTable(0L) {
+            @Override
+            public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+                if (amount == 250L) {
+                    throw new IllegalStateException("history 저장 실패");
+                }
+                return super.insert(userId, amount, type, updateMillis);
+            }
+        };
+        PointSummaryAggregator pointSummaryAggregator = new PointSummaryAggregator();
+        PointWriter pointWriter = new PointWriter(new TableUserPointRepository(userPointTable),
+                new TablePointHistoryRepository(pointHistoryTable), executor, true, pointSummaryAggregator);
+
+        assertThrows(IllegalStateException.class, () -> pointWriter.writeAll(USER_ID, 100L, List.of(
+                new PointWriter.Change(TransactionType.CHARGE, 300L),
+                new PointWriter.Change(TransactionType.USE, 250L),
+                new PointWriter.Change(TransactionType.CHARGE, 350L))));
+
+        List<PointHistory> histories = pointHistoryTable.selectAllByUserId(USER_ID);
+        assertEquals(2, histories.size());
+        assertEquals(300L, histories.get(0).amount());
+        assertEquals(TransactionType.USE, histories.get(1).type());
+        assertEquals(100L, histories.get(1).amount());
+        assertEquals(100L, userPointTable.selectById(USER_ID).point());
+
+        // 되돌린 충전은 집계에서 제외되고, 보정 history 는 사용으로 집계되지 않는다
+        PointSummary summary = pointSummaryAggregator.summarize(USER_ID);
+        assertEquals(0L, summary.totalCharged());
+        assertEquals(0L, summary.totalUsed());
+        assertEquals(0L, summary.chargeCount());
+        assertEquals(0L, summary.useCount());
+    }
+
+    /**
+     * overlap 에서는 history 저장이 끝나기 전에 새 point 가 먼저 조회될 수 있고,
+     * history 저장이 실패하면 future 가 실패로 끝나기 전에 조회되는 point 도 이전 값으로 되돌아간다.
+     */
+    @Test
+    @DisplayName("overlap 저장 중 조회되는 point 와 되돌리기 test")
+    void testOverlapPointVisibleUntilReverted() throws Exception {
+        FixedLatencyUserPointTable userPointTable = new FixedLatencyUserPointTable(0L);
+        userPointTable.insertOrUpdate(USER_ID, 500L);
+        CountDownLatch historyStarted = new CountDownLatch(1);
+        CountDownLatch failHistory = new CountDownLatch(1);
+        FixedLatencyPointHistoryTable pointHistoryTable = new FixedLatencyPointHistoryTable(0L) {
+            @Override
+            public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+                historyStarted.countDown();
+                try {
+                    failHistory.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IllegalStateException("history 저장 실패");
+            }
+        };
+        PointWriter pointWriter = writerOf(userPointTable, pointHistoryTable);
+
+        CompletableFuture<UserPoint> result = pointWriter.writeAsync(USER_ID, 500L, 1500L, TransactionType.CHARGE);
+        assertTrue(historyStarted.await(5, TimeUnit.SECONDS));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (userPointTable.selectById(USER_ID).point() != 1500L && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+
+        // history 저장 중 : 새 point 가 조회됨
+        assertEquals(1500L, userPointTable.selectById(USER_ID).point());
+        assertFalse(result.isDone());
+
+        failHistory.countDown();
+        CompletionException error = assertThrows(CompletionException.class, result::join);
+        assertTrue(error.getCause() instanceof IllegalStateException, "cause : " + error.getCause());
+        // future 가 끝난 시점에는 이전 point 로 되돌아가 있음
+        assertEquals(500L, userPointTable.selectById(USER_ID).point());
+    }
+
+    /**
+     * PointService.writePointAsync 는 요청 thread 를 기다리게 하지 않고,
+     * history 와 point 가 모두 저장된 뒤 완료된다.
+     */
+    @Test
+    @DisplayName("service 비동기 저장 test")
+    void testServiceWritePointAsync() {
+        FixedLatencyUserPointTable userPointTable = new FixedLatencyUserPointTable(TABLE_LATENCY_MILLIS);
+        FixedLatencyPointHistoryTable pointHistoryTable = new FixedLatencyPointHistoryTable(TABLE_LATENCY_MILLIS);
+        TableUserPointRepository userPointRepository = new TableUserPointRepository(userPointTable, PointMetrics.noop(), true);
+        TablePointHistoryRepository pointHistoryRepository = new TablePointHistoryRepository(pointHistoryTable, PointMetrics.noop(), true);
+        PointSummaryAggregator pointSummaryAggregator = new PointSummaryAggregator();
+        PointServiceImpl pointService = new PointServiceImpl(userPointRepository, pointHistoryRepository, new UserLockManager(),
+                new PointWriter(userPointRepository, pointHistoryRepository, executor, true, pointSummaryAggregator),
+                executor, PointMetrics.noop(), pointSummaryAggregator, new IdempotencyCache());
+
+        long start = System.currentTimeMillis();
+        CompletableFuture<PointResult> result = pointService.writePointAsync(USER_ID, 1000L, TransactionType.CHARGE, start);
+        assertTrue(System.currentTimeMillis() - start < TABLE_LATENCY_MILLIS, "submit : " + (System.currentTimeMillis() - start));
+
+        PointResult pointResult = result.join();
+        assertEquals(PointValidation.SUCCESS, pointResult.result());
+        assertEquals(1000L, pointResult.userPoint().point());
+        assertEquals(1000L, userPointTable.selectById(USER_ID).point());
+        assertEquals(1, pointHistoryTable.selectAllByUserId(USER_ID).size());
+    }
+
+    private PointWriter writerOf(FixedLatencyUserPointTable userPointTable, FixedLatencyPointHistoryTable pointHistoryTable) {
+        return new PointWriter(new TableUserPointRepository(userPointTable), new TablePointHistoryRepository(pointHistoryTable), executor, true);
+    }
+}
@@ -0,0 +1,122 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.PrimitiveUserPointRepository;
+import io.hhplus.tdd.database.VersionedUserPoint;
+import io.hhplus.tdd.point.model.UserPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrimitiveUserPointRepositoryTest {
+
+    private PrimitiveUserPointRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new PrimitiveUserPointRepository();
+    }
+
+    /**
+     * 저장하지 않은 user 는 point 0, 저장한 user 는 마지막으로 저장한 point 가 조회된다.
+     * 배열이 여러 번 늘어나도 (음수 / 0 / 최대 id 포함) 저장한 값은 그대로 조회된다.
+     */
+    @Test
+    @DisplayName("primitive 저장소 저장/조회 test")
+    void testInsertAndSelect() {
+        assertEquals(0L, repository.selectById(1L).point());
+
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(15);
+        for (int i = 0; i < 200_000; i++) {
+            long id = i % 3 == 0 ? random.nextLong() : i;
+            long point = random.nextInt(1_000_000);
+            repository.insertOrUpdate(id, point);
+            expected.put(id, point);
+        }
+        for (long id : new long[]{0L, -1L, Long.MIN_VALUE, Long.MAX_VALUE}) {
+            repository.insertOrUpdate(id, 7L);
+            expected.put(id, 7L);
+        }
+
+        assertEquals(expected.size(), repository.size());
+        expected.forEach((id, point) -> assertEquals(point.longValue(), repository.selectById(id).point()));
+        assertEquals(0L, repository.selectById(-2L).point());
+    }
+
+    /**
+     * version 이 다르면 저장하지 않고, 같으면 저장 후 version 이 1 증가한다.
+     */
+    @Test
+    @DisplayName("primitive 저장소 compareAndSet test")
+    void testCompareAndSet() {
+        assertEquals(0L, repository.selectVersionedById(1L).version());
+        assertTrue(repository.compareAndSet(1L, 1L, 100L).isEmpty());
+        assertEquals(100L, repository.compareAndSet(1L, 0L, 100L).orElseThrow().point());
+
+        VersionedUserPoint versioned = repository.selectVersionedById(1L);
+        assertEquals(1L, versioned.version());
+        assertEquals(100L, versioned.point());
+
+        repository.insertOrUpdate(1L, 200L);
+        assertTrue(repository.compareAndSet(1L, 1L, 300L).isEmpty());
+        assertEquals(200L, repository.selectById(1L).point());
+    }
+
+    /**
+     * 여러 thread 가 같은 user 들에 compareAndSet 으로 1 씩 더해도 누락이 없고,
+     * 저장 중 배열이 늘어나도 조회는 저장된 값만 반환한다.
+     */
+    @Test
+    @DisplayName("primitive 저장소 동시 저장 test")
+    void testConcurrentWriters() throws Exception {
+        int threads = 16;
+        int increments = 2_000;
+        int sharedUsers = 50;
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < threads; thread++) {
+            long ownBase = 1_000_000L * (thread + 1);
+            futures.add(executorService.submit(() -> {
+                start.await();
+                for (int i = 0; i < increments; i++) {
+                    long id = i % sharedUsers;
+                    VersionedUserPoint current = repository.selectVersionedById(id);
+                    while (repository.compareAndSet(id, current.version(), current.point() + 1).isEmpty()) {
+                        current = repository.selectVersionedById(id);
+                    }
+                    // 다른 thread 와 겹치지 않는 user 를 추가하여 배열이 늘어나도록 한다
+                    repository.insertOrUpdate(ownBase + i, i);
+                    UserPoint own = repository.selectById(ownBase + i);
+                    assertEquals(i, own.point());
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executorService.shutdown();
+
+        long total = 0;
+        for (long id = 0; id < sharedUsers; id++) {
+            total += repository.selectById(id).point();
+        }
+        assertEquals((long) threads * increments, total);
+        assertEquals(sharedUsers + (long) threads * increments, repository.size());
+    }
+}
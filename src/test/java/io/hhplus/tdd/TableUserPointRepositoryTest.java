@@ -0,0 +1,198 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.TablePointHistoryRepository;
+import io.hhplus.tdd.database.TableUserPointRepository;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import io.hhplus.tdd.point.model.PointHistory;
+import io.hhplus.tdd.point.model.TransactionType;
+import io.hhplus.tdd.point.model.UserPoint;
+import io.hhplus.tdd.point.service.impl.PointServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TableUserPointRepositoryTest {
+
+    private static final long USER_ID = 1L;
+    private static final int READERS = 1_000;
+    private static final int TABLE_WRITERS = 8;
+
+    /**
+     * 같은 user 를 동시에 1,000번 조회해도
+     * table 조회는 한 번만 하고 모든 조회가 같은 결과를 받는다.
+     */
+    @Test
+    @DisplayName("같은 user 동시 조회 시 table 조회 1회 test")
+    void testConcurrentReadsAreCoalesced() throws Exception {
+        AtomicInteger tableCalls = new AtomicInteger();
+        FixedLatencyUserPointTable userPointTable = new FixedLatencyUserPointTable(200L) {
+            @Override
+            public UserPoint selectById(Long id) {
+                tableCalls.incrementAndGet();
+                return super.selectById(id);
+            }
+        };
+        PointServiceImpl pointService = new PointServiceImpl(userPointTable, new FixedLatencyPointHistoryTable(0L));
+
+        ExecutorService executorService = Executors.newFixedThreadPool(READERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<UserPoint>> reads = new ArrayList<>();
+        for (int i = 0; i < READERS; i++) {
+            reads.add(executorService.submit(() -> {
+                start.await();
+                return pointService.selectPointById(USER_ID);
+            }));
+        }
+        start.countDown();
+        for (Future<UserPoint> read : reads) {
+            assertEquals(0L, read.get(10, TimeUnit.SECONDS).point());
+        }
+        executorService.shutdown();
+
+        assertEquals(1, tableCalls.get());
+    }
+
+    /**
+     * table 조회가 끝나기 전에 같은 user 의 point 가 저장되면
+     * 기다리던 조회는 조회 전 값이 아닌 저장된 값을 받는다.
+     */
+    @Test
+    @DisplayName("조회 중 저장 시 저장된 값 반환 test")
+    void testWriteCompletesInFlightRead() throws Exception {
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        FixedLatencyUserPointTable userPointTable = new FixedLatencyUserPointTable(0L) {
+            @Override
+            public UserPoint selectById(Long id) {
+                UserPoint userPoint = super.selectById(id);
+                loadStarted.countDown();
+                try {
+                    releaseLoad.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return userPoint;
+            }
+        };
+        TableUserPointRepository repository = new TableUserPointRepository(userPointTable, PointMetrics.noop(), true);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        Future<UserPoint> loader = executorService.submit(() -> repository.selectById(USER_ID));
+        assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+        Future<UserPoint> waiter = executorService.submit(() -> repository.selectById(USER_ID));
+
+        repository.insertOrUpdate(USER_ID, 500L);
+
+        assertEquals(500L, waiter.get(5, TimeUnit.SECONDS).point());
+        releaseLoad.countDown();
+        assertEquals(500L, loader.get(5, TimeUnit.SECONDS).point());
+        assertEquals(500L, repository.selectById(USER_ID).point());
+        executorService.shutdown();
+    }
+
+    /**
+     * 변경하지 않은 UserPointTable(HashMap), PointHistoryTable(ArrayList, cursor)을 여러 user 가 동시에 사용해도
+     * repository 가 table 접근을 직렬화하므로 저장이 누락되거나 history id 가 중복되지 않는다.
+     */
+    @Test
+    @DisplayName("thread-safe 하지 않은 table 동시 저장 test")
+    void testUnsafeTablesAreSerialized() throws Exception {
+        UserPointTable userPointTable = new UserPointTable();
+        TableUserPointRepository userPointRepository = new TableUserPointRepository(userPointTable);
+        TablePointHistoryRepository pointHistoryRepository = new TablePointHistoryRepository(new PointHistoryTable());
+
+        ExecutorService executorService = Executors.newFixedThreadPool(TABLE_WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> writes = new ArrayList<>();
+        for (int i = 0; i < TABLE_WRITERS; i++) {
+            long userId = 100L + i;
+            writes.add(executorService.submit(() -> {
+                start.await();
+                pointHistoryRepository.insert(userId, 100L, TransactionType.CHARGE, System.currentTimeMillis());
+                userPointRepository.insertOrUpdate(userId, 100L);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> write : writes) {
+            write.get(30, TimeUnit.SECONDS);
+        }
+        executorService.shutdown();
+
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < TABLE_WRITERS; i++) {
+            long userId = 100L + i;
+            List<PointHistory> histories = pointHistoryRepository.selectAllByUserId(userId);
+            assertEquals(1, histories.size());
+            ids.add(histories.get(0).id());
+            // snapshot 이 아닌 table 에 저장된 값 확인
+            assertEquals(100L, userPointTable.selectById(userId).point());
+        }
+        assertEquals(TABLE_WRITERS, ids.size());
+    }
+
+    /**
+     * compareAndSet 은 table 저장이 성공한 뒤에만 새 point 를 확정하므로
+     * 저장 중에도, 저장이 실패한 뒤에도 조회는 table 에 없는 point 를 보지 않고,
+     * 저장 중인 같은 user 의 다른 compareAndSet 은 충돌로 끝난다.
+     */
+    @Test
+    @DisplayName("compareAndSet table 저장 실패 시 새 point 미노출 test")
+    void testCompareAndSetPublishesOnlyAfterWrite() throws Exception {
+        CountDownLatch writeStarted = new CountDownLatch(1);
+        CountDownLatch failWrite = new CountDownLatch(1);
+        FixedLatencyUserPointTable userPointTable = new FixedLatencyUserPointTable(0L) {
+            @Override
+            public UserPoint insertOrUpdate(long id, long amount) {
+                if (amount == 900L) {
+                    writeStarted.countDown();
+                    try {
+                        failWrite.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw new IllegalStateException("point 저장 실패");
+                }
+                return super.insertOrUpdate(id, amount);
+            }
+        };
+        TableUserPointRepository repository = new TableUserPointRepository(userPointTable, PointMetrics.noop(), true);
+        repository.insertOrUpdate(USER_ID, 500L);
+        long version = repository.selectVersionedById(USER_ID).version();
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        Future<?> failing = executorService.submit(() -> repository.compareAndSet(USER_ID, version, 900L));
+        assertTrue(writeStarted.await(5, TimeUnit.SECONDS));
+
+        // 저장 중 : 새 point 는 보이지 않고, 같은 version 의 다른 compareAndSet 은 충돌
+        assertEquals(500L, repository.selectById(USER_ID).point());
+        assertTrue(repository.compareAndSet(USER_ID, version, 700L).isEmpty());
+        assertEquals(500L, repository.selectById(USER_ID).point());
+
+        failWrite.countDown();
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> failing.get(5, TimeUnit.SECONDS));
+        assertTrue(failure.getCause() instanceof IllegalStateException);
+        executorService.shutdown();
+
+        assertEquals(500L, repository.selectById(USER_ID).point());
+        assertEquals(version, repository.selectVersionedById(USER_ID).version());
+        assertTrue(repository.compareAndSet(USER_ID, version, 700L).isPresent());
+        assertEquals(700L, repository.selectById(USER_ID).point());
+        assertEquals(700L, userPointTable.selectById(USER_ID).point());
+    }
+}
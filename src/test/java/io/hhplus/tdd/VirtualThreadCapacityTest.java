@@ -0,0 +1,105 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.point.VirtualThreads;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 요청 처리 스레드를 Tomcat platform thread pool(최대 200개)에서 virtual thread(spring.threads.virtual.enabled)로 바꿨을 때
+ * HTTP 로 동시에 처리할 수 있는 요청 수 비교
+ * java21Test task 에서 Java 21 로 실행 (Java 21 미만에서는 건너뜀)
+ */
+@Tag("java21")
+class VirtualThreadCapacityTest {
+
+    private static final long TABLE_LATENCY_MILLIS = 100L;
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final int CONCURRENT_REQUESTS = 1_000;
+    private static final int WARMUP_REQUESTS = 50;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    /**
+     * 요청 대부분의 시간이 table 지연(sleep)이므로
+     * virtual thread 에서는 스레드 수 제한 없이 동시에 대기하여 platform thread pool 보다 빨리 끝난다.
+     */
+    @Test
+    @DisplayName("virtual thread 동시 처리량 test")
+    void testVirtualThreadsServeMoreConcurrentRequests() throws Exception {
+        assumeTrue(VirtualThreads.isSupported(), "Java 21 이상에서만 실행");
+
+        long platformMillis = run(false);
+        long virtualMillis = run(true);
+
+        // platform : 200 개씩 나누어 처리 / virtual : 1,000 개를 동시에 처리
+        assertTrue(virtualMillis * 2 < platformMillis,
+                "platform : " + platformMillis + "ms, virtual : " + virtualMillis + "ms");
+    }
+
+    /**
+     * application 을 띄워 서로 다른 user 에 충전 요청을 동시에 보내고 모든 응답을 받을 때까지 걸린 시간 반환
+     */
+    private long run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TddApplication.class)
+                .properties("server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "server.tomcat.threads.max=" + TOMCAT_MAX_THREADS,
+                        "point.table.thread-safe=true",
+                        FixedLatencyTableConfig.LATENCY_PROPERTY + "=" + TABLE_LATENCY_MILLIS)
+                .run()) {
+            String target = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+            // JIT compile, 연결 생성 등으로 느린 처음 요청은 시간에 포함하지 않음
+            charge(target, CONCURRENT_REQUESTS + 1, CONCURRENT_REQUESTS + WARMUP_REQUESTS);
+
+            long start = System.nanoTime();
+            charge(target, 1, CONCURRENT_REQUESTS);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            for (long userId = 1; userId <= CONCURRENT_REQUESTS; userId += 97) {
+                HttpResponse<String> point = httpClient.send(request(target, "GET", "/point/" + userId, null),
+                        HttpResponse.BodyHandlers.ofString());
+                assertTrue(point.body().contains("\"point\":100"), "user " + userId + " : " + point.body());
+            }
+            return elapsedMillis;
+        }
+    }
+
+    private void charge(String target, long fromUserId, long toUserId) {
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (long userId = fromUserId; userId <= toUserId; userId++) {
+            responses.add(httpClient.sendAsync(request(target, "PATCH", "/point/" + userId + "/charge", "100"),
+                    HttpResponse.BodyHandlers.ofString()));
+        }
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            assertEquals(200, response.orTimeout(1, TimeUnit.MINUTES).join().statusCode());
+        }
+    }
+
+    private static HttpRequest request(String target, String method, String path, String body) {
+        return HttpRequest.newBuilder(URI.create(target + path))
+                .timeout(Duration.ofMinutes(1))
+                .header("Content-Type", "application/json")
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
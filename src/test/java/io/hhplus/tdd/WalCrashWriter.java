@@ -0,0 +1,47 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.MappedPointHistoryLog;
+import io.hhplus.tdd.point.model.PointHistory;
+import io.hhplus.tdd.point.model.TransactionType;
+
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * MappedPointHistoryLogTest 에서 별도 JVM 으로 실행하여 강제 종료하는 writer
+ * - 여러 thread 가 계속 record 를 추가하고, 디스크 반영이 끝난 id 를 한 줄씩 출력
+ * - record 내용은 id 로부터 계산할 수 있도록 만든다 (userId = id % 100, amount = id * 10)
+ */
+class WalCrashWriter {
+
+    static final int SEGMENT_BYTES = MappedPointHistoryLog.RECORD_BYTES * 500;
+    static final int THREADS = 8;
+
+    public static void main(String[] args) {
+        MappedPointHistoryLog log = new MappedPointHistoryLog(Path.of(args[0]), SEGMENT_BYTES, history -> { });
+        ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        for (int thread = 0; thread < THREADS; thread++) {
+            executorService.submit(() -> {
+                while (true) {
+                    PointHistory history = appendFor(log);
+                    log.awaitDurable(history.id());
+                    synchronized (System.out) {
+                        System.out.println(history.id());
+                        System.out.flush();
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * 다음 id 를 미리 알아야 내용을 id 로 계산할 수 있으므로 추가만 순서대로 하고, 디스크 반영은 thread 별로 함께 기다린다
+     */
+    private static PointHistory appendFor(MappedPointHistoryLog log) {
+        synchronized (log) {
+            long next = log.lastId() + 1;
+            return log.append(next % 100, next * 10, next % 2 == 0 ? TransactionType.USE : TransactionType.CHARGE, next);
+        }
+    }
+}